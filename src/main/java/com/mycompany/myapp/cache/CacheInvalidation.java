@@ -0,0 +1,69 @@
+package com.mycompany.myapp.cache;
+
+import java.util.Objects;
+
+/**
+ * The eviction of a key from a cache, or the clearing of the whole cache, broadcast by a {@link CacheInvalidationBus}.
+ */
+public final class CacheInvalidation {
+
+    private final String cacheName;
+
+    private final Object key;
+
+    private CacheInvalidation(String cacheName, Object key) {
+        this.cacheName = Objects.requireNonNull(cacheName);
+        this.key = key;
+    }
+
+    public static CacheInvalidation evict(String cacheName, Object key) {
+        return new CacheInvalidation(cacheName, Objects.requireNonNull(key));
+    }
+
+    public static CacheInvalidation clear(String cacheName) {
+        return new CacheInvalidation(cacheName, null);
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    /**
+     * Get the evicted key.
+     *
+     * @return the key, or {@code null} when the whole cache is cleared.
+     */
+    public Object getKey() {
+        return key;
+    }
+
+    public boolean isClear() {
+        return key == null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheInvalidation)) {
+            return false;
+        }
+        CacheInvalidation that = (CacheInvalidation) o;
+        return cacheName.equals(that.cacheName) && Objects.equals(key, that.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cacheName, key);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CacheInvalidation{" +
+            "cacheName='" + cacheName + "'" +
+            ", key='" + key + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,53 @@
+package com.mycompany.myapp.cache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Broadcasts the cache invalidations of a node to the other nodes of the application.
+ * <p>
+ * A node does not receive its own invalidations.
+ */
+public interface CacheInvalidationBus {
+    /**
+     * Broadcast invalidations now.
+     *
+     * @param invalidations the invalidations, in order.
+     */
+    void publish(Collection<CacheInvalidation> invalidations);
+
+    /**
+     * Receive the invalidations of the other nodes.
+     *
+     * @param subscriber called for each invalidation of another node.
+     */
+    void subscribe(Consumer<CacheInvalidation> subscriber);
+
+    /**
+     * Broadcast an invalidation once the current transaction commits, with the other invalidations of the transaction, or
+     * now when there is no transaction.
+     * <p>
+     * The other nodes could otherwise reload the invalidated entry before the transaction commits, and cache it stale.
+     *
+     * @param invalidation the invalidation.
+     */
+    default void publishAfterCommit(CacheInvalidation invalidation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(List.of(invalidation));
+            return;
+        }
+        // looked up in the synchronizations of the current transaction only, unlike a bound resource
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof CommittedInvalidations committedInvalidations && committedInvalidations.isFor(this)) {
+                committedInvalidations.add(invalidation);
+                return;
+            }
+        }
+        CommittedInvalidations committedInvalidations = new CommittedInvalidations(this);
+        committedInvalidations.add(invalidation);
+        TransactionSynchronizationManager.registerSynchronization(committedInvalidations);
+    }
+}
@@ -0,0 +1,36 @@
+package com.mycompany.myapp.cache;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.transaction.support.TransactionSynchronization;
+
+/**
+ * The invalidations of a transaction, published together by {@link CacheInvalidationBus#publishAfterCommit} when it commits.
+ */
+final class CommittedInvalidations implements TransactionSynchronization {
+
+    private final CacheInvalidationBus bus;
+
+    private final Set<CacheInvalidation> invalidations = new LinkedHashSet<>();
+
+    CommittedInvalidations(CacheInvalidationBus bus) {
+        this.bus = bus;
+    }
+
+    boolean isFor(CacheInvalidationBus bus) {
+        return this.bus == bus;
+    }
+
+    void add(CacheInvalidation invalidation) {
+        invalidations.add(invalidation);
+    }
+
+    // not afterCommit, as the evictions of the afterCommit callbacks registered after this one would be missed
+    @Override
+    public void afterCompletion(int status) {
+        if (status == STATUS_COMMITTED) {
+            bus.publish(List.copyOf(invalidations));
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.mycompany.myapp.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link CacheInvalidationBus} sharing the invalidations through the {@code jhi_cache_invalidation} table, which every
+ * node polls.
+ * <p>
+ * Enabled with {@code application.cache.invalidation.enabled}. The invalidations of the other nodes are received within
+ * {@code application.cache.invalidation.poll-interval}, and kept in the table for
+ * {@code application.cache.invalidation.retention}. Each poll reads the invalidations dated from the previous poll, less
+ * {@code application.cache.invalidation.commit-margin}, so a late poll misses none. The keys are stored serialized: a key
+ * which cannot be, or is too long, clears the whole cache on the other nodes.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.cache.invalidation", name = "enabled", havingValue = "true")
+public class DatabaseCacheInvalidationBus implements CacheInvalidationBus {
+
+    static final int MAX_KEY_LENGTH = 2000;
+
+    private static final String KEY_FILTER =
+        "maxdepth=10;java.lang.*;java.time.*;java.util.*;org.springframework.cache.interceptor.SimpleKey;com.mycompany.myapp.**;!*";
+
+    private static final Logger LOG = LoggerFactory.getLogger(DatabaseCacheInvalidationBus.class);
+
+    private final String origin = UUID.randomUUID().toString();
+
+    private final List<Consumer<CacheInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final long retentionSeconds;
+
+    private final Duration commitMargin;
+
+    // database date of the last poll, the next one reading from it less the commit margin
+    private LocalDateTime lastPollDate;
+
+    // ids of the rows of the last poll, which the next poll reads again
+    private Set<Long> receivedIds = Set.of();
+
+    public DatabaseCacheInvalidationBus(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        @Value("${application.cache.invalidation.retention:PT1H}") Duration retention,
+        @Value("${application.cache.invalidation.commit-margin:PT10S}") Duration commitMargin
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // also called once a transaction completes, when it cannot be joined
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.retentionSeconds = retention.toSeconds();
+        this.commitMargin = commitMargin;
+    }
+
+    @Override
+    public void publish(Collection<CacheInvalidation> invalidations) {
+        if (invalidations.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(invalidations.size());
+        for (CacheInvalidation invalidation : invalidations) {
+            rows.add(new Object[] { invalidation.getCacheName(), encodeKey(invalidation), origin });
+        }
+        LOG.debug("Publishing {} cache invalidations", rows.size());
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.batchUpdate(
+                "insert into jhi_cache_invalidation (cache_name, cache_key, origin, created_date) values (?, ?, ?, CURRENT_TIMESTAMP)",
+                rows
+            )
+        );
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * Receive the invalidations published by the other nodes since the last poll, however long ago it ran.
+     * <p>
+     * The dates are those of the database, so the clocks of the nodes do not matter.
+     */
+    @Scheduled(
+        initialDelayString = "${application.cache.invalidation.poll-interval:PT1S}",
+        fixedDelayString = "${application.cache.invalidation.poll-interval:PT1S}"
+    )
+    public synchronized void poll() {
+        List<Row> rows = transactionTemplate.execute(status -> {
+            LocalDateTime pollDate = jdbcTemplate.queryForObject("select CURRENT_TIMESTAMP", LocalDateTime.class);
+            List<Row> polled = jdbcTemplate.query(
+                "select id, cache_name, cache_key from jhi_cache_invalidation where created_date >= ? and origin <> ? order by id",
+                (rs, rowNum) -> new Row(rs.getLong("id"), rs.getString("cache_name"), rs.getString("cache_key")),
+                (lastPollDate != null ? lastPollDate : pollDate).minus(commitMargin),
+                origin
+            );
+            lastPollDate = pollDate;
+            return polled;
+        });
+        Set<Long> ids = new HashSet<>();
+        for (Row row : rows) {
+            ids.add(row.id());
+            if (!receivedIds.contains(row.id())) {
+                deliver(decode(row.cacheName(), row.cacheKey()));
+            }
+        }
+        receivedIds = ids;
+    }
+
+    @Scheduled(fixedDelayString = "${application.cache.invalidation.retention:PT1H}")
+    public void removeExpired() {
+        int removed = transactionTemplate.execute(status ->
+            jdbcTemplate.update(
+                "delete from jhi_cache_invalidation where created_date < TIMESTAMPADD(SECOND, -" + retentionSeconds + ", CURRENT_TIMESTAMP)"
+            )
+        );
+        LOG.debug("Removed {} expired cache invalidations", removed);
+    }
+
+    private void deliver(CacheInvalidation invalidation) {
+        LOG.debug("Received {}", invalidation);
+        for (Consumer<CacheInvalidation> subscriber : subscribers) {
+            try {
+                subscriber.accept(invalidation);
+            } catch (RuntimeException e) {
+                LOG.warn("Cache invalidation {} failed", invalidation, e);
+            }
+        }
+    }
+
+    static String encodeKey(CacheInvalidation invalidation) {
+        if (invalidation.isClear() || !(invalidation.getKey() instanceof Serializable key)) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(key);
+        } catch (IOException e) {
+            LOG.debug("Cache key {} cannot be serialized, clearing the cache instead", key, e);
+            return null;
+        }
+        String encoded = Base64.getEncoder().encodeToString(bytes.toByteArray());
+        return encoded.length() <= MAX_KEY_LENGTH ? encoded : null;
+    }
+
+    static CacheInvalidation decode(String cacheName, String encodedKey) {
+        if (encodedKey == null) {
+            return CacheInvalidation.clear(cacheName);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(encodedKey)))) {
+            in.setObjectInputFilter(ObjectInputFilter.Config.createFilter(KEY_FILTER));
+            return CacheInvalidation.evict(cacheName, in.readObject());
+        } catch (IOException | ClassNotFoundException | IllegalArgumentException e) {
+            LOG.warn("Cache key of {} cannot be read, clearing the cache instead", cacheName, e);
+            return CacheInvalidation.clear(cacheName);
+        }
+    }
+
+    private record Row(long id, String cacheName, String cacheKey) {}
+}
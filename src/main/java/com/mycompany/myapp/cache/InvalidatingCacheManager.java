@@ -0,0 +1,161 @@
+package com.mycompany.myapp.cache;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link CacheManager} broadcasting the evictions and clearings of its caches on a {@link CacheInvalidationBus}, and
+ * applying those of the other nodes.
+ * <p>
+ * This covers the {@code @CacheEvict} annotations as well as the direct evictions. Puts are not broadcast: the other nodes
+ * load the new value on their next miss.
+ */
+public class InvalidatingCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+
+    private final CacheInvalidationBus bus;
+
+    private final ConcurrentMap<String, InvalidatingCache> caches = new ConcurrentHashMap<>();
+
+    public InvalidatingCacheManager(CacheManager delegate, CacheInvalidationBus bus) {
+        this.delegate = delegate;
+        this.bus = bus;
+        bus.subscribe(this::invalidate);
+    }
+
+    @Override
+    @Nullable
+    public Cache getCache(String name) {
+        InvalidatingCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache delegateCache = delegate.getCache(name);
+        if (delegateCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> new InvalidatingCache(delegateCache, bus));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    // applied to the delegate, so it is not broadcast again
+    private void invalidate(CacheInvalidation invalidation) {
+        Cache cache = delegate.getCache(invalidation.getCacheName());
+        if (cache == null) {
+            return;
+        }
+        if (invalidation.isClear()) {
+            cache.invalidate();
+        } else {
+            cache.evictIfPresent(invalidation.getKey());
+        }
+    }
+
+    /**
+     * A cache broadcasting its evictions and clearings once the current transaction commits.
+     */
+    public static class InvalidatingCache implements Cache {
+
+        private final Cache delegate;
+
+        private final CacheInvalidationBus bus;
+
+        InvalidatingCache(Cache delegate, CacheInvalidationBus bus) {
+            this.delegate = delegate;
+            this.bus = bus;
+        }
+
+        public Cache getDelegate() {
+            return delegate;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return delegate.getNativeCache();
+        }
+
+        @Override
+        @Nullable
+        public ValueWrapper get(Object key) {
+            return delegate.get(key);
+        }
+
+        @Override
+        @Nullable
+        public <T> T get(Object key, @Nullable Class<T> type) {
+            return delegate.get(key, type);
+        }
+
+        @Override
+        @Nullable
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return delegate.get(key, valueLoader);
+        }
+
+        @Override
+        @Nullable
+        public CompletableFuture<?> retrieve(Object key) {
+            return delegate.retrieve(key);
+        }
+
+        @Override
+        public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+            return delegate.retrieve(key, valueLoader);
+        }
+
+        @Override
+        public void put(Object key, @Nullable Object value) {
+            delegate.put(key, value);
+        }
+
+        @Override
+        @Nullable
+        public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+            return delegate.putIfAbsent(key, value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            delegate.evict(key);
+            bus.publishAfterCommit(CacheInvalidation.evict(getName(), key));
+        }
+
+        // broadcast even when absent here, as the other nodes may hold the key
+        @Override
+        public boolean evictIfPresent(Object key) {
+            boolean present = delegate.evictIfPresent(key);
+            bus.publishAfterCommit(CacheInvalidation.evict(getName(), key));
+            return present;
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+            bus.publishAfterCommit(CacheInvalidation.clear(getName()));
+        }
+
+        @Override
+        public boolean invalidate() {
+            boolean notEmpty = delegate.invalidate();
+            bus.publishAfterCommit(CacheInvalidation.clear(getName()));
+            return notEmpty;
+        }
+    }
+}
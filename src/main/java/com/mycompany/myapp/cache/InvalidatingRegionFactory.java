@@ -0,0 +1,196 @@
+package com.mycompany.myapp.cache;
+
+import java.util.function.Supplier;
+import javax.cache.Cache;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.internal.SimpleCacheKeysFactory;
+import org.hibernate.cache.jcache.internal.JCacheAccessImpl;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+/**
+ * Hibernate region factory broadcasting the writes to the second-level cache on a {@link CacheInvalidationBus}, so that
+ * the other nodes drop the entities, collections and query results made stale.
+ * <p>
+ * The loads are not broadcast: Hibernate locks the item of an entity or collection in its region before writing it, and
+ * only these locks are. A write to the update timestamp of a table evicts that timestamp on the other nodes, as their
+ * query results are checked against the timestamps of their own node only; a missing timestamp then counts as an update
+ * at the time it is next read, so only the query results on that table are stale. The entity ids are the cache keys, so
+ * that the broadcast keys are plain values. The evictions are applied on the other nodes by their
+ * {@link InvalidatingCacheManager}, the regions being caches of the same JCache manager.
+ */
+public class InvalidatingRegionFactory extends JCacheRegionFactory {
+
+    private final Supplier<CacheInvalidationBus> bus;
+
+    /**
+     * @param bus the bus, looked up on the first write as it depends on the session factory.
+     */
+    public InvalidatingRegionFactory(Supplier<CacheInvalidationBus> bus) {
+        super(SimpleCacheKeysFactory.INSTANCE);
+        this.bus = bus;
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(
+        DomainDataRegionConfig regionConfig,
+        DomainDataRegionBuildingContext buildingContext
+    ) {
+        DomainDataStorageAccess storageAccess = super.createDomainDataStorageAccess(regionConfig, buildingContext);
+        return new InvalidatingStorageAccess(storageAccess, cacheName(storageAccess));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        StorageAccess storageAccess = super.createTimestampsRegionStorageAccess(regionName, sessionFactory);
+        return new TimestampsStorageAccess(storageAccess, underlyingCache(storageAccess));
+    }
+
+    private static String cacheName(StorageAccess storageAccess) {
+        return underlyingCache(storageAccess).getName();
+    }
+
+    private static Cache<Object, Object> underlyingCache(StorageAccess storageAccess) {
+        return ((JCacheAccessImpl) storageAccess).getUnderlyingCache();
+    }
+
+    private void publish(CacheInvalidation invalidation) {
+        bus.get().publishAfterCommit(invalidation);
+    }
+
+    /**
+     * The storage of an entity or collection region, broadcasting the locks, removals and clearings.
+     */
+    private final class InvalidatingStorageAccess implements DomainDataStorageAccess {
+
+        private final DomainDataStorageAccess delegate;
+
+        private final String cacheName;
+
+        private InvalidatingStorageAccess(DomainDataStorageAccess delegate, String cacheName) {
+            this.delegate = delegate;
+            this.cacheName = cacheName;
+        }
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return delegate.getFromCache(key, session);
+        }
+
+        // the read-write strategy also puts the loaded items here, which are not broadcast
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            delegate.putIntoCache(key, value, session);
+            if (value instanceof SoftLock) {
+                publish(CacheInvalidation.evict(cacheName, key));
+            }
+        }
+
+        @Override
+        public void putFromLoad(Object key, Object value, SharedSessionContractImplementor session) {
+            delegate.putFromLoad(key, value, session);
+        }
+
+        @Override
+        public void removeFromCache(Object key, SharedSessionContractImplementor session) {
+            delegate.removeFromCache(key, session);
+            publish(CacheInvalidation.evict(cacheName, key));
+        }
+
+        @Override
+        public void clearCache(SharedSessionContractImplementor session) {
+            delegate.clearCache(session);
+            publish(CacheInvalidation.clear(cacheName));
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return delegate.contains(key);
+        }
+
+        @Override
+        public void evictData() {
+            delegate.evictData();
+            publish(CacheInvalidation.clear(cacheName));
+        }
+
+        @Override
+        public void evictData(Object key) {
+            delegate.evictData(key);
+            publish(CacheInvalidation.evict(cacheName, key));
+        }
+
+        @Override
+        public void release() {
+            delegate.release();
+        }
+    }
+
+    /**
+     * The storage of the update timestamps of the tables, evicting the timestamp of a table on the other nodes on each write.
+     */
+    private final class TimestampsStorageAccess implements StorageAccess {
+
+        private final StorageAccess delegate;
+
+        private final Cache<Object, Object> cache;
+
+        private TimestampsStorageAccess(StorageAccess delegate, Cache<Object, Object> cache) {
+            this.delegate = delegate;
+            this.cache = cache;
+        }
+
+        // Hibernate takes a missing timestamp for no update since the start, which no longer holds once evicted by another node
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            Object timestamp = delegate.getFromCache(key, session);
+            if (timestamp != null) {
+                return timestamp;
+            }
+            // not over the timestamp of a write of this node in the meantime
+            cache.putIfAbsent(key, nextTimestamp());
+            return delegate.getFromCache(key, session);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            delegate.putIntoCache(key, value, session);
+            publish(CacheInvalidation.evict(cache.getName(), key));
+        }
+
+        @Override
+        public void removeFromCache(Object key, SharedSessionContractImplementor session) {
+            delegate.removeFromCache(key, session);
+        }
+
+        @Override
+        public void clearCache(SharedSessionContractImplementor session) {
+            delegate.clearCache(session);
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return delegate.contains(key);
+        }
+
+        @Override
+        public void evictData() {
+            delegate.evictData();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            delegate.evictData(key);
+        }
+
+        @Override
+        public void release() {
+            delegate.release();
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.mycompany.myapp.config;
 
+import com.mycompany.myapp.web.websocket.ActivityBroadcaster;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Daily Mood Tracker.
@@ -13,12 +18,48 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Cache cache = new Cache();
+
+    private final PasswordHashing passwordHashing = new PasswordHashing();
+
+    private final RefreshToken refreshToken = new RefreshToken();
+
+    private final LoginThrottle loginThrottle = new LoginThrottle();
+
+    private final Tracker tracker = new Tracker();
+
+    private final MailOutbox mailOutbox = new MailOutbox();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Cache getCache() {
+        return cache;
+    }
+
+    public PasswordHashing getPasswordHashing() {
+        return passwordHashing;
+    }
+
+    public RefreshToken getRefreshToken() {
+        return refreshToken;
+    }
+
+    public LoginThrottle getLoginThrottle() {
+        return loginThrottle;
+    }
+
+    public Tracker getTracker() {
+        return tracker;
+    }
+
+    public MailOutbox getMailOutbox() {
+        return mailOutbox;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +74,500 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class Cache {
+
+        /**
+         * Directory of the disk tiers, required when a cache has one.
+         */
+        private String diskPath;
+
+        /**
+         * Tiers and expiry of each cache, by cache name. Caches missing here keep the {@code jhipster.cache.ehcache}
+         * defaults, on heap only.
+         */
+        private final Map<String, Region> regions = new HashMap<>();
+
+        private final Invalidation invalidation = new Invalidation();
+
+        private final KeyHits keyHits = new KeyHits();
+
+        public String getDiskPath() {
+            return diskPath;
+        }
+
+        public void setDiskPath(String diskPath) {
+            this.diskPath = diskPath;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public Invalidation getInvalidation() {
+            return invalidation;
+        }
+
+        public KeyHits getKeyHits() {
+            return keyHits;
+        }
+
+        public static class Invalidation {
+
+            /**
+             * Whether the cache evictions are broadcast to the other nodes, through the database.
+             */
+            private boolean enabled = false;
+
+            /**
+             * Delay between two reads of the evictions of the other nodes.
+             */
+            private Duration pollInterval = Duration.ofSeconds(1);
+
+            /**
+             * Time after which a broadcast eviction is deleted.
+             */
+            private Duration retention = Duration.ofHours(1);
+
+            /**
+             * Time each read goes back before the previous one, as an eviction is dated when inserted but read once
+             * committed; longer than the transactions take to commit.
+             */
+            private Duration commitMargin = Duration.ofSeconds(10);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Duration getPollInterval() {
+                return pollInterval;
+            }
+
+            public void setPollInterval(Duration pollInterval) {
+                this.pollInterval = pollInterval;
+            }
+
+            public Duration getRetention() {
+                return retention;
+            }
+
+            public void setRetention(Duration retention) {
+                this.retention = retention;
+            }
+
+            public Duration getCommitMargin() {
+                return commitMargin;
+            }
+
+            public void setCommitMargin(Duration commitMargin) {
+                this.commitMargin = commitMargin;
+            }
+        }
+
+        public static class KeyHits {
+
+            /**
+             * One read of the Spring caches in this many is counted in the key hits, 1 to count them all.
+             */
+            private int sampleRate = 16;
+
+            /**
+             * Keys counted at most by cache.
+             */
+            private int maxKeys = 1000;
+
+            public int getSampleRate() {
+                return sampleRate;
+            }
+
+            public void setSampleRate(int sampleRate) {
+                this.sampleRate = sampleRate;
+            }
+
+            public int getMaxKeys() {
+                return maxKeys;
+            }
+
+            public void setMaxKeys(int maxKeys) {
+                this.maxKeys = maxKeys;
+            }
+        }
+
+        public static class Region {
+
+            /**
+             * Entries kept on heap, defaults to {@code jhipster.cache.ehcache.max-entries}.
+             */
+            private Long heapEntries;
+
+            /**
+             * Size of the off-heap tier, none when unset.
+             */
+            private DataSize offHeapSize;
+
+            /**
+             * Size of the disk tier, none when unset.
+             */
+            private DataSize diskSize;
+
+            /**
+             * Whether the disk tier survives a restart.
+             */
+            private boolean diskPersistent;
+
+            /**
+             * Time after which an entry expires once written, defaults to
+             * {@code jhipster.cache.ehcache.time-to-live-seconds}.
+             */
+            private Duration timeToLive;
+
+            /**
+             * Time after which an entry expires once read, no idle expiry when unset.
+             */
+            private Duration timeToIdle;
+
+            /**
+             * Whether entries never expire, which overrides the times above.
+             */
+            private boolean eternal;
+
+            public Long getHeapEntries() {
+                return heapEntries;
+            }
+
+            public void setHeapEntries(Long heapEntries) {
+                this.heapEntries = heapEntries;
+            }
+
+            public DataSize getOffHeapSize() {
+                return offHeapSize;
+            }
+
+            public void setOffHeapSize(DataSize offHeapSize) {
+                this.offHeapSize = offHeapSize;
+            }
+
+            public DataSize getDiskSize() {
+                return diskSize;
+            }
+
+            public void setDiskSize(DataSize diskSize) {
+                this.diskSize = diskSize;
+            }
+
+            public boolean isDiskPersistent() {
+                return diskPersistent;
+            }
+
+            public void setDiskPersistent(boolean diskPersistent) {
+                this.diskPersistent = diskPersistent;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+
+            public Duration getTimeToIdle() {
+                return timeToIdle;
+            }
+
+            public void setTimeToIdle(Duration timeToIdle) {
+                this.timeToIdle = timeToIdle;
+            }
+
+            public boolean isEternal() {
+                return eternal;
+            }
+
+            public void setEternal(boolean eternal) {
+                this.eternal = eternal;
+            }
+        }
+    }
+
+    public static class PasswordHashing {
+
+        /**
+         * Threads hashing and checking the passwords, 0 for one per available processor.
+         */
+        private int threads = 0;
+
+        /**
+         * Passwords waiting for a thread, beyond which the requests are answered 503.
+         */
+        private int queueCapacity = 50;
+
+        /**
+         * Delay sent in the Retry-After header of the 503 responses.
+         */
+        private Duration retryAfter = Duration.ofSeconds(1);
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        public void setRetryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+    }
+
+    public static class RefreshToken {
+
+        /**
+         * Validity of a refresh token, each use replacing it with a new one valid as long.
+         */
+        private Duration validity = Duration.ofDays(30);
+
+        /**
+         * Validity of the access tokens given for a refresh token.
+         */
+        private Duration accessTokenValidity = Duration.ofMinutes(15);
+
+        public Duration getValidity() {
+            return validity;
+        }
+
+        public void setValidity(Duration validity) {
+            this.validity = validity;
+        }
+
+        public Duration getAccessTokenValidity() {
+            return accessTokenValidity;
+        }
+
+        public void setAccessTokenValidity(Duration accessTokenValidity) {
+            this.accessTokenValidity = accessTokenValidity;
+        }
+    }
+
+    public static class LoginThrottle {
+
+        /**
+         * Attempts by login: 5 at once, then one a minute.
+         */
+        private final Bucket login = new Bucket(5, Duration.ofMinutes(1));
+
+        /**
+         * Attempts by client IP: 20 at once, then one every 10 seconds.
+         */
+        private final Bucket ip = new Bucket(20, Duration.ofSeconds(10));
+
+        /**
+         * Logins, and client IPs, tracked at most; beyond, the attempts of new keys are not throttled.
+         */
+        private int maxKeys = 100_000;
+
+        /**
+         * Proxies in front of the application appending the address they received the request from to X-Forwarded-For;
+         * the client IP is the address appended by the farthest of them, as the client can send any address before it.
+         * With 0, the client IP is the address of the connection.
+         */
+        private int trustedProxies = 0;
+
+        public Bucket getLogin() {
+            return login;
+        }
+
+        public Bucket getIp() {
+            return ip;
+        }
+
+        public int getMaxKeys() {
+            return maxKeys;
+        }
+
+        public void setMaxKeys(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+
+        public int getTrustedProxies() {
+            return trustedProxies;
+        }
+
+        public void setTrustedProxies(int trustedProxies) {
+            this.trustedProxies = trustedProxies;
+        }
+
+        public static class Bucket {
+
+            /**
+             * Attempts allowed at once.
+             */
+            private int burst;
+
+            /**
+             * Time to get back one attempt.
+             */
+            private Duration interval;
+
+            Bucket(int burst, Duration interval) {
+                this.burst = burst;
+                this.interval = interval;
+            }
+
+            public int getBurst() {
+                return burst;
+            }
+
+            public void setBurst(int burst) {
+                this.burst = burst;
+            }
+
+            public Duration getInterval() {
+                return interval;
+            }
+
+            public void setInterval(Duration interval) {
+                this.interval = interval;
+            }
+        }
+    }
+
+    public static class Tracker {
+
+        /**
+         * Whether the user activities are sent to the admin tracker at once, or coalesced by session.
+         */
+        private ActivityBroadcaster.Mode mode = ActivityBroadcaster.Mode.IMMEDIATE;
+
+        /**
+         * Window over which the activities are coalesced, in coalesced mode.
+         */
+        private Duration coalescingWindow = Duration.ofMillis(500);
+
+        public ActivityBroadcaster.Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(ActivityBroadcaster.Mode mode) {
+            this.mode = mode;
+        }
+
+        public Duration getCoalescingWindow() {
+            return coalescingWindow;
+        }
+
+        public void setCoalescingWindow(Duration coalescingWindow) {
+            this.coalescingWindow = coalescingWindow;
+        }
+    }
+
+    public static class MailOutbox {
+
+        /**
+         * Interval between two checks for due mails.
+         */
+        private Duration pollInterval = Duration.ofSeconds(2);
+
+        /**
+         * Mails sent over one SMTP connection.
+         */
+        private int batchSize = 20;
+
+        /**
+         * Mails sent a minute at most, in batches.
+         */
+        private int ratePerMinute = 600;
+
+        /**
+         * Attempts to send a mail before dropping it.
+         */
+        private int maxAttempts = 8;
+
+        /**
+         * Delay before the second attempt, doubled at each next one.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(30);
+
+        /**
+         * Delay between two attempts at most.
+         */
+        private Duration maxBackoff = Duration.ofHours(1);
+
+        /**
+         * Delay after which a mail claimed by a node which did not complete the attempt is due again.
+         */
+        private Duration lease = Duration.ofMinutes(5);
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getRatePerMinute() {
+            return ratePerMinute;
+        }
+
+        public void setRatePerMinute(int ratePerMinute) {
+            this.ratePerMinute = ratePerMinute;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public Duration getLease() {
+            return lease;
+        }
+
+        public void setLease(Duration lease) {
+            this.lease = lease;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
@@ -6,15 +6,27 @@ import org.slf4j.LoggerFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
 import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import tech.jhipster.async.ExceptionHandlingAsyncTaskExecutor;
 
+/**
+ * Asynchronous and scheduled execution.
+ * <p>
+ * With {@code spring.threads.virtual.enabled} on Java 21 or later, the {@code @Async} tasks run on virtual threads, as do
+ * the {@code @Scheduled} ones on the scheduler configured by Spring Boot. At most {@code spring.task.execution.pool.max-size}
+ * tasks run at once, the others wait on their virtual thread up to {@code spring.task.execution.pool.queue-capacity} of them,
+ * the next ones being rejected as by the pool. Otherwise the tasks run on the thread pool sized by
+ * {@code spring.task.execution.pool}.
+ */
 @Configuration
 @EnableAsync
 @EnableScheduling
@@ -25,13 +37,29 @@ public class AsyncConfiguration implements AsyncConfigurer {
 
     private final TaskExecutionProperties taskExecutionProperties;
 
-    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties) {
+    private final Environment env;
+
+    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties, Environment env) {
         this.taskExecutionProperties = taskExecutionProperties;
+        this.env = env;
     }
 
     @Override
     @Bean(name = "taskExecutor")
     public Executor getAsyncExecutor() {
+        if (virtualThreadsEnabled(env)) {
+            LOG.debug("Creating Async Task Executor on virtual threads");
+            SimpleAsyncTaskExecutor threads = new SimpleAsyncTaskExecutor(taskExecutionProperties.getThreadNamePrefix());
+            threads.setVirtualThreads(true);
+            // The tasks mostly wait for a database connection, running more of them at once would only make them wait longer
+            return new ExceptionHandlingAsyncTaskExecutor(
+                new BoundedTaskExecutor(
+                    threads,
+                    taskExecutionProperties.getPool().getMaxSize(),
+                    taskExecutionProperties.getPool().getQueueCapacity()
+                )
+            );
+        }
         LOG.debug("Creating Async Task Executor");
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(taskExecutionProperties.getPool().getCoreSize());
@@ -45,4 +73,17 @@ public class AsyncConfiguration implements AsyncConfigurer {
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
     }
+
+    /**
+     * Whether {@code spring.threads.virtual.enabled} is set and the running Java has virtual threads.
+     */
+    static boolean virtualThreadsEnabled(Environment env) {
+        if (Threading.VIRTUAL.isActive(env)) {
+            return true;
+        }
+        if (env.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            LOG.warn("Virtual threads need Java 21 or later, using platform threads on Java {}", Runtime.version().feature());
+        }
+        return false;
+    }
 }
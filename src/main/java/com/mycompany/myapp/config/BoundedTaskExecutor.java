@@ -0,0 +1,59 @@
+package com.mycompany.myapp.config;
+
+import java.util.concurrent.Semaphore;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+/**
+ * {@link AsyncTaskExecutor} starting a thread for each task, virtual ones in {@link AsyncConfiguration}, of which at most
+ * {@code maxConcurrency} run their task at once.
+ * <p>
+ * The other tasks wait on their own thread, so the caller is never blocked: once {@code queueCapacity} tasks wait, the
+ * next ones are rejected with a {@link TaskRejectedException}, as by a thread pool with a full queue.
+ */
+public class BoundedTaskExecutor implements AsyncTaskExecutor, DisposableBean {
+
+    private final SimpleAsyncTaskExecutor threads;
+
+    private final Semaphore running;
+
+    // permits of the tasks running or waiting
+    private final Semaphore accepted;
+
+    public BoundedTaskExecutor(SimpleAsyncTaskExecutor threads, int maxConcurrency, int queueCapacity) {
+        this.threads = threads;
+        this.running = new Semaphore(maxConcurrency, true);
+        this.accepted = new Semaphore((int) Math.min((long) maxConcurrency + queueCapacity, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!accepted.tryAcquire()) {
+            throw new TaskRejectedException("Executor " + threads.getThreadNamePrefix() + " is full, rejected " + task);
+        }
+        try {
+            threads.execute(() -> {
+                try {
+                    running.acquireUninterruptibly();
+                    try {
+                        task.run();
+                    } finally {
+                        running.release();
+                    }
+                } finally {
+                    accepted.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            accepted.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        threads.close();
+    }
+}
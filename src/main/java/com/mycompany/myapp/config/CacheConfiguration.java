@@ -1,15 +1,41 @@
 package com.mycompany.myapp.config;
 
+import com.mycompany.myapp.cache.CacheInvalidationBus;
+import com.mycompany.myapp.cache.InvalidatingCacheManager;
+import com.mycompany.myapp.cache.InvalidatingRegionFactory;
+import com.mycompany.myapp.management.CacheKeyHits;
+import com.mycompany.myapp.security.CachingJwtDecoder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
+import javax.cache.Caching;
+import org.ehcache.config.CacheRuntimeConfiguration;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.impl.config.persistence.DefaultPersistenceConfiguration;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.spi.service.ServiceCreationConfiguration;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.jcache.JCacheCacheManager;
 import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.*;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.util.function.SingletonSupplier;
 import tech.jhipster.config.JHipsterProperties;
 import tech.jhipster.config.cache.PrefixedKeyGenerator;
 
@@ -19,39 +45,234 @@ public class CacheConfiguration {
 
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
-    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
-
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
-
-        jcacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
-            CacheConfigurationBuilder.newCacheConfigurationBuilder(
-                Object.class,
-                Object.class,
-                ResourcePoolsBuilder.heap(ehcache.getMaxEntries())
-            )
-                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                .build()
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final ApplicationProperties.Cache cacheProperties;
+
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.cacheProperties = applicationProperties.getCache();
+    }
+
+    /**
+     * The JCache manager, built here rather than by Spring Boot so that it can hold the disk tiers.
+     */
+    /**
+     * The hit counts of the keys of the Spring caches, shown by {@code /management/cachestatistics}.
+     */
+    @Bean
+    public CacheKeyHits cacheKeyHits() {
+        return new CacheKeyHits(cacheProperties.getKeyHits().getSampleRate(), cacheProperties.getKeyHits().getMaxKeys());
+    }
+
+    @Bean
+    public javax.cache.CacheManager jCacheCacheManager(CacheKeyHits cacheKeyHits) {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        ServiceCreationConfiguration<?, ?>[] services = cacheProperties.getDiskPath() == null
+            ? new ServiceCreationConfiguration<?, ?>[0]
+            : new ServiceCreationConfiguration<?, ?>[] { new DefaultPersistenceConfiguration(Path.of(cacheProperties.getDiskPath()).toFile()) };
+        javax.cache.CacheManager cm = provider.getCacheManager(
+            provider.getDefaultURI(),
+            new DefaultConfiguration(provider.getDefaultClassLoader(), services)
         );
+        // the key hits of the Spring caches only, as the Hibernate regions and the tokens are read on every request
+        createCache(cm, com.mycompany.myapp.repository.UserRepository.USERS_BY_LOGIN_CACHE, cacheKeyHits);
+        createCache(cm, com.mycompany.myapp.repository.UserRepository.USERS_BY_EMAIL_CACHE, cacheKeyHits);
+        createCache(cm, com.mycompany.myapp.service.MoodStatisticsCacheService.MOOD_STATISTICS_CACHE, cacheKeyHits);
+        createCache(cm, com.mycompany.myapp.security.CachingJwtDecoder.VERIFIED_JWTS_CACHE);
+        createCache(cm, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+        createCache(cm, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME);
+        createCache(cm, com.mycompany.myapp.domain.User.class.getName());
+        createCache(cm, com.mycompany.myapp.domain.Authority.class.getName());
+        createCache(cm, com.mycompany.myapp.domain.User.class.getName() + ".authorities");
+        createCache(cm, com.mycompany.myapp.domain.MoodEntry.class.getName());
+        // jhipster-needle-ehcache-add-entry
+        return cm;
+    }
+
+    /**
+     * The Spring cache manager, broadcasting its evictions to the other nodes when a {@link CacheInvalidationBus} is enabled.
+     */
+    @Bean
+    public org.springframework.cache.CacheManager cacheManager(
+        javax.cache.CacheManager jCacheCacheManager,
+        ObjectProvider<CacheInvalidationBus> cacheInvalidationBus
+    ) {
+        JCacheCacheManager cacheManager = new JCacheCacheManager(jCacheCacheManager);
+        CacheInvalidationBus bus = cacheInvalidationBus.getIfAvailable();
+        if (bus == null) {
+            return cacheManager;
+        }
+        cacheManager.afterPropertiesSet();
+        return new InvalidatingCacheManager(cacheManager, bus);
+    }
+
+    /**
+     * Binds the {@code cache.*} meters of the broadcasting caches, which Spring Boot does not unwrap.
+     */
+    @Bean
+    public CacheMeterBinderProvider<InvalidatingCacheManager.InvalidatingCache> invalidatingCacheMeterBinderProvider() {
+        return (cache, tags) ->
+            cache.getNativeCache() instanceof javax.cache.Cache<?, ?> nativeCache ? new JCacheMetrics<>(nativeCache, tags) : null;
     }
 
+    /**
+     * Hibernate caches in the JCache manager, its writes being broadcast to the other nodes when a
+     * {@link CacheInvalidationBus} is enabled.
+     */
     @Bean
-    public JCacheManagerCustomizer cacheManagerCustomizer() {
-        return cm -> {
-            createCache(cm, com.mycompany.myapp.repository.UserRepository.USERS_BY_LOGIN_CACHE);
-            createCache(cm, com.mycompany.myapp.repository.UserRepository.USERS_BY_EMAIL_CACHE);
-            createCache(cm, com.mycompany.myapp.domain.Authority.class.getName());
-            createCache(cm, com.mycompany.myapp.domain.MoodEntry.class.getName());
-            // jhipster-needle-ehcache-add-entry
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(
+        javax.cache.CacheManager cacheManager,
+        ObjectProvider<CacheInvalidationBus> cacheInvalidationBus
+    ) {
+        return hibernateProperties -> {
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            if (cacheProperties.getInvalidation().isEnabled()) {
+                hibernateProperties.put(
+                    AvailableSettings.CACHE_REGION_FACTORY,
+                    new InvalidatingRegionFactory(SingletonSupplier.of(cacheInvalidationBus::getObject))
+                );
+            }
         };
     }
 
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        createCache(cm, cacheName, null);
+    }
+
+    private void createCache(javax.cache.CacheManager cm, String cacheName, CacheKeyHits keyHits) {
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
             cache.clear();
+            // the JCache manager is shared by the application contexts of the JVM, the last one counts the key hits
+            if (runtimeConfiguration(cache).getExpiryPolicy() instanceof KeyHitsExpiryPolicy keyHitsExpiryPolicy) {
+                keyHitsExpiryPolicy.keyHits = keyHits;
+            }
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, jcacheConfiguration(cacheName, keyHits));
+        }
+        // registers the statistics MBean, read by the cache meters and CacheStatisticsEndpoint
+        cm.enableStatistics(cacheName, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CacheRuntimeConfiguration<Object, Object> runtimeConfiguration(javax.cache.Cache<Object, Object> cache) {
+        Eh107Configuration<Object, Object> configuration = cache.getConfiguration(Eh107Configuration.class);
+        return configuration.unwrap(CacheRuntimeConfiguration.class);
+    }
+
+    javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(String cacheName) {
+        return jcacheConfiguration(cacheName, null);
+    }
+
+    javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(String cacheName, CacheKeyHits keyHits) {
+        ApplicationProperties.Cache.Region region = cacheProperties
+            .getRegions()
+            .getOrDefault(cacheName, new ApplicationProperties.Cache.Region());
+
+        long heapEntries = region.getHeapEntries() != null ? region.getHeapEntries() : ehcache.getMaxEntries();
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.newResourcePoolsBuilder().heap(heapEntries, EntryUnit.ENTRIES);
+        if (region.getOffHeapSize() != null) {
+            resourcePools = resourcePools.offheap(region.getOffHeapSize().toBytes(), MemoryUnit.B);
+        }
+        if (region.getDiskSize() != null) {
+            if (cacheProperties.getDiskPath() == null) {
+                throw new IllegalStateException("Cache " + cacheName + " has a disk tier, but application.cache.disk-path is not set");
+            }
+            resourcePools = resourcePools.disk(region.getDiskSize().toBytes(), MemoryUnit.B, region.isDiskPersistent());
+        }
+
+        ExpiryPolicy<Object, Object> expiryPolicy = expiryPolicy(region);
+        if (CachingJwtDecoder.VERIFIED_JWTS_CACHE.equals(cacheName)) {
+            expiryPolicy = new TokenExpiryPolicy(expiryPolicy);
+        }
+        if (keyHits != null) {
+            expiryPolicy = new KeyHitsExpiryPolicy(expiryPolicy, keyHits, cacheName);
+        }
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, resourcePools).withExpiry(expiryPolicy).build()
+        );
+    }
+
+    private ExpiryPolicy<Object, Object> expiryPolicy(ApplicationProperties.Cache.Region region) {
+        if (region.isEternal()) {
+            return ExpiryPolicyBuilder.noExpiration();
+        }
+        Duration timeToLive = region.getTimeToLive() != null
+            ? region.getTimeToLive()
+            : Duration.ofSeconds(ehcache.getTimeToLiveSeconds());
+        // a read pushes the expiry to the idle time from now, a write back to the time to live
+        return ExpiryPolicyBuilder.expiry().create(timeToLive).access(region.getTimeToIdle()).update(timeToLive).build();
+    }
+
+    /**
+     * Counts the hits of each key, as Ehcache asks for the expiry of an entry each time it reads it.
+     */
+    private static final class KeyHitsExpiryPolicy implements ExpiryPolicy<Object, Object> {
+
+        private final ExpiryPolicy<Object, Object> delegate;
+        private volatile CacheKeyHits keyHits;
+        private final String cacheName;
+
+        private KeyHitsExpiryPolicy(ExpiryPolicy<Object, Object> delegate, CacheKeyHits keyHits, String cacheName) {
+            this.delegate = delegate;
+            this.keyHits = keyHits;
+            this.cacheName = cacheName;
+        }
+
+        @Override
+        public Duration getExpiryForCreation(Object key, Object value) {
+            return delegate.getExpiryForCreation(key, value);
+        }
+
+        @Override
+        public Duration getExpiryForAccess(Object key, Supplier<?> value) {
+            keyHits.record(cacheName, key);
+            return delegate.getExpiryForAccess(key, value);
+        }
+
+        @Override
+        public Duration getExpiryForUpdate(Object key, Supplier<?> oldValue, Object newValue) {
+            return delegate.getExpiryForUpdate(key, oldValue, newValue);
+        }
+    }
+
+    /**
+     * Expires the cached tokens when they expire, if before the time to live of the cache.
+     */
+    private static final class TokenExpiryPolicy implements ExpiryPolicy<Object, Object> {
+
+        private final ExpiryPolicy<Object, Object> delegate;
+
+        private TokenExpiryPolicy(ExpiryPolicy<Object, Object> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Duration getExpiryForCreation(Object key, Object value) {
+            return untilExpiry(value, delegate.getExpiryForCreation(key, value));
+        }
+
+        @Override
+        public Duration getExpiryForAccess(Object key, Supplier<?> value) {
+            // null keeps the current expiry, already bounded by the token
+            Duration expiry = delegate.getExpiryForAccess(key, value);
+            return expiry == null ? null : untilExpiry(value.get(), expiry);
+        }
+
+        @Override
+        public Duration getExpiryForUpdate(Object key, Supplier<?> oldValue, Object newValue) {
+            return untilExpiry(newValue, delegate.getExpiryForUpdate(key, oldValue, newValue));
+        }
+
+        private static Duration untilExpiry(Object value, Duration expiry) {
+            if (!(value instanceof Jwt jwt) || jwt.getExpiresAt() == null) {
+                return expiry;
+            }
+            Duration untilExpiry = Duration.between(Instant.now(), jwt.getExpiresAt());
+            if (untilExpiry.isNegative()) {
+                return Duration.ZERO;
+            }
+            return expiry == null || untilExpiry.compareTo(expiry) < 0 ? untilExpiry : expiry;
         }
     }
 
@@ -3,6 +3,7 @@ package com.mycompany.myapp.config;
 import static org.springframework.security.config.Customizer.withDefaults;
 import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 
+import com.mycompany.myapp.management.SecurityMetersService;
 import com.mycompany.myapp.security.*;
 import com.mycompany.myapp.web.filter.SpaWebFilter;
 import org.springframework.context.annotation.Bean;
@@ -34,14 +35,47 @@ public class SecurityConfiguration {
 
     private final JHipsterProperties jHipsterProperties;
 
-    public SecurityConfiguration(Environment env, JHipsterProperties jHipsterProperties) {
+    private final ApplicationProperties.PasswordHashing passwordHashingProperties;
+
+    private final ApplicationProperties.LoginThrottle loginThrottleProperties;
+
+    public SecurityConfiguration(Environment env, JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         this.env = env;
         this.jHipsterProperties = jHipsterProperties;
+        this.passwordHashingProperties = applicationProperties.getPasswordHashing();
+        this.loginThrottleProperties = applicationProperties.getLoginThrottle();
+    }
+
+    /**
+     * BCrypt, run on a pool of one thread per processor unless configured otherwise, answering 503 when saturated.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(SecurityMetersService metersService) {
+        int threads = passwordHashingProperties.getThreads() > 0
+            ? passwordHashingProperties.getThreads()
+            : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(
+            new BCryptPasswordEncoder(),
+            threads,
+            passwordHashingProperties.getQueueCapacity(),
+            passwordHashingProperties.getRetryAfter(),
+            metersService
+        );
     }
 
+    /**
+     * Throttle of the login attempts, by login and by client IP.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public LoginThrottle loginThrottle(SecurityMetersService metersService) {
+        return new LoginThrottle(
+            loginThrottleProperties.getLogin().getBurst(),
+            loginThrottleProperties.getLogin().getInterval(),
+            loginThrottleProperties.getIp().getBurst(),
+            loginThrottleProperties.getIp().getInterval(),
+            loginThrottleProperties.getMaxKeys(),
+            metersService
+        );
     }
 
     @Bean
@@ -72,6 +106,7 @@ public class SecurityConfiguration {
                     .requestMatchers(mvc.pattern("/swagger-ui/**")).permitAll()
                     .requestMatchers(mvc.pattern(HttpMethod.POST, "/api/authenticate")).permitAll()
                     .requestMatchers(mvc.pattern(HttpMethod.GET, "/api/authenticate")).permitAll()
+                    .requestMatchers(mvc.pattern(HttpMethod.POST, "/api/authenticate/refresh")).permitAll()
                     .requestMatchers(mvc.pattern("/api/register")).permitAll()
                     .requestMatchers(mvc.pattern("/api/activate")).permitAll()
                     .requestMatchers(mvc.pattern("/api/account/reset-password/init")).permitAll()
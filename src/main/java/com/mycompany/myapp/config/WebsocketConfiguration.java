@@ -1,12 +1,17 @@
 package com.mycompany.myapp.config;
 
 import com.mycompany.myapp.security.AuthoritiesConstants;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import java.security.Principal;
 import java.util.*;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.server.*;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.web.socket.WebSocketHandler;
@@ -29,7 +34,7 @@ public class WebsocketConfiguration implements WebSocketMessageBrokerConfigurer
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        config.enableSimpleBroker("/topic", "/queue");
     }
 
     @Override
@@ -45,6 +50,15 @@ public class WebsocketConfiguration implements WebSocketMessageBrokerConfigurer
             .setInterceptors(httpSessionHandshakeInterceptor());
     }
 
+    /**
+     * The executor.* meters of the channel sending the messages to the clients, whose queue grows when the broker sends
+     * more than the sessions take.
+     */
+    @Bean
+    public MeterBinder clientOutboundChannelMetrics(@Qualifier("clientOutboundChannelExecutor") ThreadPoolTaskExecutor executor) {
+        return registry -> new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "clientOutboundChannel", Tags.empty()).bindTo(registry);
+    }
+
     @Bean
     public HandshakeInterceptor httpSessionHandshakeInterceptor() {
         return new HandshakeInterceptor() {
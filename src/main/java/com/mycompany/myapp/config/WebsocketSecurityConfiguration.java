@@ -22,6 +22,9 @@ public class WebsocketSecurityConfiguration extends AbstractSecurityWebSocketMes
             // /topic/messages-user<id>)
             .simpDestMatchers("/topic/**")
             .authenticated()
+            // the queues of the current user only, as /user/** destinations are resolved for the session user
+            .simpSubscribeDestMatchers("/user/queue/**")
+            .authenticated()
             // message types other than MESSAGE and SUBSCRIBE
             .simpTypeMatchers(SimpMessageType.MESSAGE, SimpMessageType.SUBSCRIBE)
             .denyAll()
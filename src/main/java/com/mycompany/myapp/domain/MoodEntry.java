@@ -5,24 +5,35 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
 import java.time.LocalDate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * A MoodEntry.
  */
 @Entity
 @Table(name = "mood_entry")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class MoodEntry implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "moodEntryIdGenerator")
+    @TableGenerator(
+        name = "moodEntryIdGenerator",
+        table = "jhi_id_generator",
+        pkColumnName = "sequence_name",
+        valueColumnName = "next_val",
+        pkColumnValue = "mood_entry",
+        allocationSize = 50
+    )
     @Column(name = "id")
     private Long id;
 
     @NotNull
-    @Column(name = "date", nullable = false, unique = true)
+    @Column(name = "date", nullable = false)
     private LocalDate date;
 
     @NotNull
@@ -30,6 +41,10 @@ public class MoodEntry implements Serializable {
     @Column(name = "mood", nullable = false)
     private MoodType mood;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @ManyToOne(optional = false)
     @NotNull
     private User user;
@@ -75,6 +90,19 @@ public class MoodEntry implements Serializable {
         this.mood = mood;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public MoodEntry version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public User getUser() {
         return this.user;
     }
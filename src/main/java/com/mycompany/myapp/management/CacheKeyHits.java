@@ -0,0 +1,92 @@
+package com.mycompany.myapp.management;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hit counts of the keys of the caches, shown by {@link CacheStatisticsEndpoint}.
+ * <p>
+ * Only one read in {@code sampleRate}, drawn at random, is counted, and the counts are scaled back up, so that most reads
+ * cost a random number only. At most {@code maxKeys} keys are counted by cache: when the table of a cache is full, all
+ * its counts are halved and the keys left without hits dropped, so the keys hit long ago fade out instead of holding the
+ * top against the keys hit lately.
+ */
+public class CacheKeyHits {
+
+    private final ConcurrentMap<String, Counts> byCache = new ConcurrentHashMap<>();
+
+    private final int sampleRate;
+
+    private final int maxKeys;
+
+    /**
+     * @param sampleRate one read in this many is counted, 1 to count them all.
+     * @param maxKeys keys counted at most by cache.
+     */
+    public CacheKeyHits(int sampleRate, int maxKeys) {
+        this.sampleRate = sampleRate;
+        this.maxKeys = maxKeys;
+    }
+
+    public void record(String cacheName, Object key) {
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return;
+        }
+        byCache.computeIfAbsent(cacheName, name -> new Counts()).record(key);
+    }
+
+    /**
+     * Get the most hit keys of a cache, most hit first.
+     *
+     * @param cacheName the name of the cache.
+     * @param limit the maximum number of keys.
+     * @return the keys with their estimated hit count.
+     */
+    public List<Map.Entry<Object, Long>> top(String cacheName, int limit) {
+        Counts counts = byCache.get(cacheName);
+        if (counts == null) {
+            return List.of();
+        }
+        return counts.hits
+            .entrySet()
+            .stream()
+            .map(entry -> Map.entry(entry.getKey(), entry.getValue().get() * sampleRate))
+            .filter(entry -> entry.getValue() > 0)
+            .sorted(Map.Entry.<Object, Long>comparingByValue(Comparator.reverseOrder()))
+            .limit(limit)
+            .toList();
+    }
+
+    public void clear(String cacheName) {
+        byCache.remove(cacheName);
+    }
+
+    private final class Counts {
+
+        private final ConcurrentMap<Object, AtomicLong> hits = new ConcurrentHashMap<>();
+
+        void record(Object key) {
+            AtomicLong count = hits.get(key);
+            if (count == null) {
+                if (hits.size() >= maxKeys) {
+                    age();
+                }
+                count = hits.computeIfAbsent(key, k -> new AtomicLong());
+            }
+            count.incrementAndGet();
+        }
+
+        // halved until a key drops, so that a full table of keys hit often still makes room
+        private synchronized void age() {
+            while (hits.size() >= maxKeys) {
+                hits.values().forEach(count -> count.updateAndGet(value -> value / 2));
+                hits.values().removeIf(count -> count.get() == 0);
+            }
+        }
+    }
+}
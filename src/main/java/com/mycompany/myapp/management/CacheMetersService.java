@@ -0,0 +1,79 @@
+package com.mycompany.myapp.management;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.management.ManagementFactory;
+import java.util.function.ToDoubleFunction;
+import javax.cache.CacheManager;
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import org.springframework.stereotype.Service;
+
+/**
+ * Average latencies of the JCache caches.
+ * <p>
+ * Their hits, misses, puts, removals and evictions are bound by Spring Boot as the {@code cache.*} meters, from the
+ * same JCache statistics, which {@link com.mycompany.myapp.config.CacheConfiguration} turns on for every cache.
+ */
+@Service
+public class CacheMetersService {
+
+    public static final String AVERAGE_LATENCY_METER_NAME = "cache.average.latency";
+    public static final String AVERAGE_LATENCY_METER_DESCRIPTION = "Average time of the cache operations since the application started.";
+    public static final String AVERAGE_LATENCY_METER_BASE_UNIT = "microseconds";
+    public static final String AVERAGE_LATENCY_METER_CACHE_DIMENSION = "cache";
+    public static final String AVERAGE_LATENCY_METER_OPERATION_DIMENSION = "operation";
+
+    private final CacheManager cacheManager;
+
+    public CacheMetersService(MeterRegistry registry, CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+        for (String cacheName : cacheManager.getCacheNames()) {
+            CacheStatisticsMXBean statistics = getStatistics(cacheName);
+            averageLatencyGaugeBuilder(cacheName, "get", statistics, CacheStatisticsMXBean::getAverageGetTime).register(registry);
+            averageLatencyGaugeBuilder(cacheName, "put", statistics, CacheStatisticsMXBean::getAveragePutTime).register(registry);
+            averageLatencyGaugeBuilder(cacheName, "remove", statistics, CacheStatisticsMXBean::getAverageRemoveTime).register(registry);
+        }
+    }
+
+    private Gauge.Builder<CacheStatisticsMXBean> averageLatencyGaugeBuilder(
+        String cacheName,
+        String operation,
+        CacheStatisticsMXBean statistics,
+        ToDoubleFunction<CacheStatisticsMXBean> averageTime
+    ) {
+        return Gauge.builder(AVERAGE_LATENCY_METER_NAME, statistics, averageTime)
+            .strongReference(true)
+            .baseUnit(AVERAGE_LATENCY_METER_BASE_UNIT)
+            .description(AVERAGE_LATENCY_METER_DESCRIPTION)
+            .tag(AVERAGE_LATENCY_METER_CACHE_DIMENSION, cacheName)
+            .tag(AVERAGE_LATENCY_METER_OPERATION_DIMENSION, operation);
+    }
+
+    /**
+     * Get the JCache statistics of a cache, read from the MBean the cache registers.
+     *
+     * @param cacheName the name of the cache.
+     * @return a proxy to the statistics MBean.
+     */
+    public CacheStatisticsMXBean getStatistics(String cacheName) {
+        return JMX.newMXBeanProxy(ManagementFactory.getPlatformMBeanServer(), statisticsObjectName(cacheName), CacheStatisticsMXBean.class);
+    }
+
+    private ObjectName statisticsObjectName(String cacheName) {
+        try {
+            // see the naming of the JCache MBeans in the JSR-107 specification
+            return new ObjectName(
+                "javax.cache:type=CacheStatistics,CacheManager=" + sanitize(cacheManager.getURI().toString()) + ",Cache=" + sanitize(cacheName)
+            );
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException("Cache name '" + cacheName + "' results in an invalid JMX name", e);
+        }
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll(",|:|=|\n", ".");
+    }
+}
@@ -0,0 +1,242 @@
+package com.mycompany.myapp.management;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.management.CacheStatisticsMXBean;
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.ResourceType;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint showing the statistics of the caches.
+ * <p>
+ * {@code /management/cachestatistics} lists every cache with its hit ratio, latencies, tiers and, for the Spring caches,
+ * most hit keys, and {@code /management/cachestatistics/{cacheName}} also counts its entries and estimates their size, by
+ * reading the whole cache. As JSR-107 requires, that read counts a hit per entry in the cache statistics, but not in the
+ * key hits.
+ */
+@Component
+@Endpoint(id = "cachestatistics")
+public class CacheStatisticsEndpoint {
+
+    static final int TOP_KEYS = 10;
+
+    // entries serialized to estimate the size of a cache
+    static final int SAMPLE_SIZE = 100;
+
+    private final CacheManager cacheManager;
+
+    private final CacheMetersService cacheMetersService;
+
+    private final CacheKeyHits cacheKeyHits;
+
+    public CacheStatisticsEndpoint(CacheManager cacheManager, CacheMetersService cacheMetersService, CacheKeyHits cacheKeyHits) {
+        this.cacheManager = cacheManager;
+        this.cacheMetersService = cacheMetersService;
+        this.cacheKeyHits = cacheKeyHits;
+    }
+
+    @ReadOperation
+    public Map<String, CacheStatistics> caches() {
+        Map<String, CacheStatistics> caches = new TreeMap<>();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            caches.put(cacheName, statistics(cacheManager.getCache(cacheName)));
+        }
+        return caches;
+    }
+
+    @ReadOperation
+    @Nullable
+    public CacheStatistics cache(@Selector String cacheName) {
+        Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return null;
+        }
+        CacheStatistics statistics = statistics(cache);
+        long entries = 0;
+        long sampleBytes = 0;
+        boolean serializable = true;
+        // unlike the JCache iterator, does not ask for the expiry on access, which counts the key hits
+        @SuppressWarnings("unchecked")
+        org.ehcache.Cache<Object, Object> ehcache = cache.unwrap(org.ehcache.Cache.class);
+        for (org.ehcache.Cache.Entry<Object, Object> entry : ehcache) {
+            if (entries < SAMPLE_SIZE && serializable) {
+                try {
+                    sampleBytes += serializedSize(entry.getKey()) + serializedSize(entry.getValue());
+                } catch (IOException e) {
+                    serializable = false;
+                }
+            }
+            entries++;
+        }
+        statistics.entries = entries;
+        if (serializable && entries > 0) {
+            statistics.estimatedBytes = sampleBytes * entries / Math.min(entries, SAMPLE_SIZE);
+        }
+        return statistics;
+    }
+
+    private CacheStatistics statistics(Cache<Object, Object> cache) {
+        CacheStatisticsMXBean mxBean = cacheMetersService.getStatistics(cache.getName());
+        CacheStatistics statistics = new CacheStatistics();
+        statistics.hits = mxBean.getCacheHits();
+        statistics.misses = mxBean.getCacheMisses();
+        statistics.hitPercentage = mxBean.getCacheHitPercentage();
+        statistics.puts = mxBean.getCachePuts();
+        statistics.removals = mxBean.getCacheRemovals();
+        statistics.evictions = mxBean.getCacheEvictions();
+        statistics.averageGetMicros = mxBean.getAverageGetTime();
+        statistics.averagePutMicros = mxBean.getAveragePutTime();
+        statistics.averageRemoveMicros = mxBean.getAverageRemoveTime();
+
+        @SuppressWarnings("unchecked")
+        Eh107Configuration<Object, Object> configuration = cache.getConfiguration(Eh107Configuration.class);
+        ResourcePools resourcePools = configuration.unwrap(CacheRuntimeConfiguration.class).getResourcePools();
+        statistics.heapEntries = poolSize(resourcePools, ResourceType.Core.HEAP);
+        statistics.offHeapBytes = poolSize(resourcePools, ResourceType.Core.OFFHEAP);
+        statistics.diskBytes = poolSize(resourcePools, ResourceType.Core.DISK);
+
+        statistics.topKeys = cacheKeyHits
+            .top(cache.getName(), TOP_KEYS)
+            .stream()
+            .map(entry -> new KeyHits(String.valueOf(entry.getKey()), entry.getValue()))
+            .toList();
+        return statistics;
+    }
+
+    private static Long poolSize(ResourcePools resourcePools, ResourceType.Core type) {
+        if (!resourcePools.getResourceTypeSet().contains(type)) {
+            return null;
+        }
+        return resourcePools.getPoolForResource(type).getSize();
+    }
+
+    private static long serializedSize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.size();
+    }
+
+    /**
+     * Statistics of a cache, since the application started.
+     * <p>
+     * The tier sizes are the configured maximums, in entries on heap and in bytes off heap and on disk. The entry count
+     * and size estimate are only given for a single cache.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class CacheStatistics {
+
+        private long hits;
+        private long misses;
+        private float hitPercentage;
+        private long puts;
+        private long removals;
+        private long evictions;
+        private float averageGetMicros;
+        private float averagePutMicros;
+        private float averageRemoveMicros;
+        private Long heapEntries;
+        private Long offHeapBytes;
+        private Long diskBytes;
+        private Long entries;
+        private Long estimatedBytes;
+        private List<KeyHits> topKeys;
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public float getHitPercentage() {
+            return hitPercentage;
+        }
+
+        public long getPuts() {
+            return puts;
+        }
+
+        public long getRemovals() {
+            return removals;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public float getAverageGetMicros() {
+            return averageGetMicros;
+        }
+
+        public float getAveragePutMicros() {
+            return averagePutMicros;
+        }
+
+        public float getAverageRemoveMicros() {
+            return averageRemoveMicros;
+        }
+
+        public Long getHeapEntries() {
+            return heapEntries;
+        }
+
+        public Long getOffHeapBytes() {
+            return offHeapBytes;
+        }
+
+        public Long getDiskBytes() {
+            return diskBytes;
+        }
+
+        public Long getEntries() {
+            return entries;
+        }
+
+        public Long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+
+        public List<KeyHits> getTopKeys() {
+            return topKeys;
+        }
+    }
+
+    /**
+     * A cache key with its hit count.
+     */
+    public static class KeyHits {
+
+        private final String key;
+        private final long hits;
+
+        KeyHits(String key, long hits) {
+            this.key = key;
+            this.hits = hits;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+    }
+}
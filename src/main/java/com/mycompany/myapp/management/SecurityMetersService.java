@@ -2,6 +2,11 @@ package com.mycompany.myapp.management;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,16 +18,60 @@ public class SecurityMetersService {
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String TOKEN_DECODE_METER_NAME = "security.authentication.token-decode";
+    public static final String TOKEN_DECODE_METER_DESCRIPTION =
+        "Indicates the time taken to decode the valid tokens presented by the clients, from the verified tokens cache or not.";
+    public static final String TOKEN_DECODE_METER_CACHE_DIMENSION = "cache";
+
+    public static final String PASSWORD_HASHING_METER_NAME = "security.password-hashing";
+    public static final String PASSWORD_HASHING_METER_DESCRIPTION = "Indicates the time taken to hash or check a password.";
+    public static final String PASSWORD_HASHING_METER_OPERATION_DIMENSION = "operation";
+    public static final String PASSWORD_HASHING_REJECTED_METER_NAME = "security.password-hashing.rejected";
+    public static final String PASSWORD_HASHING_REJECTED_METER_DESCRIPTION =
+        "Indicates the count of passwords not hashed or checked as the password hashing pool was full.";
+    // the queue depth and the busy threads are the executor.* meters of this executor
+    public static final String PASSWORD_HASHING_EXECUTOR_NAME = "passwordHashing";
+
+    public static final String THROTTLED_LOGINS_METER_NAME = "security.authentication.throttled-logins";
+    public static final String THROTTLED_LOGINS_METER_DESCRIPTION =
+        "Indicates the count of login attempts rejected before authentication, as too many came for the login or the client IP.";
+    public static final String THROTTLED_LOGINS_METER_KEY_DIMENSION = "key";
+
+    private final MeterRegistry registry;
+
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
     private final Counter tokenUnsupportedCounter;
     private final Counter tokenMalformedCounter;
 
+    private final Timer tokenDecodeHitTimer;
+    private final Timer tokenDecodeMissTimer;
+
+    private final Timer passwordEncodeTimer;
+    private final Timer passwordMatchesTimer;
+    private final Counter passwordHashingRejectedCounter;
+
+    private final Counter loginThrottledByLoginCounter;
+    private final Counter loginThrottledByIpCounter;
+
     public SecurityMetersService(MeterRegistry registry) {
+        this.registry = registry;
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
         this.tokenMalformedCounter = invalidTokensCounterForCauseBuilder("malformed").register(registry);
+
+        this.tokenDecodeHitTimer = tokenDecodeTimerForCacheBuilder("hit").register(registry);
+        this.tokenDecodeMissTimer = tokenDecodeTimerForCacheBuilder("miss").register(registry);
+
+        this.passwordEncodeTimer = passwordHashingTimerForOperationBuilder("encode").register(registry);
+        this.passwordMatchesTimer = passwordHashingTimerForOperationBuilder("matches").register(registry);
+        this.passwordHashingRejectedCounter = Counter.builder(PASSWORD_HASHING_REJECTED_METER_NAME)
+            .description(PASSWORD_HASHING_REJECTED_METER_DESCRIPTION)
+            .register(registry);
+
+        this.loginThrottledByLoginCounter = throttledLoginsCounterForKeyBuilder("login").register(registry);
+        this.loginThrottledByIpCounter = throttledLoginsCounterForKeyBuilder("ip").register(registry);
     }
 
     private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -32,6 +81,22 @@ public class SecurityMetersService {
             .tag(INVALID_TOKENS_METER_CAUSE_DIMENSION, cause);
     }
 
+    private Timer.Builder tokenDecodeTimerForCacheBuilder(String cache) {
+        return Timer.builder(TOKEN_DECODE_METER_NAME).description(TOKEN_DECODE_METER_DESCRIPTION).tag(TOKEN_DECODE_METER_CACHE_DIMENSION, cache);
+    }
+
+    private Timer.Builder passwordHashingTimerForOperationBuilder(String operation) {
+        return Timer.builder(PASSWORD_HASHING_METER_NAME)
+            .description(PASSWORD_HASHING_METER_DESCRIPTION)
+            .tag(PASSWORD_HASHING_METER_OPERATION_DIMENSION, operation);
+    }
+
+    private Counter.Builder throttledLoginsCounterForKeyBuilder(String key) {
+        return Counter.builder(THROTTLED_LOGINS_METER_NAME)
+            .description(THROTTLED_LOGINS_METER_DESCRIPTION)
+            .tag(THROTTLED_LOGINS_METER_KEY_DIMENSION, key);
+    }
+
     public void trackTokenInvalidSignature() {
         this.tokenInvalidSignatureCounter.increment();
     }
@@ -47,4 +112,28 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    public void trackTokenDecode(boolean cached, long nanos) {
+        (cached ? this.tokenDecodeHitTimer : this.tokenDecodeMissTimer).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void trackPasswordHashing(String operation, long nanos) {
+        ("encode".equals(operation) ? this.passwordEncodeTimer : this.passwordMatchesTimer).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void trackPasswordHashingRejected() {
+        this.passwordHashingRejectedCounter.increment();
+    }
+
+    public void trackLoginThrottledByLogin() {
+        this.loginThrottledByLoginCounter.increment();
+    }
+
+    public void trackLoginThrottledByIp() {
+        this.loginThrottledByIpCounter.increment();
+    }
+
+    public void monitorPasswordHashing(ExecutorService executor) {
+        new ExecutorServiceMetrics(executor, PASSWORD_HASHING_EXECUTOR_NAME, Tags.empty()).bindTo(registry);
+    }
 }
@@ -2,11 +2,14 @@ package com.mycompany.myapp.repository;
 
 import com.mycompany.myapp.domain.MoodEntry;
 import com.mycompany.myapp.domain.enumeration.MoodType;
+import jakarta.persistence.QueryHint;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,13 +18,15 @@ import org.springframework.stereotype.Repository;
  * Spring Data JPA repository for the MoodEntry entity.
  */
 @Repository
-public interface MoodEntryRepository extends JpaRepository<MoodEntry, Long> {
+public interface MoodEntryRepository extends MoodEntryRepositoryWithUpsert, MoodEntryRepositoryWithStreaming, JpaRepository<MoodEntry, Long> {
     @Query("select moodEntry from MoodEntry moodEntry where moodEntry.user.login = ?#{authentication.name}")
     List<MoodEntry> findByUserIsCurrentUser();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("select moodEntry from MoodEntry moodEntry where moodEntry.user.login = ?#{authentication.name} and moodEntry.date = :date")
     Optional<MoodEntry> findByUserIsCurrentUserAndDate(@Param("date") LocalDate date);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query(
         "select moodEntry from MoodEntry moodEntry where moodEntry.user.login = ?#{authentication.name} and moodEntry.date between :startDate and :endDate order by moodEntry.date desc"
     )
@@ -40,6 +45,80 @@ public interface MoodEntryRepository extends JpaRepository<MoodEntry, Long> {
     @Query("select moodEntry from MoodEntry moodEntry where moodEntry.user.login = ?#{authentication.name} order by moodEntry.date desc")
     Page<MoodEntry> findByUserIsCurrentUserOrderByDateDesc(Pageable pageable);
 
+    /**
+     * Get the latest entries of the current user, without counting them.
+     *
+     * @param pageable the size of the slice, its offset should be 0.
+     * @return the entries, newest first.
+     */
+    @Query("select moodEntry from MoodEntry moodEntry where moodEntry.user.login = ?#{authentication.name} order by moodEntry.date desc")
+    Slice<MoodEntry> findSliceByUserIsCurrentUserOrderByDateDesc(Pageable pageable);
+
+    /**
+     * Get the entries of the current user preceding a date, without counting them.
+     * <p>
+     * Seeks to the date instead of skipping rows, so every slice costs the same whatever its depth.
+     *
+     * @param beforeDate the exclusive upper bound of the dates.
+     * @param pageable the size of the slice, its offset should be 0.
+     * @return the entries, newest first.
+     */
+    @Query(
+        "select moodEntry from MoodEntry moodEntry where moodEntry.user.login = ?#{authentication.name} and moodEntry.date < :beforeDate order by moodEntry.date desc"
+    )
+    Slice<MoodEntry> findSliceByUserIsCurrentUserAndDateBeforeOrderByDateDesc(@Param("beforeDate") LocalDate beforeDate, Pageable pageable);
+
+    @Query(
+        "select moodEntry.date, moodEntry.mood from MoodEntry moodEntry where moodEntry.user.login = ?#{authentication.name} and moodEntry.date between :startDate and :endDate order by moodEntry.date"
+    )
+    List<Object[]> findDateAndMoodByUserIsCurrentUserAndDateBetween(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    /*
+     * The queries below filter on the user id of the token rather than the login, so they read the mood_entry table
+     * alone, through the (user_id, date, mood) index, instead of joining jhi_user.
+     */
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select moodEntry from MoodEntry moodEntry where moodEntry.user.id = :userId and moodEntry.date = :date")
+    Optional<MoodEntry> findByUserIdAndDate(@Param("userId") Long userId, @Param("date") LocalDate date);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(
+        "select moodEntry from MoodEntry moodEntry where moodEntry.user.id = :userId and moodEntry.date between :startDate and :endDate order by moodEntry.date desc"
+    )
+    List<MoodEntry> findByUserIdAndDateBetween(
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    @Query("select moodEntry from MoodEntry moodEntry where moodEntry.user.id = :userId order by moodEntry.date desc")
+    Page<MoodEntry> findByUserIdOrderByDateDesc(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("select moodEntry from MoodEntry moodEntry where moodEntry.user.id = :userId order by moodEntry.date desc")
+    Slice<MoodEntry> findSliceByUserIdOrderByDateDesc(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(
+        "select moodEntry from MoodEntry moodEntry where moodEntry.user.id = :userId and moodEntry.date < :beforeDate order by moodEntry.date desc"
+    )
+    Slice<MoodEntry> findSliceByUserIdAndDateBeforeOrderByDateDesc(
+        @Param("userId") Long userId,
+        @Param("beforeDate") LocalDate beforeDate,
+        Pageable pageable
+    );
+
+    @Query(
+        "select moodEntry.date, moodEntry.mood from MoodEntry moodEntry where moodEntry.user.id = :userId and moodEntry.date between :startDate and :endDate order by moodEntry.date"
+    )
+    List<Object[]> findDateAndMoodByUserIdAndDateBetween(
+        @Param("userId") Long userId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
     default Optional<MoodEntry> findOneWithEagerRelationships(Long id) {
         return this.findOneWithToOneRelationships(id);
     }
@@ -0,0 +1,28 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.MoodEntry;
+import java.util.stream.Stream;
+
+/**
+ * Utility repository to stream the whole history of a user.
+ */
+public interface MoodEntryRepositoryWithStreaming {
+    /**
+     * Stream the entries of a user, a few hundred rows at a time.
+     * <p>
+     * Must be consumed within a transaction, and the consumer must detach the entities it is done with. The entries are
+     * neither read from nor put into the second-level cache, which a full export would otherwise flush.
+     *
+     * @param userId the id of the user.
+     * @return the entries, ordered by date.
+     */
+    Stream<MoodEntry> streamByUserIdOrderByDate(Long userId);
+
+    /**
+     * Stream the entries of a user, as {@link #streamByUserIdOrderByDate(Long)}.
+     *
+     * @param login the login of the user.
+     * @return the entries, ordered by date.
+     */
+    Stream<MoodEntry> streamByUserLoginOrderByDate(String login);
+}
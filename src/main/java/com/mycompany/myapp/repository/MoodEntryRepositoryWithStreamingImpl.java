@@ -0,0 +1,52 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.MoodEntry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.stream.Stream;
+import org.hibernate.CacheMode;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+
+/**
+ * Implementation of {@link MoodEntryRepositoryWithStreaming}, setting the fetch size of the export queries alone.
+ * <p>
+ * MySQL Connector/J reads the whole result into memory unless the fetch size is {@link Integer#MIN_VALUE}, which streams
+ * it row by row, or {@code useCursorFetch} is set, which would turn every query of the connection pool into a server
+ * side cursor. While streamed, the result must be read or closed before the connection runs another statement.
+ */
+public class MoodEntryRepositoryWithStreamingImpl implements MoodEntryRepositoryWithStreaming {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final int MYSQL_STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<MoodEntry> streamByUserIdOrderByDate(Long userId) {
+        return stream("select moodEntry from MoodEntry moodEntry where moodEntry.user.id = :user order by moodEntry.date", userId);
+    }
+
+    @Override
+    public Stream<MoodEntry> streamByUserLoginOrderByDate(String login) {
+        return stream("select moodEntry from MoodEntry moodEntry where moodEntry.user.login = :user order by moodEntry.date", login);
+    }
+
+    private Stream<MoodEntry> stream(String query, Object user) {
+        return entityManager
+            .createQuery(query, MoodEntry.class)
+            .setParameter("user", user)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize())
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+            .getResultStream();
+    }
+
+    private int fetchSize() {
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        return sessionFactory.getJdbcServices().getDialect() instanceof MySQLDialect ? MYSQL_STREAMING_FETCH_SIZE : FETCH_SIZE;
+    }
+}
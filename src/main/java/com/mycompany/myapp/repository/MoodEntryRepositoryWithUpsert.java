@@ -0,0 +1,23 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.enumeration.MoodType;
+import java.time.LocalDate;
+
+/**
+ * Utility repository to insert or update the entry of a user on a date in one statement.
+ */
+public interface MoodEntryRepositoryWithUpsert {
+    /**
+     * Insert the entry of a user on a date, or update its mood if the user already has one on that date.
+     * <p>
+     * Concurrent calls for the same user and date cannot fail on the unique key, the last one wins.
+     * Pending changes are flushed before, and the persistence context is cleared after. Only that entry is evicted
+     * from the second-level cache.
+     *
+     * @param userId the id of the user.
+     * @param date the date of the entry.
+     * @param mood the mood of the entry.
+     * @return the id, mood and version of the entry, read back without loading the entry nor its user.
+     */
+    Object[] upsert(Long userId, LocalDate date, MoodType mood);
+}
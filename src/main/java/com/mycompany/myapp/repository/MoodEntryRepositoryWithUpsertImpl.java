@@ -0,0 +1,93 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.MoodEntry;
+import com.mycompany.myapp.domain.enumeration.MoodType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Native implementation of {@link MoodEntryRepositoryWithUpsert}, relying on the {@code ux_mood_entry__date_user_id}
+ * unique key.
+ * <p>
+ * MySQL runs an insert on duplicate key update, other databases such as H2 a standard merge. The statement is run
+ * through the JDBC coordinator of the session rather than as a native query, as Hibernate would then evict the whole
+ * mood entry region after it; the one entry written and the query results on its table are invalidated instead.
+ */
+public class MoodEntryRepositoryWithUpsertImpl implements MoodEntryRepositoryWithUpsert {
+
+    private static final String MYSQL_UPSERT_SQL =
+        "insert into mood_entry (id, date, mood, user_id, version) values (?, ?, ?, ?, 0) as new " +
+        "on duplicate key update mood = new.mood, version = mood_entry.version + 1";
+
+    private static final String MERGE_SQL =
+        "merge into mood_entry target " +
+        "using (select cast(? as bigint) id, cast(? as date) date, cast(? as varchar(255)) mood, cast(? as bigint) user_id) source " +
+        "on target.date = source.date and target.user_id = source.user_id " +
+        "when matched then update set mood = source.mood, version = target.version + 1 " +
+        "when not matched then insert (id, date, mood, user_id, version) values (source.id, source.date, source.mood, source.user_id, 0)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Object[] upsert(Long userId, LocalDate date, MoodType mood) {
+        entityManager.flush();
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(MoodEntry.class);
+        String sql = session.getJdbcServices().getDialect() instanceof MySQLDialect ? MYSQL_UPSERT_SQL : MERGE_SQL;
+        JdbcCoordinator jdbcCoordinator = session.getJdbcCoordinator();
+        PreparedStatement statement = jdbcCoordinator.getStatementPreparer().prepareStatement(sql);
+        try {
+            // The id comes from the same pooled block as the entries saved through Hibernate, it is lost on update
+            statement.setLong(1, (Long) ((IdentifierGenerator) persister.getGenerator()).generate(session, null));
+            statement.setObject(2, date);
+            statement.setString(3, mood.name());
+            statement.setLong(4, userId);
+            jdbcCoordinator.getResultSetReturn().executeUpdate(statement, sql);
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper().convert(e, "could not upsert the mood entry", sql);
+        } finally {
+            jdbcCoordinator.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbcCoordinator.afterStatementExecution();
+        }
+        // Like @Modifying(clearAutomatically = true), as a managed entry of that date may be stale now
+        entityManager.clear();
+        Object[] entry = entityManager
+            .createQuery(
+                "select moodEntry.id, moodEntry.mood, moodEntry.version from MoodEntry moodEntry where moodEntry.user.id = :userId and moodEntry.date = :date",
+                Object[].class
+            )
+            .setParameter("userId", userId)
+            .setParameter("date", date)
+            .getSingleResult();
+        invalidate(session, persister, (Long) entry[0]);
+        return entry;
+    }
+
+    // As Hibernate does after a bulk update, now and again once the transaction completes, for the one entry written
+    private static void invalidate(SessionImplementor session, EntityPersister persister, Long id) {
+        CacheImplementor cache = session.getFactory().getCache();
+        String[] querySpaces = (String[]) persister.getQuerySpaces();
+        cache.evictEntityData(MoodEntry.class, id);
+        if (session.getFactory().getSessionFactoryOptions().isQueryCacheEnabled()) {
+            cache.getTimestampsCache().preInvalidate(querySpaces, session);
+        }
+        session
+            .getActionQueue()
+            .registerProcess((success, completedSession) -> {
+                cache.evictEntityData(MoodEntry.class, id);
+                if (completedSession.getFactory().getSessionFactoryOptions().isQueryCacheEnabled()) {
+                    cache.getTimestampsCache().invalidate(querySpaces, completedSession);
+                }
+            });
+    }
+}
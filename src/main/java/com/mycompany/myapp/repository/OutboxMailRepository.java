@@ -0,0 +1,32 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.OutboxMail;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the OutboxMail entity.
+ */
+@Repository
+public interface OutboxMailRepository extends JpaRepository<OutboxMail, Long> {
+    @Query("select mail from OutboxMail mail where mail.nextAttemptAt <= :now order by mail.nextAttemptAt, mail.id")
+    List<OutboxMail> findDue(@Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Claim a mail for an attempt, by moving its next attempt past the attempt, if no other sender claimed it meanwhile.
+     *
+     * @param id the id of the mail.
+     * @param nextAttemptAt the next attempt of the mail, as read.
+     * @param leaseUntil when the mail is due again, should this attempt not complete.
+     * @return 1 when the mail was claimed by this call, 0 when it was claimed or sent concurrently.
+     */
+    @Modifying
+    @Query(
+        "update OutboxMail mail set mail.nextAttemptAt = :leaseUntil where mail.id = :id and mail.nextAttemptAt = :nextAttemptAt"
+    )
+    int claim(@Param("id") Long id, @Param("nextAttemptAt") Instant nextAttemptAt, @Param("leaseUntil") Instant leaseUntil);
+}
@@ -0,0 +1,34 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.RefreshToken;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the RefreshToken entity.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    Optional<RefreshToken> findOneByTokenHash(String tokenHash);
+
+    /**
+     * Delete a token, if not deleted yet.
+     *
+     * @param id the id of the token.
+     * @return 1 when the token was deleted by this call, 0 when it was used concurrently.
+     */
+    @Modifying
+    @Query("delete from RefreshToken token where token.id = :id")
+    int deleteOneById(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from RefreshToken token where token.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from RefreshToken token where token.expiresAt < :now")
+    int deleteByExpiresAtBefore(@Param("now") Instant now);
+}
@@ -0,0 +1,127 @@
+package com.mycompany.myapp.security;
+
+import com.mycompany.myapp.management.SecurityMetersService;
+import com.nimbusds.jose.proc.BadJWSException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.Base64;
+import javax.cache.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+/**
+ * {@link JwtDecoder} caching the tokens it verified, so that a client sending the same token again is not verified again.
+ * <p>
+ * The tokens are cached by their SHA-256 digest in the {@link #VERIFIED_JWTS_CACHE} cache, until they expire. The
+ * verification failures are counted by cause in {@link SecurityMetersService}, as well as the decoding time.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    public static final String VERIFIED_JWTS_CACHE = "verifiedJwts";
+
+    private static final Logger LOG = LoggerFactory.getLogger(CachingJwtDecoder.class);
+
+    private final JwtDecoder verifier;
+
+    private final OAuth2TokenValidator<Jwt> validator;
+
+    private final Cache<Object, Object> cache;
+
+    private final SecurityMetersService metersService;
+
+    /**
+     * @param verifier decoder checking the signature of the tokens, but not their claims.
+     * @param validator validator of the claims.
+     * @param cache the cache of the verified tokens.
+     * @param metersService the meters.
+     */
+    public CachingJwtDecoder(
+        JwtDecoder verifier,
+        OAuth2TokenValidator<Jwt> validator,
+        Cache<Object, Object> cache,
+        SecurityMetersService metersService
+    ) {
+        this.verifier = verifier;
+        this.validator = validator;
+        this.cache = cache;
+        this.metersService = metersService;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        long start = System.nanoTime();
+        String key = digest(token);
+        if (cache.get(key) instanceof Jwt jwt) {
+            metersService.trackTokenDecode(true, System.nanoTime() - start);
+            return jwt;
+        }
+        Jwt jwt = verify(token);
+        validate(jwt);
+        // the cache entries expire with their token
+        if (jwt.getExpiresAt() != null) {
+            cache.put(key, jwt);
+        }
+        metersService.trackTokenDecode(false, System.nanoTime() - start);
+        return jwt;
+    }
+
+    private Jwt verify(String token) {
+        try {
+            return verifier.decode(token);
+        } catch (BadJwtException e) {
+            if (hasCause(e, BadJWSException.class)) {
+                metersService.trackTokenInvalidSignature();
+            } else if (hasCause(e, ParseException.class)) {
+                metersService.trackTokenMalformed();
+            } else {
+                // unsigned, encrypted or signed with another algorithm
+                metersService.trackTokenUnsupported();
+            }
+            throw e;
+        } catch (JwtException e) {
+            LOG.error("Unknown JWT error {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    private void validate(Jwt jwt) {
+        OAuth2TokenValidatorResult result = validator.validate(jwt);
+        if (!result.hasErrors()) {
+            return;
+        }
+        if (jwt.getExpiresAt() != null && jwt.getExpiresAt().isBefore(Instant.now())) {
+            metersService.trackTokenExpired();
+        } else {
+            metersService.trackTokenUnsupported();
+        }
+        throw new JwtValidationException(result.getErrors().iterator().next().getDescription(), result.getErrors());
+    }
+
+    private static boolean hasCause(Throwable e, Class<? extends Throwable> type) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String digest(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.mycompany.myapp.security;
+
+import com.mycompany.myapp.management.SecurityMetersService;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * In-memory throttle of the login attempts, by login and by client IP, checked before the password is.
+ * <p>
+ * Each key has a token bucket of {@code burst} attempts, refilled by one attempt every {@code interval}. A bucket is a
+ * single {@link AtomicLong} updated by compare-and-set, holding the time at which it will be full again (the generic cell
+ * rate algorithm), so the attempts never lock. Buckets are spread over stripes of bounded size, and dropped once full
+ * again, so that only the keys seen lately take memory. A new key in a full stripe evicts the buckets closest to full
+ * again, which forgives the fewest attempts, so that flooding new keys neither lets them through nor frees the buckets
+ * of the keys throttled the most.
+ */
+public class LoginThrottle {
+
+    private static final int STRIPES = 16;
+
+    private final Buckets byLogin;
+
+    private final Buckets byIp;
+
+    private final SecurityMetersService metersService;
+
+    /**
+     * @param loginBurst attempts allowed at once for a login.
+     * @param loginInterval time to get back one attempt for a login.
+     * @param ipBurst attempts allowed at once for a client IP.
+     * @param ipInterval time to get back one attempt for a client IP.
+     * @param maxKeys keys tracked at most by each of the login and IP buckets.
+     * @param metersService the meters.
+     */
+    public LoginThrottle(
+        int loginBurst,
+        Duration loginInterval,
+        int ipBurst,
+        Duration ipInterval,
+        int maxKeys,
+        SecurityMetersService metersService
+    ) {
+        this.byLogin = new Buckets(loginBurst, loginInterval, maxKeys);
+        this.byIp = new Buckets(ipBurst, ipInterval, maxKeys);
+        this.metersService = metersService;
+    }
+
+    /**
+     * Take one attempt from the buckets of the client IP and of the login.
+     *
+     * @param login the login or email sent by the client.
+     * @param ip the address of the client.
+     * @throws LoginThrottledException if either bucket is empty.
+     */
+    public void acquire(String login, String ip) {
+        long now = System.nanoTime();
+        long wait = byIp.tryAcquire(ip, now);
+        if (wait > 0) {
+            metersService.trackLoginThrottledByIp();
+            throw new LoginThrottledException(Duration.ofNanos(wait));
+        }
+        wait = byLogin.tryAcquire(normalize(login), now);
+        if (wait > 0) {
+            metersService.trackLoginThrottledByLogin();
+            throw new LoginThrottledException(Duration.ofNanos(wait));
+        }
+    }
+
+    /**
+     * Refill the bucket of a login, once authenticated.
+     *
+     * @param login the login or email sent by the client.
+     */
+    public void reset(String login) {
+        byLogin.remove(normalize(login));
+    }
+
+    /**
+     * Drop the buckets full again, which are the same as no bucket.
+     */
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void removeFullBuckets() {
+        long now = System.nanoTime();
+        byLogin.removeFull(now);
+        byIp.removeFull(now);
+    }
+
+    private static String normalize(String login) {
+        return login == null ? "" : login.toLowerCase(Locale.ENGLISH);
+    }
+
+    private static final class Buckets {
+
+        private final long interval;
+
+        private final long capacity;
+
+        private final int maxKeysPerStripe;
+
+        @SuppressWarnings("unchecked")
+        private final ConcurrentHashMap<String, AtomicLong>[] stripes = new ConcurrentHashMap[STRIPES];
+
+        Buckets(int burst, Duration interval, int maxKeys) {
+            this.interval = interval.toNanos();
+            this.capacity = burst * this.interval;
+            this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new ConcurrentHashMap<>();
+            }
+        }
+
+        /**
+         * @return 0 if an attempt was taken, else the time in nanoseconds until one is available.
+         */
+        long tryAcquire(String key, long now) {
+            ConcurrentHashMap<String, AtomicLong> stripe = stripe(key);
+            AtomicLong fullAt = stripe.get(key);
+            if (fullAt == null) {
+                if (stripe.size() >= maxKeysPerStripe) {
+                    makeRoom(stripe, now);
+                }
+                fullAt = stripe.computeIfAbsent(key, k -> new AtomicLong(now));
+            }
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + interval;
+                if (next - now > capacity) {
+                    return next - now - capacity;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        void remove(String key) {
+            stripe(key).remove(key);
+        }
+
+        void removeFull(long now) {
+            for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+                removeFull(stripe, now);
+            }
+        }
+
+        // an attempt taken while its bucket is removed is forgiven, which is harmless
+        private static void removeFull(ConcurrentHashMap<String, AtomicLong> stripe, long now) {
+            stripe.values().removeIf(fullAt -> fullAt.get() - now <= 0);
+        }
+
+        /**
+         * Evict the buckets full again, and at least the eighth of the stripe closest to full again, so that the stripe
+         * is scanned once for that many new keys rather than for each.
+         */
+        private void makeRoom(ConcurrentHashMap<String, AtomicLong> stripe, long now) {
+            synchronized (stripe) {
+                if (stripe.size() < maxKeysPerStripe) {
+                    // made by another thread meanwhile
+                    return;
+                }
+                long[] untilFull = stripe.values().stream().mapToLong(fullAt -> fullAt.get() - now).sorted().toArray();
+                if (untilFull.length == 0) {
+                    return;
+                }
+                long evictedUntilFull = Math.max(0, untilFull[untilFull.length / 8]);
+                stripe.values().removeIf(fullAt -> fullAt.get() - now <= evictedUntilFull);
+            }
+        }
+
+        private ConcurrentHashMap<String, AtomicLong> stripe(String key) {
+            int hash = key.hashCode();
+            return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+        }
+    }
+}
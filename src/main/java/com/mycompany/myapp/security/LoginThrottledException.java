@@ -0,0 +1,22 @@
+package com.mycompany.myapp.security;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a login attempt is rejected before authentication, as too many attempts came for the login or the client IP.
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    public LoginThrottledException(Duration retryAfter) {
+        super("Too many login attempts, retry later");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,311 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.OutboxMail;
+import com.mycompany.myapp.repository.OutboxMailRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service queuing the mails in the outbox table, and sending them in the background.
+ * <p>
+ * The due mails are claimed in batches of {@code application.mail-outbox.batch-size}, each batch sent over one SMTP
+ * connection, at most {@code application.mail-outbox.rate-per-minute} mails a minute. A mail failing to be sent is
+ * tried again after a backoff doubling at each attempt, and dropped after {@code application.mail-outbox.max-attempts}.
+ * A mail claimed by a node stopping before it completes is due again after {@code application.mail-outbox.lease}, so
+ * a mail is sent at least once.
+ * <p>
+ * The mails are sent on a thread of their own rather than on the shared scheduler, so that a slow SMTP relay only delays
+ * the mails. The SMTP timeouts are set by {@code spring.mail.properties}.
+ */
+@Service
+public class MailOutboxService implements DisposableBean {
+
+    public static final String DELIVERIES_METER_NAME = "mail.outbox.deliveries";
+    public static final String DELIVERIES_METER_DESCRIPTION = "Indicates the attempts to send a mail of the outbox, by result.";
+    public static final String DELIVERIES_METER_RESULT_DIMENSION = "result";
+    public static final String CONNECTIONS_METER_NAME = "mail.outbox.connections";
+    public static final String CONNECTIONS_METER_DESCRIPTION = "Indicates the SMTP connections opened, one for each batch of mails.";
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailOutboxService.class);
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final OutboxMailRepository outboxMailRepository;
+
+    private final JavaMailSender javaMailSender;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    private final int ratePerMinute;
+
+    private final int maxAttempts;
+
+    private final Duration initialBackoff;
+
+    private final Duration maxBackoff;
+
+    private final Duration lease;
+
+    private final Counter sentCounter;
+
+    private final Counter retriedCounter;
+
+    private final Counter droppedCounter;
+
+    private final Counter connectionsCounter;
+
+    // One delivery at a time, a trigger while it runs is dropped as the running delivery sends the due mails
+    private final ThreadPoolExecutor deliveryExecutor;
+
+    // The mails which may be sent now, refilled at the rate and capped at a batch
+    private double permits;
+
+    private long refilledAt = System.nanoTime();
+
+    public MailOutboxService(
+        OutboxMailRepository outboxMailRepository,
+        JavaMailSender javaMailSender,
+        JHipsterProperties jHipsterProperties,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry registry,
+        @Value("${application.mail-outbox.batch-size:20}") int batchSize,
+        @Value("${application.mail-outbox.rate-per-minute:600}") int ratePerMinute,
+        @Value("${application.mail-outbox.max-attempts:8}") int maxAttempts,
+        @Value("${application.mail-outbox.initial-backoff:PT30S}") Duration initialBackoff,
+        @Value("${application.mail-outbox.max-backoff:PT1H}") Duration maxBackoff,
+        @Value("${application.mail-outbox.lease:PT5M}") Duration lease
+    ) {
+        this.outboxMailRepository = outboxMailRepository;
+        this.javaMailSender = javaMailSender;
+        this.jHipsterProperties = jHipsterProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.ratePerMinute = ratePerMinute;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.permits = batchSize;
+        this.sentCounter = deliveriesCounterForResultBuilder("sent").register(registry);
+        this.retriedCounter = deliveriesCounterForResultBuilder("retried").register(registry);
+        this.droppedCounter = deliveriesCounterForResultBuilder("dropped").register(registry);
+        this.connectionsCounter = Counter.builder(CONNECTIONS_METER_NAME).description(CONNECTIONS_METER_DESCRIPTION).register(registry);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("mail-outbox-");
+        threadFactory.setDaemon(true);
+        this.deliveryExecutor = new ThreadPoolExecutor(
+            1,
+            1,
+            1,
+            TimeUnit.MINUTES,
+            new SynchronousQueue<>(),
+            threadFactory,
+            new ThreadPoolExecutor.DiscardPolicy()
+        );
+        this.deliveryExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    private Counter.Builder deliveriesCounterForResultBuilder(String result) {
+        return Counter.builder(DELIVERIES_METER_NAME).description(DELIVERIES_METER_DESCRIPTION).tag(DELIVERIES_METER_RESULT_DIMENSION, result);
+    }
+
+    /**
+     * Queue a mail. It is only sent if the current transaction, if any, commits.
+     *
+     * @param to the recipient.
+     * @param subject the subject.
+     * @param content the content.
+     * @param isMultipart whether the mail is multipart.
+     * @param isHtml whether the content is HTML.
+     */
+    @Transactional
+    public void enqueue(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
+        LOG.debug("Request to queue email to '{}' with subject '{}'", to, subject);
+        Instant now = Instant.now();
+        outboxMailRepository.save(
+            new OutboxMail()
+                .recipient(to)
+                .subject(subject)
+                .content(content)
+                .multipart(isMultipart)
+                .html(isHtml)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdDate(now)
+        );
+    }
+
+    /**
+     * Start sending the due mails on the delivery thread, unless it is already sending them.
+     * <p>
+     * This is scheduled to be run every {@code application.mail-outbox.poll-interval}.
+     */
+    @Scheduled(fixedDelayString = "${application.mail-outbox.poll-interval:2s}")
+    public void scheduleDelivery() {
+        deliveryExecutor.execute(() -> {
+            try {
+                deliver();
+            } catch (RuntimeException e) {
+                LOG.error("Emails of the outbox could not be delivered", e);
+            }
+        });
+    }
+
+    /**
+     * Send the due mails, batch after batch, until none is due or the rate is reached.
+     */
+    public void deliver() {
+        int sent;
+        do {
+            sent = deliverBatch();
+        } while (sent == batchSize);
+    }
+
+    private int deliverBatch() {
+        int allowed = takePermits();
+        if (allowed == 0) {
+            return 0;
+        }
+        Instant now = Instant.now();
+        List<OutboxMail> mails = transactionTemplate.execute(status -> claim(now, allowed));
+        if (mails == null || mails.isEmpty()) {
+            return 0;
+        }
+        usePermits(mails.size());
+        Map<OutboxMail, Exception> failures = send(mails);
+        transactionTemplate.executeWithoutResult(status -> complete(mails, failures));
+        return mails.size();
+    }
+
+    private List<OutboxMail> claim(Instant now, int limit) {
+        Instant leaseUntil = now.plus(lease);
+        List<OutboxMail> claimed = new ArrayList<>(limit);
+        for (OutboxMail mail : outboxMailRepository.findDue(now, PageRequest.of(0, limit))) {
+            if (outboxMailRepository.claim(mail.getId(), mail.getNextAttemptAt(), leaseUntil) == 1) {
+                claimed.add(mail);
+            }
+        }
+        return claimed;
+    }
+
+    // The mails are sent over one connection, opened by the JavaMailSender for the whole array
+    private Map<OutboxMail, Exception> send(List<OutboxMail> mails) {
+        Map<OutboxMail, Exception> failures = new IdentityHashMap<>();
+        Map<MimeMessage, OutboxMail> mailsByMessage = new LinkedHashMap<>();
+        for (OutboxMail mail : mails) {
+            try {
+                mailsByMessage.put(toMimeMessage(mail), mail);
+            } catch (MessagingException e) {
+                failures.put(mail, e);
+            }
+        }
+        if (mailsByMessage.isEmpty()) {
+            return failures;
+        }
+        connectionsCounter.increment();
+        try {
+            javaMailSender.send(mailsByMessage.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                mailsByMessage.values().forEach(mail -> failures.put(mail, e));
+            }
+            e.getFailedMessages().forEach((message, cause) -> failures.put(mailsByMessage.get(message), cause));
+        } catch (MailException e) {
+            mailsByMessage.values().forEach(mail -> failures.put(mail, e));
+        }
+        return failures;
+    }
+
+    private MimeMessage toMimeMessage(OutboxMail mail) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, mail.isMultipart(), StandardCharsets.UTF_8.name());
+        message.setTo(mail.getRecipient());
+        message.setFrom(jHipsterProperties.getMail().getFrom());
+        message.setSubject(mail.getSubject());
+        message.setText(mail.getContent(), mail.isHtml());
+        return mimeMessage;
+    }
+
+    private void complete(List<OutboxMail> mails, Map<OutboxMail, Exception> failures) {
+        Instant now = Instant.now();
+        List<Long> sent = new ArrayList<>(mails.size());
+        for (OutboxMail mail : mails) {
+            Exception failure = failures.get(mail);
+            if (failure == null) {
+                LOG.debug("Sent email to User '{}'", mail.getRecipient());
+                sent.add(mail.getId());
+                sentCounter.increment();
+                continue;
+            }
+            int attempts = mail.getAttempts() + 1;
+            if (attempts >= maxAttempts) {
+                LOG.error("Email could not be sent to user '{}' after {} attempts, dropping it", mail.getRecipient(), attempts, failure);
+                outboxMailRepository.deleteById(mail.getId());
+                droppedCounter.increment();
+                continue;
+            }
+            Instant nextAttemptAt = now.plus(backoff(attempts));
+            LOG.warn("Email could not be sent to user '{}', retrying at {}", mail.getRecipient(), nextAttemptAt, failure);
+            outboxMailRepository.save(mail.attempts(attempts).nextAttemptAt(nextAttemptAt).lastError(abbreviate(failure.toString())));
+            retriedCounter.increment();
+        }
+        outboxMailRepository.deleteAllByIdInBatch(sent);
+    }
+
+    Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private synchronized int takePermits() {
+        long now = System.nanoTime();
+        permits = Math.min(batchSize, permits + ((now - refilledAt) / 60e9) * ratePerMinute);
+        refilledAt = now;
+        return (int) permits;
+    }
+
+    private synchronized void usePermits(int used) {
+        permits -= used;
+    }
+
+    @Override
+    public void destroy() {
+        deliveryExecutor.shutdown();
+    }
+
+    private static String abbreviate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH - 3) + "...";
+    }
+}
@@ -0,0 +1,219 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.Authority;
+import com.mycompany.myapp.domain.User;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.unbescape.html.HtmlEscape;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service rendering the mail templates for a user.
+ * <p>
+ * Each template is rendered by Thymeleaf once per locale, with markers for the user fields, and split at the markers;
+ * the subject is resolved with it. The mails are then rendered by filling the escaped user fields between the parts.
+ * A template whose markers do not come out as they went in, e.g. because it transforms or tests a user field, is
+ * always rendered by Thymeleaf, as is a template whose output depends on the other properties of the user, which are
+ * checked with two sets of values, and a mail for a user missing one of the fields used. Nothing is cached when
+ * {@code spring.thymeleaf.cache} is off, so that the templates can be edited while the application runs.
+ */
+@Service
+public class MailTemplateRenderer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailTemplateRenderer.class);
+
+    private static final String USER = "user";
+
+    private static final String BASE_URL = "baseUrl";
+
+    // checks that the user fields are escaped as the parts are filled
+    private static final String ESCAPED_CHARACTERS = "<&\"'>";
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final MessageSource messageSource;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final boolean cache;
+
+    private final Map<TemplateKey, PreparedTemplate> templates = new ConcurrentHashMap<>();
+
+    public MailTemplateRenderer(
+        SpringTemplateEngine templateEngine,
+        MessageSource messageSource,
+        JHipsterProperties jHipsterProperties,
+        @Value("${spring.thymeleaf.cache:true}") boolean cache
+    ) {
+        this.templateEngine = templateEngine;
+        this.messageSource = messageSource;
+        this.jHipsterProperties = jHipsterProperties;
+        this.cache = cache;
+    }
+
+    /**
+     * A mail rendered for a user.
+     *
+     * @param subject the subject.
+     * @param content the HTML content.
+     */
+    public record RenderedMail(String subject, String content) {}
+
+    /**
+     * Render a mail template for a user.
+     *
+     * @param user the user, in the {@code user} variable of the template.
+     * @param templateName the name of the template.
+     * @param titleKey the message key of the subject.
+     * @param locale the locale.
+     * @return the subject and content of the mail.
+     */
+    public RenderedMail render(User user, String templateName, String titleKey, Locale locale) {
+        if (!cache) {
+            return new RenderedMail(messageSource.getMessage(titleKey, null, locale), process(templateName, locale, user));
+        }
+        PreparedTemplate template = templates.computeIfAbsent(new TemplateKey(templateName, titleKey, locale), this::prepare);
+        String content = template.fill(user);
+        if (content == null) {
+            content = process(templateName, locale, user);
+        }
+        return new RenderedMail(template.subject(), content);
+    }
+
+    private String process(String templateName, Locale locale, User user) {
+        Context context = new Context(locale);
+        context.setVariable(USER, user);
+        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
+        return templateEngine.process(templateName, context);
+    }
+
+    private PreparedTemplate prepare(TemplateKey key) {
+        String subject = messageSource.getMessage(key.titleKey(), null, key.locale());
+        String prefix = newMarkerPrefix();
+        String rendered = process(key.templateName(), key.locale(), markerUser(field -> marker(prefix, field)));
+        List<String> parts = new ArrayList<>();
+        List<UserField> fields = new ArrayList<>();
+        Matcher matcher = Pattern.compile(prefix + "(\\d+)x").matcher(rendered);
+        int end = 0;
+        while (matcher.find()) {
+            parts.add(rendered.substring(end, matcher.start()));
+            fields.add(UserField.values()[Integer.parseInt(matcher.group(1))]);
+            end = matcher.end();
+        }
+        parts.add(rendered.substring(end));
+        int length = parts.stream().mapToInt(String::length).sum();
+        PreparedTemplate template = new PreparedTemplate(subject, parts.toArray(String[]::new), fields.toArray(UserField[]::new), length);
+
+        String probePrefix = newMarkerPrefix();
+        User probe = markerUser(field -> marker(probePrefix, field) + ESCAPED_CHARACTERS);
+        User otherProbe = withOtherProperties(markerUser(field -> marker(probePrefix, field)));
+        if (!fillsAsThymeleaf(template, key, probe) || !fillsAsThymeleaf(template, key, otherProbe)) {
+            LOG.debug("Mail template '{}' cannot be split, it is rendered by Thymeleaf for each mail", key.templateName());
+            return new PreparedTemplate(subject, null, null, 0);
+        }
+        return template;
+    }
+
+    private boolean fillsAsThymeleaf(PreparedTemplate template, TemplateKey key, User probe) {
+        return process(key.templateName(), key.locale(), probe).equals(template.fill(probe));
+    }
+
+    // the parts are rendered with these properties left null or false, so they must not change the output
+    private static User withOtherProperties(User user) {
+        user.setId(Long.MAX_VALUE);
+        user.setPassword("probe");
+        user.setImageUrl("probe");
+        user.setActivated(true);
+        user.setResetDate(Instant.EPOCH);
+        user.setLangKey("probe");
+        user.setAuthorities(Set.of(new Authority().name("PROBE")));
+        user.setCreatedBy("probe");
+        user.setCreatedDate(Instant.EPOCH);
+        user.setLastModifiedBy("probe");
+        user.setLastModifiedDate(Instant.EPOCH);
+        return user;
+    }
+
+    private static String newMarkerPrefix() {
+        byte[] random = new byte[8];
+        ThreadLocalRandom.current().nextBytes(random);
+        return "m" + HexFormat.of().formatHex(random);
+    }
+
+    private static String marker(String prefix, UserField field) {
+        return prefix + field.ordinal() + "x";
+    }
+
+    private static User markerUser(Function<UserField, String> value) {
+        User user = new User();
+        for (UserField field : UserField.values()) {
+            field.setter.accept(user, value.apply(field));
+        }
+        return user;
+    }
+
+    private record TemplateKey(String templateName, String titleKey, Locale locale) {}
+
+    /**
+     * The user fields which may be filled in a prepared template.
+     */
+    private enum UserField {
+        LOGIN(User::getLogin, User::setLogin),
+        FIRST_NAME(User::getFirstName, User::setFirstName),
+        LAST_NAME(User::getLastName, User::setLastName),
+        EMAIL(User::getEmail, User::setEmail),
+        ACTIVATION_KEY(User::getActivationKey, User::setActivationKey),
+        RESET_KEY(User::getResetKey, User::setResetKey);
+
+        private final Function<User, String> getter;
+
+        private final BiConsumer<User, String> setter;
+
+        UserField(Function<User, String> getter, BiConsumer<User, String> setter) {
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+
+    /**
+     * A template split at the user fields, {@code parts} having one more element than {@code fields}; both are
+     * {@code null} when the template cannot be split. {@code length} is the length of the parts.
+     */
+    private record PreparedTemplate(String subject, String[] parts, UserField[] fields, int length) {
+        /**
+         * @return the content for the user, or {@code null} if the template cannot be split or a field is missing.
+         */
+        String fill(User user) {
+            if (parts == null) {
+                return null;
+            }
+            StringBuilder content = new StringBuilder(length + 32 * fields.length);
+            for (int i = 0; i < fields.length; i++) {
+                String value = fields[i].getter.apply(user);
+                if (value == null) {
+                    return null;
+                }
+                content.append(parts[i]).append(HtmlEscape.escapeHtml4Xml(value));
+            }
+            return content.append(parts[fields.length]).toString();
+        }
+    }
+}
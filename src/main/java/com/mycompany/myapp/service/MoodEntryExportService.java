@@ -0,0 +1,143 @@
+package com.mycompany.myapp.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.myapp.domain.MoodEntry;
+import com.mycompany.myapp.repository.MoodEntryRepository;
+import com.mycompany.myapp.security.SecurityUtils;
+import jakarta.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service exporting the whole mood history of the current user.
+ * <p>
+ * Entries are streamed from the database and written one by one, then detached, so memory use does not depend on the
+ * number of entries.
+ */
+@Service
+@Transactional(readOnly = true)
+public class MoodEntryExportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MoodEntryExportService.class);
+
+    private static final String[] CSV_HEADER = { "id", "date", "mood" };
+
+    /**
+     * Supported export formats.
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Optional<Format> fromName(String name) {
+            try {
+                return Optional.of(valueOf(name.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    private final MoodEntryRepository moodEntryRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final EntityManager entityManager;
+
+    public MoodEntryExportService(MoodEntryRepository moodEntryRepository, ObjectMapper objectMapper, EntityManager entityManager) {
+        this.moodEntryRepository = moodEntryRepository;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Write all the mood entries of the current user, ordered by date.
+     * <p>
+     * The output stream is flushed but not closed.
+     *
+     * @param format the format to write.
+     * @param out the stream to write to.
+     * @throws IOException if the stream cannot be written.
+     */
+    public void exportForCurrentUser(Format format, OutputStream out) throws IOException {
+        LOG.debug("Request to export MoodEntries for current user as {}", format);
+        try (
+            Stream<MoodEntry> moodEntries = SecurityUtils.getCurrentUserId()
+                .map(moodEntryRepository::streamByUserIdOrderByDate)
+                .or(() -> SecurityUtils.getCurrentUserLogin().map(moodEntryRepository::streamByUserLoginOrderByDate))
+                .orElseGet(Stream::empty)
+        ) {
+            Iterator<MoodEntry> iterator = moodEntries.iterator();
+            switch (format) {
+                case NDJSON -> writeNdjson(iterator, out);
+                case CSV -> writeCsv(iterator, out);
+            }
+        }
+    }
+
+    private void writeNdjson(Iterator<MoodEntry> moodEntries, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // one object per line, without the default space between root values
+            generator.setRootValueSeparator(null);
+            while (moodEntries.hasNext()) {
+                MoodEntry moodEntry = moodEntries.next();
+                generator.writeStartObject();
+                generator.writeNumberField("id", moodEntry.getId());
+                generator.writeStringField("date", moodEntry.getDate().toString());
+                generator.writeStringField("mood", moodEntry.getMood().name());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                entityManager.detach(moodEntry);
+            }
+        }
+    }
+
+    private void writeCsv(Iterator<MoodEntry> moodEntries, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", CSV_HEADER));
+        writer.write('\n');
+        while (moodEntries.hasNext()) {
+            MoodEntry moodEntry = moodEntries.next();
+            // no value can contain a separator or a quote
+            writer.write(moodEntry.getId().toString());
+            writer.write(',');
+            writer.write(moodEntry.getDate().toString());
+            writer.write(',');
+            writer.write(moodEntry.getMood().name());
+            writer.write('\n');
+            entityManager.detach(moodEntry);
+        }
+        writer.flush();
+    }
+}
@@ -8,21 +8,33 @@ import com.mycompany.myapp.repository.UserRepository;
 import com.mycompany.myapp.security.SecurityUtils;
 import com.mycompany.myapp.service.dto.MoodEntryDTO;
 import com.mycompany.myapp.service.dto.MoodStatisticsDTO;
+import com.mycompany.myapp.service.dto.MoodStatisticsDeltaDTO;
 import com.mycompany.myapp.service.dto.MoodTrendDTO;
+import com.mycompany.myapp.service.dto.UserDTO;
 import com.mycompany.myapp.service.mapper.MoodEntryMapper;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service Implementation for managing {@link com.mycompany.myapp.domain.MoodEntry}.
+ * <p>
+ * The entries of the current user are read by the user id claim of their token, or by their login when the
+ * authentication has no such claim. Every write publishes a {@link MoodStatisticsChangedEvent} for each user and date
+ * whose statistics it changed.
  */
 @Service
 @Transactional
@@ -36,10 +48,22 @@ public class MoodEntryService {
 
     private final UserRepository userRepository;
 
-    public MoodEntryService(MoodEntryRepository moodEntryRepository, MoodEntryMapper moodEntryMapper, UserRepository userRepository) {
+    private final MoodStatisticsCacheService moodStatisticsCacheService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MoodEntryService(
+        MoodEntryRepository moodEntryRepository,
+        MoodEntryMapper moodEntryMapper,
+        UserRepository userRepository,
+        MoodStatisticsCacheService moodStatisticsCacheService,
+        ApplicationEventPublisher eventPublisher
+    ) {
         this.moodEntryRepository = moodEntryRepository;
         this.moodEntryMapper = moodEntryMapper;
         this.userRepository = userRepository;
+        this.moodStatisticsCacheService = moodStatisticsCacheService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -52,15 +76,113 @@ public class MoodEntryService {
         LOG.debug("Request to save MoodEntry : {}", moodEntryDTO);
         MoodEntry moodEntry = moodEntryMapper.toEntity(moodEntryDTO);
 
+        // An entry of the current user, set or not, is attached from the token
+        Optional<Long> currentUserId = SecurityUtils.getCurrentUserId();
+        if (currentUserId.isPresent() && (moodEntry.getUser() == null || currentUserId.orElseThrow().equals(moodEntry.getUser().getId()))) {
+            return saveForCurrentUser(moodEntry, currentUserId.orElseThrow());
+        }
+
         // Automatically assign current user if not already set
         if (moodEntry.getUser() == null) {
             SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneWithAuthoritiesByLogin).ifPresent(moodEntry::setUser);
         }
 
         moodEntry = moodEntryRepository.save(moodEntry);
+        evictStatistics(moodEntry.getUser(), moodEntry.getDate());
         return moodEntryMapper.toDto(moodEntry);
     }
 
+    /**
+     * Save a moodEntry of the current user, known by the user id claim of their token.
+     * <p>
+     * The user is attached as an uninitialized reference and described from the token, so {@code jhi_user} is not read.
+     */
+    private MoodEntryDTO saveForCurrentUser(MoodEntry moodEntry, Long userId) {
+        String login = SecurityUtils.getCurrentUserLogin().orElse(null);
+        moodEntry.setUser(userRepository.getReferenceById(userId));
+        moodEntry = moodEntryRepository.save(moodEntry);
+        statisticsChanged(userId, login, moodEntry.getDate());
+        return toDtoOfCurrentUser(moodEntry, userId, login);
+    }
+
+    /**
+     * Set the mood of the current user on a date, creating their entry of that date or updating it in one statement.
+     *
+     * @param date the date of the entry.
+     * @param mood the mood of the entry.
+     * @return the resulting entity, or empty if the current user is unknown.
+     */
+    public Optional<MoodEntryDTO> upsertForCurrentUser(LocalDate date, MoodType mood) {
+        LOG.debug("Request to set the mood of current user on {} to {}", date, mood);
+        String login = SecurityUtils.getCurrentUserLogin().orElse(null);
+        Optional<Long> userId = getCurrentUserId();
+        if (userId.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] entry = moodEntryRepository.upsert(userId.orElseThrow(), date, mood);
+        statisticsChanged(userId.orElseThrow(), login, date);
+        return Optional.of(
+            toDtoOfCurrentUser(
+                new MoodEntry().id((Long) entry[0]).date(date).mood((MoodType) entry[1]).version((Long) entry[2]),
+                userId.orElseThrow(),
+                login
+            )
+        );
+    }
+
+    /**
+     * Set the mood of an entry of the current user, provided it was not changed since the version the client read.
+     * <p>
+     * The entry is loaded, checked against that version and flushed: the versioned update only refreshes that entry in
+     * the second-level cache, where a bulk update would evict the whole region.
+     *
+     * @param id the id of the entry.
+     * @param version the version of the entry read by the client.
+     * @param mood the new mood.
+     * @return the updated entity, or empty if the current user has no such entry.
+     * @throws ObjectOptimisticLockingFailureException if the entry is now at another version.
+     */
+    public Optional<MoodEntryDTO> updateMoodForCurrentUser(Long id, Long version, MoodType mood) {
+        LOG.debug("Request to set the mood of MoodEntry {} at version {} to {}", id, version, mood);
+        String login = SecurityUtils.getCurrentUserLogin().orElse(null);
+        Optional<Long> userId = getCurrentUserId();
+        if (userId.isEmpty()) {
+            return Optional.empty();
+        }
+        return moodEntryRepository
+            .findById(id)
+            .filter(existingMoodEntry -> userId.orElseThrow().equals(existingMoodEntry.getUser().getId()))
+            .map(existingMoodEntry -> {
+                checkVersion(existingMoodEntry, version);
+                existingMoodEntry.setMood(mood);
+                MoodEntry moodEntry = moodEntryRepository.saveAndFlush(existingMoodEntry);
+                statisticsChanged(userId.orElseThrow(), login, moodEntry.getDate());
+                return toDtoOfCurrentUser(moodEntry, userId.orElseThrow(), login);
+            });
+    }
+
+    // The flush checks the version again, for a change committed since the entry was loaded
+    private static void checkVersion(MoodEntry moodEntry, Long version) {
+        if (version != null && !version.equals(moodEntry.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(MoodEntry.class, moodEntry.getId());
+        }
+    }
+
+    private Optional<Long> getCurrentUserId() {
+        return SecurityUtils.getCurrentUserId().or(() ->
+            SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneWithAuthoritiesByLogin).map(User::getId)
+        );
+    }
+
+    private MoodEntryDTO toDtoOfCurrentUser(MoodEntry moodEntry, Long userId, String login) {
+        MoodEntryDTO result = moodEntryMapper.toDtoWithoutUser(moodEntry);
+        UserDTO user = new UserDTO();
+        user.setId(userId);
+        user.setLogin(login);
+        result.setUser(user);
+        return result;
+    }
+
     /**
      * Update a moodEntry.
      *
@@ -69,8 +191,19 @@ public class MoodEntryService {
      */
     public MoodEntryDTO update(MoodEntryDTO moodEntryDTO) {
         LOG.debug("Request to update MoodEntry : {}", moodEntryDTO);
+        // Capture the stored state before the merge overwrites it, so the statistics it belonged to can be evicted
+        Optional<MoodEntry> previous = moodEntryRepository.findById(moodEntryDTO.getId());
+        Long previousUserId = previous.map(MoodEntry::getUser).map(User::getId).orElse(null);
+        String previousLogin = previous.map(MoodEntry::getUser).map(User::getLogin).orElse(null);
+        LocalDate previousDate = previous.map(MoodEntry::getDate).orElse(null);
         MoodEntry moodEntry = moodEntryMapper.toEntity(moodEntryDTO);
+        // Without a version from the client, the last write wins as before
+        if (moodEntry.getVersion() == null) {
+            moodEntry.setVersion(previous.map(MoodEntry::getVersion).orElse(null));
+        }
         moodEntry = moodEntryRepository.save(moodEntry);
+        evictStatistics(moodEntry.getUser(), moodEntry.getDate());
+        evictStatisticsIfMoved(previousUserId, previousLogin, previousDate, moodEntry);
         return moodEntryMapper.toDto(moodEntry);
     }
 
@@ -86,11 +219,18 @@ public class MoodEntryService {
         return moodEntryRepository
             .findById(moodEntryDTO.getId())
             .map(existingMoodEntry -> {
+                Long previousUserId = existingMoodEntry.getUser() != null ? existingMoodEntry.getUser().getId() : null;
+                String previousLogin = existingMoodEntry.getUser() != null ? existingMoodEntry.getUser().getLogin() : null;
+                LocalDate previousDate = existingMoodEntry.getDate();
+                // Without a version from the client, the last write wins as before
+                checkVersion(existingMoodEntry, moodEntryDTO.getVersion());
                 moodEntryMapper.partialUpdate(existingMoodEntry, moodEntryDTO);
 
-                return existingMoodEntry;
+                MoodEntry moodEntry = moodEntryRepository.save(existingMoodEntry);
+                evictStatistics(moodEntry.getUser(), moodEntry.getDate());
+                evictStatisticsIfMoved(previousUserId, previousLogin, previousDate, moodEntry);
+                return moodEntry;
             })
-            .map(moodEntryRepository::save)
             .map(moodEntryMapper::toDto);
     }
 
@@ -134,7 +274,9 @@ public class MoodEntryService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete MoodEntry : {}", id);
+        Optional<MoodEntry> moodEntry = moodEntryRepository.findById(id);
         moodEntryRepository.deleteById(id);
+        moodEntry.ifPresent(deleted -> evictStatistics(deleted.getUser(), deleted.getDate()));
     }
 
     /**
@@ -146,7 +288,35 @@ public class MoodEntryService {
     @Transactional(readOnly = true)
     public Page<MoodEntryDTO> findAllForCurrentUser(Pageable pageable) {
         LOG.debug("Request to get all MoodEntries for current user");
-        return moodEntryRepository.findByUserIsCurrentUserOrderByDateDesc(pageable).map(moodEntryMapper::toDto);
+        return SecurityUtils.getCurrentUserId()
+            .map(userId -> moodEntryRepository.findByUserIdOrderByDateDesc(userId, pageable))
+            .orElseGet(() -> moodEntryRepository.findByUserIsCurrentUserOrderByDateDesc(pageable))
+            .map(moodEntryMapper::toDto);
+    }
+
+    /**
+     * Get the mood entries of the current user preceding a date, newest first, without counting them.
+     *
+     * @param beforeDate the exclusive upper bound of the dates, or {@code null} for the latest entries.
+     * @param size the maximum number of entries.
+     * @return the slice of entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<MoodEntryDTO> findSliceForCurrentUser(LocalDate beforeDate, int size) {
+        LOG.debug("Request to get {} MoodEntries for current user before {}", size, beforeDate);
+        Pageable pageable = PageRequest.of(0, size);
+        Optional<Long> userId = SecurityUtils.getCurrentUserId();
+        Slice<MoodEntry> slice;
+        if (beforeDate == null) {
+            slice = userId
+                .map(id -> moodEntryRepository.findSliceByUserIdOrderByDateDesc(id, pageable))
+                .orElseGet(() -> moodEntryRepository.findSliceByUserIsCurrentUserOrderByDateDesc(pageable));
+        } else {
+            slice = userId
+                .map(id -> moodEntryRepository.findSliceByUserIdAndDateBeforeOrderByDateDesc(id, beforeDate, pageable))
+                .orElseGet(() -> moodEntryRepository.findSliceByUserIsCurrentUserAndDateBeforeOrderByDateDesc(beforeDate, pageable));
+        }
+        return slice.map(moodEntryMapper::toDto);
     }
 
     /**
@@ -158,7 +328,10 @@ public class MoodEntryService {
     @Transactional(readOnly = true)
     public Optional<MoodEntryDTO> findByCurrentUserAndDate(LocalDate date) {
         LOG.debug("Request to get MoodEntry for current user on date : {}", date);
-        return moodEntryRepository.findByUserIsCurrentUserAndDate(date).map(moodEntryMapper::toDto);
+        return SecurityUtils.getCurrentUserId()
+            .map(userId -> moodEntryRepository.findByUserIdAndDate(userId, date))
+            .orElseGet(() -> moodEntryRepository.findByUserIsCurrentUserAndDate(date))
+            .map(moodEntryMapper::toDto);
     }
 
     /**
@@ -171,15 +344,19 @@ public class MoodEntryService {
     @Transactional(readOnly = true)
     public List<MoodEntryDTO> findByCurrentUserAndDateBetween(LocalDate startDate, LocalDate endDate) {
         LOG.debug("Request to get MoodEntries for current user between {} and {}", startDate, endDate);
-        return moodEntryRepository
-            .findByUserIsCurrentUserAndDateBetween(startDate, endDate)
+        return SecurityUtils.getCurrentUserId()
+            .map(userId -> moodEntryRepository.findByUserIdAndDateBetween(userId, startDate, endDate))
+            .orElseGet(() -> moodEntryRepository.findByUserIsCurrentUserAndDateBetween(startDate, endDate))
             .stream()
             .map(moodEntryMapper::toDto)
             .collect(Collectors.toList());
     }
 
     /**
-     * Get mood statistics for current user.
+     * Get mood statistics for current user, from the cache when they were already computed today.
+     * <p>
+     * The statistics are not aggregated in SQL: the trends need the mood of each day of the range, so a grouped
+     * distribution and the window-function streak queries would only add queries to that same read of the index.
      *
      * @param startDate the start date for statistics.
      * @param endDate the end date for statistics.
@@ -188,52 +365,127 @@ public class MoodEntryService {
     @Transactional(readOnly = true)
     public MoodStatisticsDTO getMoodStatisticsForCurrentUser(LocalDate startDate, LocalDate endDate) {
         LOG.debug("Request to get mood statistics for current user between {} and {}", startDate, endDate);
+        LocalDate today = LocalDate.now();
+        // Only the date and mood of each entry are read, in date order, then every figure is computed in one pass
+        Supplier<MoodStatisticsDTO> loader = () ->
+            computeMoodStatistics(
+                SecurityUtils.getCurrentUserId()
+                    .map(userId -> moodEntryRepository.findDateAndMoodByUserIdAndDateBetween(userId, startDate, endDate))
+                    .orElseGet(() -> moodEntryRepository.findDateAndMoodByUserIsCurrentUserAndDateBetween(startDate, endDate)),
+                startDate,
+                endDate,
+                today
+            );
+        return SecurityUtils.getCurrentUserLogin()
+            .map(login -> moodStatisticsCacheService.get(new MoodStatisticsCacheService.Key(login, startDate, endDate, today), loader))
+            .orElseGet(loader);
+    }
+
+    /**
+     * Get the change of the statistics of a user after one of their entries changed: the mood of that date, and the
+     * statistics of the last 7 days and of the current month when they include it.
+     *
+     * @param event the change.
+     * @return the delta.
+     */
+    @Transactional(readOnly = true)
+    public MoodStatisticsDeltaDTO getMoodStatisticsDelta(MoodStatisticsChangedEvent event) {
+        LOG.debug("Request to get the mood statistics delta of {}", event);
+        LocalDate today = LocalDate.now();
+        LocalDate date = event.date();
+        MoodStatisticsDeltaDTO delta = new MoodStatisticsDeltaDTO();
+        delta.setDate(date);
+        delta.setMood(moodEntryRepository.findByUserIdAndDate(event.userId(), date).map(MoodEntry::getMood).orElse(null));
+        if (delta.getMood() != null) {
+            delta.setMoodScore(MoodTrendDTO.scoreOf(delta.getMood()));
+        }
+        LocalDate startOfWeek = today.minusDays(6);
+        if (!date.isBefore(startOfWeek) && !date.isAfter(today)) {
+            delta.setWeek(MoodStatisticsDeltaDTO.Range.of(getMoodStatistics(event, startOfWeek, today, today)));
+        }
+        if (YearMonth.from(date).equals(YearMonth.from(today))) {
+            LocalDate startOfMonth = today.withDayOfMonth(1);
+            LocalDate endOfMonth = today.withDayOfMonth(today.lengthOfMonth());
+            delta.setMonth(MoodStatisticsDeltaDTO.Range.of(getMoodStatistics(event, startOfMonth, endOfMonth, today)));
+        }
+        return delta;
+    }
 
-        List<MoodEntry> entries = moodEntryRepository.findByUserIsCurrentUserAndDateBetween(startDate, endDate);
+    // Not cached: the statistics of the ranges including the changed date were just evicted, and caching them from an
+    // asynchronous listener would race with the next write of the user
+    private MoodStatisticsDTO getMoodStatistics(MoodStatisticsChangedEvent event, LocalDate startDate, LocalDate endDate, LocalDate today) {
+        return computeMoodStatistics(
+            moodEntryRepository.findDateAndMoodByUserIdAndDateBetween(event.userId(), startDate, endDate),
+            startDate,
+            endDate,
+            today
+        );
+    }
 
+    private MoodStatisticsDTO computeMoodStatistics(List<Object[]> rows, LocalDate startDate, LocalDate endDate, LocalDate today) {
         MoodStatisticsDTO statistics = new MoodStatisticsDTO();
         statistics.setStartDate(startDate);
         statistics.setEndDate(endDate);
-        statistics.setTotalEntries((long) entries.size());
 
-        if (entries.isEmpty()) {
-            statistics.setMoodDistribution(new HashMap<>());
+        int totalEntries = rows.size();
+        int[] epochDays = new int[totalEntries];
+        byte[] moods = new byte[totalEntries];
+        for (int i = 0; i < totalEntries; i++) {
+            Object[] row = rows.get(i);
+            epochDays[i] = (int) ((LocalDate) row[0]).toEpochDay();
+            moods[i] = (byte) ((MoodType) row[1]).ordinal();
+        }
+        MoodStatisticsKernel.Result result = MoodStatisticsKernel.compute(
+            epochDays,
+            moods,
+            totalEntries,
+            (int) today.toEpochDay()
+        );
+
+        // Calculate mood distribution
+        Map<MoodType, Long> moodDistribution = new EnumMap<>(MoodType.class);
+        for (MoodType mood : MoodType.values()) {
+            long count = result.getCount(mood.ordinal());
+            if (count > 0) {
+                moodDistribution.put(mood, count);
+            }
+        }
+        statistics.setTotalEntries((long) totalEntries);
+        statistics.setMoodDistribution(moodDistribution);
+
+        if (totalEntries == 0) {
             statistics.setTrends(new ArrayList<>());
             statistics.setAverageMoodScore(0.0);
             statistics.setTrackingCompletionRate(0.0);
             return statistics;
         }
 
-        // Calculate mood distribution
-        Map<MoodType, Long> moodDistribution = entries.stream().collect(Collectors.groupingBy(MoodEntry::getMood, Collectors.counting()));
-        statistics.setMoodDistribution(moodDistribution);
-
         // Find most frequent mood
-        Map.Entry<MoodType, Long> mostFrequent = moodDistribution.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
-
-        if (mostFrequent != null) {
-            statistics.setMostFrequentMood(mostFrequent.getKey());
-            statistics.setMostFrequentMoodCount(mostFrequent.getValue());
-        }
+        MoodType mostFrequentMood = MoodStatisticsKernel.mood(result.getMostFrequentMood());
+        statistics.setMostFrequentMood(mostFrequentMood);
+        statistics.setMostFrequentMoodCount(moodDistribution.get(mostFrequentMood));
 
         // Calculate average mood score
-        double averageScore = entries.stream().mapToInt(entry -> getMoodScore(entry.getMood())).average().orElse(0.0);
-        statistics.setAverageMoodScore(averageScore);
+        statistics.setAverageMoodScore(result.getAverageScore());
 
         // Calculate trends
-        List<MoodTrendDTO> trends = entries
-            .stream()
-            .sorted(Comparator.comparing(MoodEntry::getDate))
-            .map(entry -> new MoodTrendDTO(entry.getDate(), entry.getMood()))
-            .collect(Collectors.toList());
+        List<MoodTrendDTO> trends = new ArrayList<>(totalEntries);
+        for (int i = 0; i < totalEntries; i++) {
+            trends.add(new MoodTrendDTO(LocalDate.ofEpochDay(epochDays[i]), MoodStatisticsKernel.mood(moods[i]), result.getTrendScore(i)));
+        }
         statistics.setTrends(trends);
 
-        // Calculate streaks
-        calculateStreaks(entries, statistics);
+        // Calculate streaks, the current streak only counts if the latest entry is from today or yesterday
+        if (result.getCurrentStreakMood() >= 0) {
+            statistics.setCurrentStreak((long) result.getCurrentStreak());
+            statistics.setCurrentStreakMood(MoodStatisticsKernel.mood(result.getCurrentStreakMood()));
+        }
+        statistics.setLongestStreak((long) result.getLongestStreak());
+        statistics.setLongestStreakMood(MoodStatisticsKernel.mood(result.getLongestStreakMood()));
 
         // Calculate tracking completion rate
         long daysInRange = ChronoUnit.DAYS.between(startDate, endDate) + 1;
-        double completionRate = ((double) entries.size() / daysInRange) * 100;
+        double completionRate = ((double) totalEntries / daysInRange) * 100;
         statistics.setTrackingCompletionRate(completionRate);
 
         return statistics;
@@ -264,84 +516,31 @@ public class MoodEntryService {
         return getMoodStatisticsForCurrentUser(startOfWeek, now);
     }
 
-    private int getMoodScore(MoodType mood) {
-        if (mood == null) {
-            return 0;
-        }
-        switch (mood) {
-            case HAPPY:
-                return 5;
-            case NEUTRAL:
-                return 3;
-            case ANXIOUS:
-                return 2;
-            case SAD:
-                return 1;
-            case ANGRY:
-                return 0;
-            default:
-                return 0;
+    private void evictStatistics(User user, LocalDate date) {
+        if (user == null || (user.getLogin() == null && user.getId() == null)) {
+            return;
         }
+        // A user attached from a DTO may only carry its id
+        String login = user.getLogin() != null ? user.getLogin() : userRepository.findById(user.getId()).map(User::getLogin).orElse(null);
+        statisticsChanged(user.getId(), login, date);
     }
 
-    private void calculateStreaks(List<MoodEntry> entries, MoodStatisticsDTO statistics) {
-        if (entries.isEmpty()) {
+    private void evictStatisticsIfMoved(Long previousUserId, String previousLogin, LocalDate previousDate, MoodEntry moodEntry) {
+        boolean sameUser = moodEntry.getUser() != null && Objects.equals(previousUserId, moodEntry.getUser().getId());
+        if (sameUser && Objects.equals(previousDate, moodEntry.getDate())) {
             return;
         }
+        statisticsChanged(previousUserId, previousLogin, previousDate);
+    }
 
-        // Sort entries by date
-        List<MoodEntry> sortedEntries = entries.stream().sorted(Comparator.comparing(MoodEntry::getDate)).collect(Collectors.toList());
-
-        // Calculate current streak
-        MoodEntry latestEntry = sortedEntries.get(sortedEntries.size() - 1);
-        LocalDate currentDate = LocalDate.now();
-        LocalDate latestEntryDate = latestEntry.getDate();
-
-        if (latestEntryDate.equals(currentDate) || latestEntryDate.equals(currentDate.minusDays(1))) {
-            // Calculate current streak
-            long currentStreak = 1;
-            MoodType currentMood = latestEntry.getMood();
-
-            for (int i = sortedEntries.size() - 2; i >= 0; i--) {
-                MoodEntry entry = sortedEntries.get(i);
-                if (entry.getMood() == currentMood && entry.getDate().equals(latestEntryDate.minusDays(currentStreak))) {
-                    currentStreak++;
-                } else {
-                    break;
-                }
-            }
-
-            statistics.setCurrentStreak(currentStreak);
-            statistics.setCurrentStreakMood(currentMood);
-        }
-
-        // Calculate longest streak
-        long longestStreak = 1;
-        MoodType longestStreakMood = sortedEntries.get(0).getMood();
-        long tempStreak = 1;
-        MoodType tempMood = sortedEntries.get(0).getMood();
-
-        for (int i = 1; i < sortedEntries.size(); i++) {
-            MoodEntry entry = sortedEntries.get(i);
-            if (entry.getMood() == tempMood) {
-                tempStreak++;
-            } else {
-                if (tempStreak > longestStreak) {
-                    longestStreak = tempStreak;
-                    longestStreakMood = tempMood;
-                }
-                tempStreak = 1;
-                tempMood = entry.getMood();
-            }
-        }
-
-        // Check if the last streak is the longest
-        if (tempStreak > longestStreak) {
-            longestStreak = tempStreak;
-            longestStreakMood = tempMood;
+    private void statisticsChanged(Long userId, String login, LocalDate date) {
+        moodStatisticsCacheService.evict(userId, login, date);
+        if (userId != null && login != null && date != null) {
+            eventPublisher.publishEvent(new MoodStatisticsChangedEvent(userId, login, date));
         }
+    }
 
-        statistics.setLongestStreak(longestStreak);
-        statistics.setLongestStreakMood(longestStreakMood);
+    static int getMoodScore(MoodType mood) {
+        return MoodStatisticsKernel.score(mood);
     }
 }
@@ -0,0 +1,285 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.cache.CacheInvalidation;
+import com.mycompany.myapp.cache.CacheInvalidationBus;
+import com.mycompany.myapp.service.dto.MoodStatisticsDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service caching {@link MoodStatisticsDTO} by user and date range.
+ * <p>
+ * Writes invalidate only the cached ranges of the same user containing the written date, on every node when a
+ * {@link CacheInvalidationBus} is enabled: as the nodes cache different ranges, the written date is broadcast rather than
+ * the evicted keys. Instead of looking the cached ranges up, a write stamps its user and date with the next value of a
+ * sequence, in a fixed number of slots. Cached statistics are served while no day of their range was stamped after
+ * they started to be computed, so statistics computed while a write was in progress are never served once it is done.
+ * <p>
+ * The dates written on the other nodes are published again here as {@link MoodStatisticsChangedEvent}, once received.
+ */
+@Service
+public class MoodStatisticsCacheService {
+
+    public static final String MOOD_STATISTICS_CACHE = "moodStatistics";
+
+    public static final String CACHE_REQUESTS_METER_NAME = "mood.statistics.cache.requests";
+    public static final String CACHE_REQUESTS_METER_DESCRIPTION = "Indicates the mood statistics requests answered from the cache or not.";
+    public static final String CACHE_REQUESTS_METER_RESULT_DIMENSION = "result";
+
+    private static final Logger LOG = LoggerFactory.getLogger(MoodStatisticsCacheService.class);
+
+    // a power of two, users and dates sharing a slot only cost extra misses
+    private static final int WRITE_SLOTS = 4096;
+
+    private final CacheManager cacheManager;
+
+    private final Counter hitCounter;
+
+    private final Counter missCounter;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicLong writeSequence = new AtomicLong();
+
+    private final AtomicLongArray writeStamps = new AtomicLongArray(WRITE_SLOTS);
+
+    public MoodStatisticsCacheService(
+        CacheManager cacheManager,
+        MeterRegistry registry,
+        ObjectProvider<CacheInvalidationBus> cacheInvalidationBus,
+        ApplicationEventPublisher eventPublisher
+    ) {
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.hitCounter = cacheRequestsCounterForResultBuilder("hit").register(registry);
+        this.missCounter = cacheRequestsCounterForResultBuilder("miss").register(registry);
+        this.cacheInvalidationBus = cacheInvalidationBus.getIfAvailable();
+        if (this.cacheInvalidationBus != null) {
+            this.cacheInvalidationBus.subscribe(this::invalidate);
+        }
+    }
+
+    private Counter.Builder cacheRequestsCounterForResultBuilder(String result) {
+        return Counter.builder(CACHE_REQUESTS_METER_NAME)
+            .description(CACHE_REQUESTS_METER_DESCRIPTION)
+            .tag(CACHE_REQUESTS_METER_RESULT_DIMENSION, result);
+    }
+
+    /**
+     * Get statistics from the cache, or compute and cache them.
+     *
+     * @param key the user and date range.
+     * @param loader computes the statistics, called on a miss.
+     * @return the statistics.
+     */
+    public MoodStatisticsDTO get(Key key, Supplier<MoodStatisticsDTO> loader) {
+        Cache cache = getCache();
+        Stamped cached = cache.get(key, Stamped.class);
+        if (cached != null && isUnchangedSince(key, cached.sequence)) {
+            hitCounter.increment();
+            return cached.statistics;
+        }
+        missCounter.increment();
+        // read before the loader, so a write committed while it runs is seen as later
+        long sequence = writeSequence.get();
+        MoodStatisticsDTO statistics = loader.get();
+        cache.put(key, new Stamped(statistics, sequence));
+        return statistics;
+    }
+
+    /**
+     * Invalidate the cached statistics of a user whose range contains a date.
+     * <p>
+     * Invalidates again once the current transaction completes, as statistics computed in the meantime may have been
+     * computed from uncommitted or rolled back data.
+     *
+     * @param userId the id of the user, broadcast with the date for the other nodes to publish the change.
+     * @param login the login of the user.
+     * @param date the date of the written entry.
+     */
+    public void evict(Long userId, String login, LocalDate date) {
+        if (login == null || date == null) {
+            return;
+        }
+        stamp(login, date);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        stamp(login, date);
+                    }
+                }
+            );
+        }
+        if (cacheInvalidationBus != null) {
+            cacheInvalidationBus.publishAfterCommit(CacheInvalidation.evict(MOOD_STATISTICS_CACHE, new WrittenDate(userId, login, date)));
+        }
+    }
+
+    // on the thread polling the bus: the listeners of the event compute on their own
+    private void invalidate(CacheInvalidation invalidation) {
+        if (MOOD_STATISTICS_CACHE.equals(invalidation.getCacheName()) && invalidation.getKey() instanceof WrittenDate writtenDate) {
+            stamp(writtenDate.login, writtenDate.date);
+            if (writtenDate.userId != null) {
+                eventPublisher.publishEvent(new MoodStatisticsChangedEvent(writtenDate.userId, writtenDate.login, writtenDate.date));
+            }
+        }
+    }
+
+    private void stamp(String login, LocalDate date) {
+        LOG.debug("Invalidating the cached mood statistics of user {} containing {}", login, date);
+        long sequence = writeSequence.incrementAndGet();
+        writeStamps.accumulateAndGet(slot(login.hashCode(), date.toEpochDay()), sequence, Math::max);
+    }
+
+    private boolean isUnchangedSince(Key key, long sequence) {
+        int loginHash = key.login.hashCode();
+        for (long day = key.startDate.toEpochDay(), endDay = key.endDate.toEpochDay(); day <= endDay; day++) {
+            if (writeStamps.get(slot(loginHash, day)) > sequence) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int slot(int loginHash, long epochDay) {
+        int hash = loginHash * 0x9E3779B9 + Long.hashCode(epochDay);
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        return hash & (WRITE_SLOTS - 1);
+    }
+
+    private Cache getCache() {
+        return Objects.requireNonNull(cacheManager.getCache(MOOD_STATISTICS_CACHE));
+    }
+
+    /**
+     * Statistics cached with the value of the write sequence when they started to be computed.
+     */
+    static final class Stamped implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final MoodStatisticsDTO statistics;
+        private final long sequence;
+
+        Stamped(MoodStatisticsDTO statistics, long sequence) {
+            this.statistics = statistics;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * Date written by a user, broadcast to evict the cached statistics containing it on the other nodes.
+     */
+    static final class WrittenDate implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Long userId;
+        private final String login;
+        private final LocalDate date;
+
+        WrittenDate(Long userId, String login, LocalDate date) {
+            this.userId = userId;
+            this.login = login;
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof WrittenDate)) {
+                return false;
+            }
+            WrittenDate writtenDate = (WrittenDate) o;
+            return Objects.equals(userId, writtenDate.userId) && login.equals(writtenDate.login) && date.equals(writtenDate.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, login, date);
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "WrittenDate{" +
+                "userId=" + userId +
+                ", login='" + login + "'" +
+                ", date='" + date + "'" +
+                "}";
+        }
+    }
+
+    /**
+     * Cache key of the statistics of a user between two dates.
+     * <p>
+     * The current day is part of the key because the current streak depends on it.
+     */
+    public static final class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String login;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final LocalDate today;
+
+        public Key(String login, LocalDate startDate, LocalDate endDate, LocalDate today) {
+            this.login = login;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.today = today;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return login.equals(key.login) && startDate.equals(key.startDate) && endDate.equals(key.endDate) && today.equals(key.today);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(login, startDate, endDate, today);
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "Key{" +
+                "login='" + login + "'" +
+                ", startDate='" + startDate + "'" +
+                ", endDate='" + endDate + "'" +
+                ", today='" + today + "'" +
+                "}";
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.mycompany.myapp.service;
+
+import java.time.LocalDate;
+
+/**
+ * Published by {@link MoodEntryService} when an entry of a user is written or deleted, so that their statistics including
+ * that date changed, and by {@link MoodStatisticsCacheService} when such a write of another node is received.
+ *
+ * @param userId the id of the user.
+ * @param login the login of the user.
+ * @param date the date of the entry.
+ */
+public record MoodStatisticsChangedEvent(Long userId, String login, LocalDate date) {}
@@ -0,0 +1,182 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.enumeration.MoodType;
+import com.mycompany.myapp.service.dto.MoodTrendDTO;
+
+/**
+ * Single-pass computation of mood statistics over primitive arrays.
+ * <p>
+ * Entries are given as parallel arrays of epoch days and {@link MoodType} ordinals, sorted by day
+ * with at most one entry per day, as returned by the per-user date range queries. Nothing is boxed
+ * and nothing is sorted, so the work is one linear scan.
+ */
+public final class MoodStatisticsKernel {
+
+    private static final MoodType[] MOODS = MoodType.values();
+
+    /**
+     * Score of each mood, indexed by ordinal, as given by {@link MoodTrendDTO#scoreOf(MoodType)}.
+     */
+    private static final int[] SCORES = new int[MOODS.length];
+
+    static {
+        for (MoodType mood : MOODS) {
+            SCORES[mood.ordinal()] = MoodTrendDTO.scoreOf(mood);
+        }
+    }
+
+    private MoodStatisticsKernel() {}
+
+    /**
+     * Get the score of a mood.
+     *
+     * @param mood the mood, may be {@code null}.
+     * @return the score, {@code 0} for {@code null}.
+     */
+    public static int score(MoodType mood) {
+        return mood == null ? 0 : SCORES[mood.ordinal()];
+    }
+
+    /**
+     * Get the mood of an ordinal.
+     *
+     * @param ordinal the ordinal.
+     * @return the mood.
+     */
+    public static MoodType mood(int ordinal) {
+        return MOODS[ordinal];
+    }
+
+    /**
+     * Compute the statistics of the first {@code length} entries.
+     *
+     * @param epochDays the days of the entries, ascending and distinct.
+     * @param moods the mood ordinals of the entries.
+     * @param length the number of entries to read.
+     * @param today the current epoch day, a current streak must end today or yesterday.
+     * @return the statistics.
+     */
+    public static Result compute(int[] epochDays, byte[] moods, int length, int today) {
+        Result result = new Result(length);
+        if (length == 0) {
+            return result;
+        }
+
+        long[] counts = result.counts;
+        int[] trendScores = result.trendScores;
+        long scoreSum = 0;
+        int previousMood = -1;
+        int previousDay = Integer.MIN_VALUE;
+        // entries in a row with the same mood, and days in a row with the same mood
+        int run = 0;
+        int dayRun = 0;
+        int longestStreak = 0;
+        int longestStreakMood = -1;
+
+        for (int i = 0; i < length; i++) {
+            int mood = moods[i];
+            int day = epochDays[i];
+            int score = SCORES[mood];
+            counts[mood]++;
+            scoreSum += score;
+            trendScores[i] = score;
+
+            if (mood == previousMood) {
+                run++;
+                dayRun = day == previousDay + 1 ? dayRun + 1 : 1;
+            } else {
+                // the earliest run wins on ties
+                if (run > longestStreak) {
+                    longestStreak = run;
+                    longestStreakMood = previousMood;
+                }
+                run = 1;
+                dayRun = 1;
+            }
+            previousMood = mood;
+            previousDay = day;
+        }
+        if (run > longestStreak) {
+            longestStreak = run;
+            longestStreakMood = previousMood;
+        }
+
+        result.scoreSum = scoreSum;
+        result.longestStreak = longestStreak;
+        result.longestStreakMood = longestStreakMood;
+        if (previousDay == today || previousDay == today - 1) {
+            result.currentStreak = dayRun;
+            result.currentStreakMood = previousMood;
+        }
+        return result;
+    }
+
+    /**
+     * The statistics computed by {@link #compute(int[], byte[], int, int)}, moods are given as ordinals, {@code -1} if absent.
+     */
+    public static final class Result {
+
+        private final long[] counts = new long[MOODS.length];
+        private final int[] trendScores;
+        private long scoreSum;
+        private int currentStreak;
+        private int currentStreakMood = -1;
+        private int longestStreak;
+        private int longestStreakMood = -1;
+
+        private Result(int length) {
+            this.trendScores = new int[length];
+        }
+
+        public int getTotal() {
+            return trendScores.length;
+        }
+
+        public long getCount(int mood) {
+            return counts[mood];
+        }
+
+        public long getScoreSum() {
+            return scoreSum;
+        }
+
+        public double getAverageScore() {
+            return trendScores.length == 0 ? 0.0 : (double) scoreSum / trendScores.length;
+        }
+
+        /**
+         * Get the most frequent mood, the lowest ordinal on ties.
+         *
+         * @return the mood ordinal, or {@code -1} without entries.
+         */
+        public int getMostFrequentMood() {
+            int mostFrequent = -1;
+            for (int mood = 0; mood < counts.length; mood++) {
+                if (counts[mood] > 0 && (mostFrequent == -1 || counts[mood] > counts[mostFrequent])) {
+                    mostFrequent = mood;
+                }
+            }
+            return mostFrequent;
+        }
+
+        public int getTrendScore(int index) {
+            return trendScores[index];
+        }
+
+        public int getCurrentStreak() {
+            return currentStreak;
+        }
+
+        public int getCurrentStreakMood() {
+            return currentStreakMood;
+        }
+
+        public int getLongestStreak() {
+            return longestStreak;
+        }
+
+        public int getLongestStreakMood() {
+            return longestStreakMood;
+        }
+    }
+}
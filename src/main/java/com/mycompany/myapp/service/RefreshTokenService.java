@@ -0,0 +1,142 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.RefreshToken;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.repository.RefreshTokenRepository;
+import com.mycompany.myapp.repository.UserRepository;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service issuing and rotating the refresh tokens.
+ * <p>
+ * A refresh token is 32 random bytes. It is stored as its HMAC-SHA256, keyed from the JWT secret, which is as safe as
+ * bcrypt for a random value and costs microseconds rather than tens of milliseconds. Each use deletes the token and
+ * issues a new one.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private static final int TOKEN_BYTES = 32;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final UserRepository userRepository;
+
+    private final SecretKeySpec hashKey;
+
+    private final Duration validity;
+
+    public RefreshTokenService(
+        RefreshTokenRepository refreshTokenRepository,
+        UserRepository userRepository,
+        @Value("${jhipster.security.authentication.jwt.base64-secret}") String jwtSecret,
+        @Value("${application.refresh-token.validity:P30D}") Duration validity
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.hashKey = deriveHashKey(jwtSecret);
+        this.validity = validity;
+    }
+
+    /**
+     * Issue a new refresh token.
+     *
+     * @param userId the id of the user.
+     * @return the token, to give to the client.
+     */
+    public String createToken(Long userId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = ENCODER.encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken().userId(userId).tokenHash(hash(token)).expiresAt(Instant.now().plus(validity)));
+        return token;
+    }
+
+    /**
+     * Exchange a refresh token for a new one.
+     *
+     * @param token the refresh token sent by the client.
+     * @return the activated user of the token and the new token, or empty if the token is unknown, expired or already used.
+     */
+    public Optional<RotatedToken> rotateToken(String token) {
+        return refreshTokenRepository
+            .findOneByTokenHash(hash(token))
+            .filter(refreshToken -> refreshToken.getExpiresAt().isAfter(Instant.now()))
+            // only one of the concurrent uses of a token deletes it
+            .filter(refreshToken -> refreshTokenRepository.deleteOneById(refreshToken.getId()) == 1)
+            .flatMap(refreshToken -> userRepository.findOneWithAuthoritiesById(refreshToken.getUserId()))
+            .filter(User::isActivated)
+            .map(user -> new RotatedToken(user, createToken(user.getId())));
+    }
+
+    /**
+     * Revoke every refresh token of a user, as when the password changes or the user is deleted.
+     *
+     * @param userId the id of the user.
+     */
+    public void revokeTokens(Long userId) {
+        int revoked = refreshTokenRepository.deleteByUserId(userId);
+        LOG.debug("Revoked {} refresh tokens of user {}", revoked, userId);
+    }
+
+    /**
+     * Expired refresh tokens are deleted every day, at 02:00 (am).
+     */
+    @Scheduled(cron = "0 0 2 * * ?")
+    public void removeExpiredTokens() {
+        int removed = refreshTokenRepository.deleteByExpiresAtBefore(Instant.now());
+        LOG.debug("Deleted {} expired refresh tokens", removed);
+    }
+
+    String hash(String token) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hashKey);
+            return ENCODER.encodeToString(mac.doFinal(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot hash the refresh token", e);
+        }
+    }
+
+    // a key of its own, so that the hashes cannot be mistaken for JWT signatures
+    private static SecretKeySpec deriveHashKey(String jwtSecret) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(Base64.getDecoder().decode(jwtSecret), HMAC_ALGORITHM));
+            return new SecretKeySpec(mac.doFinal("refresh-token".getBytes(StandardCharsets.US_ASCII)), HMAC_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot derive the refresh token key", e);
+        }
+    }
+
+    /**
+     * A refresh token exchanged for a new one.
+     *
+     * @param user the user of the token, with the authorities.
+     * @param refreshToken the new refresh token.
+     */
+    public record RotatedToken(User user, String refreshToken) {}
+}
@@ -39,17 +39,21 @@ public class UserService {
 
     private final AuthorityRepository authorityRepository;
 
+    private final RefreshTokenService refreshTokenService;
+
     private final CacheManager cacheManager;
 
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
+        RefreshTokenService refreshTokenService,
         CacheManager cacheManager
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
+        this.refreshTokenService = refreshTokenService;
         this.cacheManager = cacheManager;
     }
 
@@ -76,6 +80,7 @@ public class UserService {
                 user.setPassword(passwordEncoder.encode(newPassword));
                 user.setResetKey(null);
                 user.setResetDate(null);
+                refreshTokenService.revokeTokens(user.getId());
                 this.clearUserCaches(user);
                 return user;
             });
@@ -222,6 +227,7 @@ public class UserService {
         userRepository
             .findOneByLogin(login)
             .ifPresent(user -> {
+                refreshTokenService.revokeTokens(user.getId());
                 userRepository.delete(user);
                 this.clearUserCaches(user);
                 LOG.debug("Deleted User: {}", user);
@@ -265,6 +271,7 @@ public class UserService {
                 }
                 String encryptedPassword = passwordEncoder.encode(newPassword);
                 user.setPassword(encryptedPassword);
+                refreshTokenService.revokeTokens(user.getId());
                 this.clearUserCaches(user);
                 LOG.debug("Changed password for User: {}", user);
             });
@@ -23,6 +23,8 @@ public class MoodEntryDTO implements Serializable {
     @NotNull
     private UserDTO user;
 
+    private Long version;
+
     public Long getId() {
         return id;
     }
@@ -55,6 +57,14 @@ public class MoodEntryDTO implements Serializable {
         this.user = user;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -84,6 +94,7 @@ public class MoodEntryDTO implements Serializable {
             ", date='" + getDate() + "'" +
             ", mood='" + getMood() + "'" +
             ", user=" + getUser() +
+            ", version=" + getVersion() +
             "}";
     }
 }
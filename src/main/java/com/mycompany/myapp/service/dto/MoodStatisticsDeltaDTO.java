@@ -0,0 +1,210 @@
+package com.mycompany.myapp.service.dto;
+
+import com.mycompany.myapp.domain.enumeration.MoodType;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * A DTO for the change of the mood statistics of a user after one of their entries changed.
+ * <p>
+ * It holds the mood of the changed day with its score, for the trends, and the new figures of the last week and current month, each only when it
+ * includes that day.
+ */
+public class MoodStatisticsDeltaDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private LocalDate date;
+    private MoodType mood;
+    private Integer moodScore;
+    private Range week;
+    private Range month;
+
+    public MoodStatisticsDeltaDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public MoodType getMood() {
+        return mood;
+    }
+
+    public void setMood(MoodType mood) {
+        this.mood = mood;
+    }
+
+    public Integer getMoodScore() {
+        return moodScore;
+    }
+
+    public void setMoodScore(Integer moodScore) {
+        this.moodScore = moodScore;
+    }
+
+    public Range getWeek() {
+        return week;
+    }
+
+    public void setWeek(Range week) {
+        this.week = week;
+    }
+
+    public Range getMonth() {
+        return month;
+    }
+
+    public void setMonth(Range month) {
+        this.month = month;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MoodStatisticsDeltaDTO{" +
+            "date='" + getDate() + "'" +
+            ", mood='" + getMood() + "'" +
+            ", moodScore=" + getMoodScore() +
+            ", week=" + getWeek() +
+            ", month=" + getMonth() +
+            "}";
+    }
+
+    /**
+     * The figures of a range of dates, as in {@link MoodStatisticsDTO} but without the trends.
+     */
+    public static class Range implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private LocalDate startDate;
+        private LocalDate endDate;
+        private Long totalEntries;
+        private Map<MoodType, Long> moodDistribution;
+        private Double averageMoodScore;
+        private Long currentStreak;
+        private MoodType currentStreakMood;
+        private Long longestStreak;
+        private MoodType longestStreakMood;
+        private Double trackingCompletionRate;
+
+        public Range() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public static Range of(MoodStatisticsDTO statistics) {
+            Range range = new Range();
+            range.setStartDate(statistics.getStartDate());
+            range.setEndDate(statistics.getEndDate());
+            range.setTotalEntries(statistics.getTotalEntries());
+            range.setMoodDistribution(statistics.getMoodDistribution());
+            range.setAverageMoodScore(statistics.getAverageMoodScore());
+            range.setCurrentStreak(statistics.getCurrentStreak());
+            range.setCurrentStreakMood(statistics.getCurrentStreakMood());
+            range.setLongestStreak(statistics.getLongestStreak());
+            range.setLongestStreakMood(statistics.getLongestStreakMood());
+            range.setTrackingCompletionRate(statistics.getTrackingCompletionRate());
+            return range;
+        }
+
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+
+        public void setStartDate(LocalDate startDate) {
+            this.startDate = startDate;
+        }
+
+        public LocalDate getEndDate() {
+            return endDate;
+        }
+
+        public void setEndDate(LocalDate endDate) {
+            this.endDate = endDate;
+        }
+
+        public Long getTotalEntries() {
+            return totalEntries;
+        }
+
+        public void setTotalEntries(Long totalEntries) {
+            this.totalEntries = totalEntries;
+        }
+
+        public Map<MoodType, Long> getMoodDistribution() {
+            return moodDistribution;
+        }
+
+        public void setMoodDistribution(Map<MoodType, Long> moodDistribution) {
+            this.moodDistribution = moodDistribution;
+        }
+
+        public Double getAverageMoodScore() {
+            return averageMoodScore;
+        }
+
+        public void setAverageMoodScore(Double averageMoodScore) {
+            this.averageMoodScore = averageMoodScore;
+        }
+
+        public Long getCurrentStreak() {
+            return currentStreak;
+        }
+
+        public void setCurrentStreak(Long currentStreak) {
+            this.currentStreak = currentStreak;
+        }
+
+        public MoodType getCurrentStreakMood() {
+            return currentStreakMood;
+        }
+
+        public void setCurrentStreakMood(MoodType currentStreakMood) {
+            this.currentStreakMood = currentStreakMood;
+        }
+
+        public Long getLongestStreak() {
+            return longestStreak;
+        }
+
+        public void setLongestStreak(Long longestStreak) {
+            this.longestStreak = longestStreak;
+        }
+
+        public MoodType getLongestStreakMood() {
+            return longestStreakMood;
+        }
+
+        public void setLongestStreakMood(MoodType longestStreakMood) {
+            this.longestStreakMood = longestStreakMood;
+        }
+
+        public Double getTrackingCompletionRate() {
+            return trackingCompletionRate;
+        }
+
+        public void setTrackingCompletionRate(Double trackingCompletionRate) {
+            this.trackingCompletionRate = trackingCompletionRate;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "Range{" +
+                "startDate='" + getStartDate() + "'" +
+                ", endDate='" + getEndDate() + "'" +
+                ", totalEntries=" + getTotalEntries() +
+                ", moodDistribution='" + getMoodDistribution() + "'" +
+                ", currentStreak=" + getCurrentStreak() +
+                ", longestStreak=" + getLongestStreak() +
+                "}";
+        }
+    }
+}
@@ -20,9 +20,13 @@ public class MoodTrendDTO implements Serializable {
     }
 
     public MoodTrendDTO(LocalDate date, MoodType mood) {
+        this(date, mood, scoreOf(mood));
+    }
+
+    public MoodTrendDTO(LocalDate date, MoodType mood, int moodScore) {
         this.date = date;
         this.mood = mood;
-        this.moodScore = getMoodScore(mood);
+        this.moodScore = moodScore;
     }
 
     public LocalDate getDate() {
@@ -39,7 +43,7 @@ public class MoodTrendDTO implements Serializable {
 
     public void setMood(MoodType mood) {
         this.mood = mood;
-        this.moodScore = getMoodScore(mood);
+        this.moodScore = scoreOf(mood);
     }
 
     public Integer getMoodScore() {
@@ -50,24 +54,23 @@ public class MoodTrendDTO implements Serializable {
         this.moodScore = moodScore;
     }
 
-    private Integer getMoodScore(MoodType mood) {
+    /**
+     * Get the score of a mood.
+     *
+     * @param mood the mood, may be {@code null}.
+     * @return the score, {@code 0} for {@code null}.
+     */
+    public static int scoreOf(MoodType mood) {
         if (mood == null) {
             return 0;
         }
-        switch (mood) {
-            case HAPPY:
-                return 5;
-            case NEUTRAL:
-                return 3;
-            case ANXIOUS:
-                return 2;
-            case SAD:
-                return 1;
-            case ANGRY:
-                return 0;
-            default:
-                return 0;
-        }
+        return switch (mood) {
+            case HAPPY -> 5;
+            case NEUTRAL -> 3;
+            case ANXIOUS -> 2;
+            case SAD -> 1;
+            case ANGRY -> 0;
+        };
     }
 
     @Override
@@ -14,6 +14,10 @@ public interface MoodEntryMapper extends EntityMapper<MoodEntryDTO, MoodEntry> {
     @Mapping(target = "user", source = "user", qualifiedByName = "userLogin")
     MoodEntryDTO toDto(MoodEntry s);
 
+    @Named("withoutUser")
+    @Mapping(target = "user", ignore = true)
+    MoodEntryDTO toDtoWithoutUser(MoodEntry s);
+
     @Named("userLogin")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
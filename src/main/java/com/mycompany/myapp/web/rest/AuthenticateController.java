@@ -4,11 +4,18 @@ import static com.mycompany.myapp.security.SecurityUtils.AUTHORITIES_CLAIM;
 import static com.mycompany.myapp.security.SecurityUtils.JWT_ALGORITHM;
 import static com.mycompany.myapp.security.SecurityUtils.USER_ID_CLAIM;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.mycompany.myapp.security.DomainUserDetailsService.UserWithId;
+import com.mycompany.myapp.security.LoginThrottle;
+import com.mycompany.myapp.service.RefreshTokenService;
+import com.mycompany.myapp.service.RefreshTokenService.RotatedToken;
 import com.mycompany.myapp.web.rest.vm.LoginVM;
+import com.mycompany.myapp.web.rest.vm.RefreshTokenVM;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import java.security.Principal;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.stream.Collectors;
@@ -18,6 +25,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.core.Authentication;
@@ -46,26 +54,91 @@ public class AuthenticateController {
     @Value("${jhipster.security.authentication.jwt.token-validity-in-seconds-for-remember-me:0}")
     private long tokenValidityInSecondsForRememberMe;
 
+    @Value("${application.refresh-token.access-token-validity:PT15M}")
+    private Duration refreshedTokenValidity;
+
+    @Value("${application.login-throttle.trusted-proxies:0}")
+    private int trustedProxies;
+
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public AuthenticateController(JwtEncoder jwtEncoder, AuthenticationManagerBuilder authenticationManagerBuilder) {
+    private final RefreshTokenService refreshTokenService;
+
+    private final LoginThrottle loginThrottle;
+
+    public AuthenticateController(
+        JwtEncoder jwtEncoder,
+        AuthenticationManagerBuilder authenticationManagerBuilder,
+        RefreshTokenService refreshTokenService,
+        LoginThrottle loginThrottle
+    ) {
         this.jwtEncoder = jwtEncoder;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.refreshTokenService = refreshTokenService;
+        this.loginThrottle = loginThrottle;
     }
 
+    /**
+     * {@code POST /authenticate} : authenticate a user with their password.
+     * <p>
+     * Attempts beyond the throttle of the login or of the client IP are rejected before the password is checked.
+     *
+     * @param loginVM the credentials.
+     * @param request the request, giving the client IP.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the tokens in body,
+     * or with status {@code 401 (Unauthorized)} if the credentials are wrong,
+     * or with status {@code 429 (Too Many Requests)} if throttled.
+     */
     @PostMapping("/authenticate")
-    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM) {
+    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM, HttpServletRequest request) {
+        loginThrottle.acquire(loginVM.getUsername(), clientIp(request));
         UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
             loginVM.getUsername(),
             loginVM.getPassword()
         );
 
         Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
+        loginThrottle.reset(loginVM.getUsername());
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = this.createToken(authentication, loginVM.isRememberMe());
+        String refreshToken = authentication.getPrincipal() instanceof UserWithId user
+            ? refreshTokenService.createToken(user.getId())
+            : null;
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.setBearerAuth(jwt);
-        return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
+        return new ResponseEntity<>(new JWTToken(jwt, refreshToken), httpHeaders, HttpStatus.OK);
+    }
+
+    // The entries before the one appended by the farthest trusted proxy are sent by the client, which can forge them
+    private String clientIp(HttpServletRequest request) {
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (trustedProxies == 0 || forwardedFor == null) {
+            return request.getRemoteAddr();
+        }
+        String[] addresses = forwardedFor.split(",");
+        return addresses[Math.max(0, addresses.length - trustedProxies)].trim();
+    }
+
+    /**
+     * {@code POST /authenticate/refresh} : exchange a refresh token for a new access token and a new refresh token.
+     * <p>
+     * Neither the password nor the user details service are involved, and the access token is short-lived.
+     *
+     * @param refreshTokenVM the refresh token, which cannot be used again.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the tokens in body,
+     * or with status {@code 401 (Unauthorized)} if the refresh token is unknown, expired or already used.
+     */
+    @PostMapping("/authenticate/refresh")
+    public ResponseEntity<JWTToken> refresh(@Valid @RequestBody RefreshTokenVM refreshTokenVM) {
+        RotatedToken rotated = refreshTokenService
+            .rotateToken(refreshTokenVM.getRefreshToken())
+            .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        UserWithId user = UserWithId.fromUser(rotated.user());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        String jwt = this.createToken(authentication, Instant.now().plus(refreshedTokenValidity));
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.setBearerAuth(jwt);
+        return new ResponseEntity<>(new JWTToken(jwt, rotated.refreshToken()), httpHeaders, HttpStatus.OK);
     }
 
     /**
@@ -81,8 +154,6 @@ public class AuthenticateController {
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
-        String authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(" "));
-
         Instant now = Instant.now();
         Instant validity;
         if (rememberMe) {
@@ -90,10 +161,15 @@ public class AuthenticateController {
         } else {
             validity = now.plus(this.tokenValidityInSeconds, ChronoUnit.SECONDS);
         }
+        return createToken(authentication, validity);
+    }
+
+    private String createToken(Authentication authentication, Instant validity) {
+        String authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(" "));
 
         // @formatter:off
         JwtClaimsSet.Builder builder = JwtClaimsSet.builder()
-            .issuedAt(now)
+            .issuedAt(Instant.now())
             .expiresAt(validity)
             .subject(authentication.getName())
             .claim(AUTHORITIES_CLAIM, authorities);
@@ -112,8 +188,11 @@ public class AuthenticateController {
 
         private String idToken;
 
-        JWTToken(String idToken) {
+        private String refreshToken;
+
+        JWTToken(String idToken, String refreshToken) {
             this.idToken = idToken;
+            this.refreshToken = refreshToken;
         }
 
         @JsonProperty("id_token")
@@ -124,5 +203,15 @@ public class AuthenticateController {
         void setIdToken(String idToken) {
             this.idToken = idToken;
         }
+
+        @JsonProperty("refresh_token")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        String getRefreshToken() {
+            return refreshToken;
+        }
+
+        void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
     }
 }
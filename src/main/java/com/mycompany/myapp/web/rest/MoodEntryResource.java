@@ -1,16 +1,22 @@
 package com.mycompany.myapp.web.rest;
 
 import com.mycompany.myapp.repository.MoodEntryRepository;
+import com.mycompany.myapp.service.MoodEntryExportService;
 import com.mycompany.myapp.service.MoodEntryService;
 import com.mycompany.myapp.service.dto.MoodEntryDTO;
 import com.mycompany.myapp.service.dto.MoodStatisticsDTO;
 import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -19,6 +25,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -38,6 +46,8 @@ public class MoodEntryResource {
 
     private static final String ENTITY_NAME = "moodEntry";
 
+    private static final int MAX_SCROLL_SIZE = 100;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -45,9 +55,16 @@ public class MoodEntryResource {
 
     private final MoodEntryRepository moodEntryRepository;
 
-    public MoodEntryResource(MoodEntryService moodEntryService, MoodEntryRepository moodEntryRepository) {
+    private final MoodEntryExportService moodEntryExportService;
+
+    public MoodEntryResource(
+        MoodEntryService moodEntryService,
+        MoodEntryRepository moodEntryRepository,
+        MoodEntryExportService moodEntryExportService
+    ) {
         this.moodEntryService = moodEntryService;
         this.moodEntryRepository = moodEntryRepository;
+        this.moodEntryExportService = moodEntryExportService;
     }
 
     /**
@@ -110,6 +127,7 @@ public class MoodEntryResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated moodEntryDTO,
      * or with status {@code 400 (Bad Request)} if the moodEntryDTO is not valid,
      * or with status {@code 404 (Not Found)} if the moodEntryDTO is not found,
+     * or with status {@code 409 (Conflict)} if the moodEntryDTO holds a version and the moodEntry was changed since,
      * or with status {@code 500 (Internal Server Error)} if the moodEntryDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -138,6 +156,40 @@ public class MoodEntryResource {
         );
     }
 
+    /**
+     * {@code PATCH  /mood-entries/my/:id} : Sets the mood of an entry of the current user, at the version the client read.
+     *
+     * @param id the id of the moodEntryDTO to update.
+     * @param moodEntryDTO the moodEntryDTO holding the mood and the version read, other fields are ignored.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated moodEntryDTO,
+     * or with status {@code 400 (Bad Request)} if the moodEntryDTO is not valid,
+     * or with status {@code 404 (Not Found)} if the current user has no such moodEntry,
+     * or with status {@code 409 (Conflict)} if the moodEntry was changed since that version.
+     */
+    @PatchMapping(value = "/my/{id}", consumes = { "application/json", "application/merge-patch+json" })
+    public ResponseEntity<MoodEntryDTO> partialUpdateMyMoodEntry(
+        @PathVariable(value = "id", required = false) final Long id,
+        @NotNull @RequestBody MoodEntryDTO moodEntryDTO
+    ) {
+        LOG.debug("REST request to partial update MoodEntry of current user : {}, {}", id, moodEntryDTO);
+        if (moodEntryDTO.getId() == null) {
+            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
+        }
+        if (!Objects.equals(id, moodEntryDTO.getId())) {
+            throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
+        }
+        if (moodEntryDTO.getVersion() == null) {
+            throw new BadRequestAlertException("Invalid version", ENTITY_NAME, "versionnull");
+        }
+        if (moodEntryDTO.getMood() == null) {
+            throw new BadRequestAlertException("Invalid mood", ENTITY_NAME, "moodnull");
+        }
+
+        Optional<MoodEntryDTO> result = moodEntryService.updateMoodForCurrentUser(id, moodEntryDTO.getVersion(), moodEntryDTO.getMood());
+
+        return ResponseUtil.wrapOrNotFound(result, HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString()));
+    }
+
     /**
      * {@code GET  /mood-entries} : get all the moodEntries.
      *
@@ -175,6 +227,76 @@ public class MoodEntryResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /mood-entries/my/scroll} : get the mood entries of the current user, newest first, page after page.
+     * <p>
+     * Unlike {@code GET /mood-entries/my}, entries are not counted and the next page is identified by an opaque cursor,
+     * given in the {@code next} link of the response when there are more entries.
+     *
+     * @param cursor the cursor of the page, none for the first one.
+     * @param size the size of the page, at most {@value #MAX_SCROLL_SIZE}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of moodEntries in body.
+     */
+    @GetMapping("/my/scroll")
+    public ResponseEntity<List<MoodEntryDTO>> scrollMyMoodEntries(
+        @RequestParam(name = "cursor", required = false) String cursor,
+        @RequestParam(name = "size", defaultValue = "20") int size
+    ) {
+        LOG.debug("REST request to scroll MoodEntries for current user from cursor {}", cursor);
+        Slice<MoodEntryDTO> slice = moodEntryService.findSliceForCurrentUser(
+            cursor != null ? decodeCursor(cursor) : null,
+            Math.max(1, Math.min(size, MAX_SCROLL_SIZE))
+        );
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext()) {
+            List<MoodEntryDTO> content = slice.getContent();
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("cursor", encodeCursor(content.get(content.size() - 1).getDate()))
+                .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    private static String encodeCursor(LocalDate date) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(date.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static LocalDate decodeCursor(String cursor) {
+        try {
+            return LocalDate.parse(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+    }
+
+    /**
+     * {@code GET  /mood-entries/my/export} : export all mood entries of the current user.
+     * <p>
+     * Entries are streamed to the response as they are read, ordered by date.
+     *
+     * @param format the format, {@code ndjson} (default) or {@code csv}.
+     * @param response the response to write to.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping("/my/export")
+    public void exportMyMoodEntries(
+        @RequestParam(name = "format", defaultValue = "ndjson") String format,
+        HttpServletResponse response
+    ) throws IOException {
+        LOG.debug("REST request to export MoodEntries for current user as {}", format);
+        MoodEntryExportService.Format exportFormat = MoodEntryExportService.Format.fromName(format).orElseThrow(() ->
+            new BadRequestAlertException("Unsupported export format", ENTITY_NAME, "formatinvalid")
+        );
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename("mood-entries." + exportFormat.getExtension()).build().toString()
+        );
+        moodEntryExportService.exportForCurrentUser(exportFormat, response.getOutputStream());
+    }
+
     /**
      * {@code GET  /mood-entries/my/date/{date}} : get mood entry for current user by date.
      *
@@ -189,6 +311,27 @@ public class MoodEntryResource {
         return ResponseUtil.wrapOrNotFound(moodEntryDTO);
     }
 
+    /**
+     * {@code PUT  /mood-entries/my/date/{date}} : set the mood of the current user on a date.
+     * <p>
+     * Creates the entry of that date or updates its mood, so the client needs no prior lookup.
+     *
+     * @param date the date of the entry.
+     * @param moodEntryDTO the moodEntryDTO holding the mood, other fields are ignored.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the resulting moodEntryDTO,
+     * or with status {@code 400 (Bad Request)} if the mood is missing.
+     */
+    @PutMapping("/my/date/{date}")
+    public ResponseEntity<MoodEntryDTO> putMyMoodEntryByDate(@PathVariable("date") String date, @RequestBody MoodEntryDTO moodEntryDTO) {
+        LOG.debug("REST request to set MoodEntry for current user on date {} : {}", date, moodEntryDTO);
+        if (moodEntryDTO.getMood() == null) {
+            throw new BadRequestAlertException("Invalid mood", ENTITY_NAME, "moodnull");
+        }
+        LocalDate localDate = LocalDate.parse(date, DateTimeFormatter.ISO_LOCAL_DATE);
+        Optional<MoodEntryDTO> result = moodEntryService.upsertForCurrentUser(localDate, moodEntryDTO.getMood());
+        return ResponseUtil.wrapOrNotFound(result);
+    }
+
     /**
      * {@code GET  /mood-entries/my/range} : get mood entries for current user within date range.
      *
@@ -2,8 +2,11 @@ package com.mycompany.myapp.web.rest.errors;
 
 import static org.springframework.core.annotation.AnnotatedElementUtils.findMergedAnnotation;
 
+import com.mycompany.myapp.security.LoginThrottledException;
+import com.mycompany.myapp.security.PasswordHashingBusyException;
 import jakarta.servlet.http.HttpServletRequest;
 import java.net.URI;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -218,6 +221,8 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
         if (err instanceof AccessDeniedException) return HttpStatus.FORBIDDEN;
         if (err instanceof ConcurrencyFailureException) return HttpStatus.CONFLICT;
         if (err instanceof BadCredentialsException) return HttpStatus.UNAUTHORIZED;
+        if (err instanceof PasswordHashingBusyException) return HttpStatus.SERVICE_UNAVAILABLE;
+        if (err instanceof LoginThrottledException) return HttpStatus.TOO_MANY_REQUESTS;
         return null;
     }
 
@@ -227,6 +232,12 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
     }
 
     private HttpHeaders buildHeaders(Throwable err) {
+        if (err instanceof PasswordHashingBusyException passwordHashingBusyException) {
+            return retryAfterHeaders(passwordHashingBusyException.getRetryAfter());
+        }
+        if (err instanceof LoginThrottledException loginThrottledException) {
+            return retryAfterHeaders(loginThrottledException.getRetryAfter());
+        }
         return err instanceof BadRequestAlertException badRequestAlertException
             ? HeaderUtil.createFailureAlert(
                 applicationName,
@@ -238,6 +249,13 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
             : null;
     }
 
+    private static HttpHeaders retryAfterHeaders(Duration retryAfter) {
+        HttpHeaders headers = new HttpHeaders();
+        // whole seconds, rounded up
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.plusSeconds(1).minusNanos(1).toSeconds())));
+        return headers;
+    }
+
     public Optional<ProblemDetailWithCause> buildCause(final Throwable throwable, NativeWebRequest request) {
         if (throwable != null && isCasualChainEnabled()) {
             return Optional.of(customizeProblem(getProblemDetailWithCause(throwable), throwable, request));
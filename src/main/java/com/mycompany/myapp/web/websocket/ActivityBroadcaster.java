@@ -0,0 +1,111 @@
+package com.mycompany.myapp.web.websocket;
+
+import com.mycompany.myapp.web.websocket.dto.ActivityDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Broadcasts the user activities to the {@link #TRACKER_DESTINATION} subscribers.
+ * <p>
+ * In {@link Mode#IMMEDIATE} mode each activity is one message. In {@link Mode#COALESCED} mode only the last activity of each
+ * session is kept, and the activities are sent every {@code application.tracker.coalescing-window} as one message holding
+ * their list, so each subscriber gets at most one frame per window.
+ */
+@Component
+public class ActivityBroadcaster {
+
+    public static final String TRACKER_DESTINATION = "/topic/tracker";
+
+    public static final String ACTIVITIES_METER_NAME = "tracker.activities";
+    public static final String ACTIVITIES_METER_DESCRIPTION = "Indicates the user activities received, sent or superseded by a later one.";
+    public static final String ACTIVITIES_METER_RESULT_DIMENSION = "result";
+    public static final String MESSAGES_METER_NAME = "tracker.messages";
+    public static final String MESSAGES_METER_DESCRIPTION = "Indicates the messages sent to the tracker subscribers, one frame each.";
+    public static final String PENDING_METER_NAME = "tracker.activities.pending";
+    public static final String PENDING_METER_DESCRIPTION = "Indicates the activities waiting for the end of the coalescing window.";
+
+    public enum Mode {
+        IMMEDIATE,
+        COALESCED,
+    }
+
+    private final SimpMessageSendingOperations messagingTemplate;
+
+    private final Mode mode;
+
+    private final Map<String, ActivityDTO> pending = new ConcurrentHashMap<>();
+
+    private final Counter sentCounter;
+
+    private final Counter supersededCounter;
+
+    private final Counter messagesCounter;
+
+    public ActivityBroadcaster(
+        SimpMessageSendingOperations messagingTemplate,
+        MeterRegistry registry,
+        @Value("${application.tracker.mode:immediate}") Mode mode
+    ) {
+        this.messagingTemplate = messagingTemplate;
+        this.mode = mode;
+        this.sentCounter = activitiesCounterForResultBuilder("sent").register(registry);
+        this.supersededCounter = activitiesCounterForResultBuilder("superseded").register(registry);
+        this.messagesCounter = Counter.builder(MESSAGES_METER_NAME).description(MESSAGES_METER_DESCRIPTION).register(registry);
+        Gauge.builder(PENDING_METER_NAME, pending, Map::size).description(PENDING_METER_DESCRIPTION).register(registry);
+    }
+
+    private Counter.Builder activitiesCounterForResultBuilder(String result) {
+        return Counter.builder(ACTIVITIES_METER_NAME).description(ACTIVITIES_METER_DESCRIPTION).tag(ACTIVITIES_METER_RESULT_DIMENSION, result);
+    }
+
+    /**
+     * Broadcast an activity, at once or at the end of the coalescing window.
+     *
+     * @param activity the activity, with its session id.
+     */
+    public void broadcast(ActivityDTO activity) {
+        if (mode == Mode.IMMEDIATE) {
+            send(activity, 1);
+            return;
+        }
+        if (pending.put(activity.getSessionId(), activity) != null) {
+            supersededCounter.increment();
+        }
+    }
+
+    /**
+     * Send the activities of the coalescing window, in the order they happened.
+     */
+    @Scheduled(fixedDelayString = "${application.tracker.coalescing-window:500ms}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<ActivityDTO> activities = new ArrayList<>(pending.size());
+        for (String sessionId : pending.keySet()) {
+            ActivityDTO activity = pending.remove(sessionId);
+            if (activity != null) {
+                activities.add(activity);
+            }
+        }
+        // the logouts have no time
+        activities.sort(Comparator.comparing(ActivityDTO::getTime, Comparator.nullsLast(Comparator.naturalOrder())));
+        send(activities, activities.size());
+    }
+
+    private void send(Object payload, int activities) {
+        messagingTemplate.convertAndSend(TRACKER_DESTINATION, payload);
+        messagesCounter.increment();
+        sentCounter.increment(activities);
+    }
+}
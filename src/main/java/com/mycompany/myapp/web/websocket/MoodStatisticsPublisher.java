@@ -0,0 +1,56 @@
+package com.mycompany.myapp.web.websocket;
+
+import com.mycompany.myapp.service.MoodEntryService;
+import com.mycompany.myapp.service.MoodStatisticsCacheService;
+import com.mycompany.myapp.service.MoodStatisticsChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Sends the change of their statistics to the {@link #MOOD_STATISTICS_DESTINATION} of a user, once the change of their
+ * entries is committed, so that their dashboard does not need to load the statistics again.
+ * <p>
+ * The delta is sent asynchronously, and only computed when the user is connected to this node. As the broker is local,
+ * the changes of the other nodes are sent too: {@link MoodStatisticsCacheService} publishes them again when the
+ * invalidation of their statistics is received from the cache invalidation bus. Without the bus, users connected to
+ * another node than the one of the write only get their statistics when their dashboard loads them again.
+ */
+@Component
+public class MoodStatisticsPublisher {
+
+    public static final String MOOD_STATISTICS_DESTINATION = "/queue/mood-stats";
+
+    private static final Logger LOG = LoggerFactory.getLogger(MoodStatisticsPublisher.class);
+
+    private final SimpMessageSendingOperations messagingTemplate;
+
+    private final SimpUserRegistry userRegistry;
+
+    private final MoodEntryService moodEntryService;
+
+    public MoodStatisticsPublisher(
+        SimpMessageSendingOperations messagingTemplate,
+        SimpUserRegistry userRegistry,
+        MoodEntryService moodEntryService
+    ) {
+        this.messagingTemplate = messagingTemplate;
+        this.userRegistry = userRegistry;
+        this.moodEntryService = moodEntryService;
+    }
+
+    // asynchronous, so neither the request nor the polling of the bus wait for the delta
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMoodStatisticsChanged(MoodStatisticsChangedEvent event) {
+        if (userRegistry.getUser(event.login()) == null) {
+            return;
+        }
+        LOG.debug("Sending the mood statistics delta of {}", event);
+        messagingTemplate.convertAndSendToUser(event.login(), MOOD_STATISTICS_DESTINATION, moodEntryService.getMoodStatisticsDelta(event));
+    }
+}
@@ -33,10 +33,27 @@ export const sendActivity = (page: string) => {
   });
 };
 
+// the deltas of the statistics of the current user, once their entries change; returns the unsubscription
+export const subscribeMoodStatistics = (onDelta: (delta: any) => void): (() => void) => {
+  let moodStatisticsSubscriber = null;
+  let unsubscribed = false;
+  connection?.then(() => {
+    if (!unsubscribed) {
+      moodStatisticsSubscriber = stompClient?.subscribe('/user/queue/mood-stats', data => onDelta(JSON.parse(data.body)));
+    }
+  });
+  return () => {
+    unsubscribed = true;
+    moodStatisticsSubscriber?.unsubscribe();
+  };
+};
+
 const subscribe = () => {
   connection.then(() => {
     subscriber = stompClient.subscribe('/topic/tracker', data => {
-      listenerObserver.next(JSON.parse(data.body));
+      // one activity, or the list of a coalescing window
+      const body = JSON.parse(data.body);
+      (Array.isArray(body) ? body : [body]).forEach(activity => listenerObserver.next(activity));
     });
   });
 };
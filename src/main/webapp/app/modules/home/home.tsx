@@ -7,6 +7,7 @@ import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
 import { faSmile, faFrown, faAngry, faMeh, faFlushed, faPlus, faChartLine, faCalendarAlt } from '@fortawesome/free-solid-svg-icons';
 import { LineChart, Line, XAxis, YAxis, CartesianGrid, Tooltip, ResponsiveContainer, PieChart, Pie, Cell } from 'recharts';
 import { useAppSelector } from 'app/config/store';
+import { subscribeMoodStatistics } from 'app/config/websocket-middleware';
 import axios from 'axios';
 
 const COLORS = ['#28a745', '#6c757d', '#dc3545', '#ffc107', '#17a2b8'];
@@ -21,6 +22,8 @@ export const Home = () => {
     if (account?.login) {
       loadTodayMood();
       loadStatistics();
+      // the statistics are then kept up to date by the server, including for the moods set on other devices
+      return subscribeMoodStatistics(applyStatisticsDelta);
     }
   }, [account]);
 
@@ -44,26 +47,31 @@ export const Home = () => {
     }
   };
 
+  const applyStatisticsDelta = delta => {
+    const today = new Date().toISOString().split('T')[0];
+    if (delta.date === today) {
+      setTodayMood(current => (delta.mood ? { ...current, date: delta.date, mood: delta.mood } : null));
+    }
+    if (!delta.week) {
+      return;
+    }
+    setStatistics(current => {
+      const trends = (current?.trends ?? []).filter(trend => trend.date !== delta.date);
+      if (delta.mood) {
+        trends.push({ date: delta.date, mood: delta.mood, moodScore: delta.moodScore });
+        trends.sort((a, b) => a.date.localeCompare(b.date));
+      }
+      return { ...current, ...delta.week, trends };
+    });
+  };
+
   const handleMoodSelect = async mood => {
     setLoading(true);
     try {
       const today = new Date().toISOString().split('T')[0];
-      const moodData = {
-        date: today,
-        mood,
-        user: { id: account.id },
-      };
-
-      if (todayMood) {
-        // Update existing entry
-        await axios.put(`/api/mood-entries/${todayMood.id}`, moodData);
-      } else {
-        // Create new entry
-        await axios.post('/api/mood-entries', moodData);
-      }
-
-      await loadTodayMood();
-      await loadStatistics();
+      // Creates today's entry or updates it, and returns it
+      const response = await axios.put(`/api/mood-entries/my/date/${today}`, { mood });
+      setTodayMood(response.data);
     } catch (error) {
       console.error('Error saving mood:', error);
     } finally {
@@ -7,6 +7,7 @@ export interface IMoodEntry {
   date?: dayjs.Dayjs;
   mood?: keyof typeof MoodType;
   user?: IUser;
+  version?: number;
 }
 
 export const defaultValue: Readonly<IMoodEntry> = {};
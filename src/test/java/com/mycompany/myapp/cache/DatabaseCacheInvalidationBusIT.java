@@ -0,0 +1,238 @@
+package com.mycompany.myapp.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.service.MoodStatisticsCacheService;
+import com.mycompany.myapp.service.MoodStatisticsChangedEvent;
+import com.mycompany.myapp.service.UserService;
+import com.mycompany.myapp.service.dto.MoodStatisticsDTO;
+import com.mycompany.myapp.web.rest.UserResourceIT;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link DatabaseCacheInvalidationBus} and {@link InvalidatingCacheManager}.
+ * <p>
+ * A second application context, sharing the database, stands for another node. Both nodes are polled by the tests
+ * rather than on schedule.
+ */
+@IntegrationTest
+@TestPropertySource(properties = { "application.cache.invalidation.enabled=true", "application.cache.invalidation.poll-interval=PT1H" })
+class DatabaseCacheInvalidationBusIT {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 6, 15);
+
+    @Autowired
+    private DatabaseCacheInvalidationBus bus;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MoodStatisticsCacheService moodStatisticsCacheService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private AnnotationConfigApplicationContext otherNode;
+
+    private DatabaseCacheInvalidationBus otherBus;
+
+    private CacheManager otherCacheManager;
+
+    private List<MoodStatisticsChangedEvent> otherEvents;
+
+    @BeforeEach
+    public void initTest() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        cache(cacheManager, UserRepository.USERS_BY_LOGIN_CACHE).clear();
+        update("delete from jhi_cache_invalidation");
+
+        otherBus = new DatabaseCacheInvalidationBus(jdbcTemplate, transactionManager, Duration.ofHours(1), Duration.ofSeconds(10));
+        otherNode = new AnnotationConfigApplicationContext();
+        otherNode.registerBean(CacheInvalidationBus.class, () -> otherBus);
+        otherNode.registerBean(
+            CacheManager.class,
+            () ->
+                new InvalidatingCacheManager(
+                    new ConcurrentMapCacheManager(
+                        UserRepository.USERS_BY_LOGIN_CACHE,
+                        UserRepository.USERS_BY_EMAIL_CACHE,
+                        MoodStatisticsCacheService.MOOD_STATISTICS_CACHE
+                    ),
+                    otherBus
+                )
+        );
+        otherNode.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        otherNode.registerBean(MoodStatisticsCacheService.class);
+        otherEvents = new ArrayList<>();
+        otherNode.addApplicationListener(
+            ApplicationListener.forPayload(payload -> {
+                if (payload instanceof MoodStatisticsChangedEvent event) {
+                    otherEvents.add(event);
+                }
+            })
+        );
+        otherNode.refresh();
+        otherCacheManager = otherNode.getBean(CacheManager.class);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        otherNode.close();
+        update("delete from jhi_cache_invalidation");
+    }
+
+    @Test
+    void clearUserCachesIsBroadcastOnceCommitted() {
+        User user = transactionTemplate.execute(status -> userRepository.saveAndFlush(UserResourceIT.createEntity()));
+        cache(otherCacheManager, UserRepository.USERS_BY_LOGIN_CACHE).put(user.getLogin(), user);
+        cache(otherCacheManager, UserRepository.USERS_BY_EMAIL_CACHE).put(user.getEmail(), user);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.deleteUser(user.getLogin());
+            otherBus.poll();
+            assertThat(cache(otherCacheManager, UserRepository.USERS_BY_LOGIN_CACHE).get(user.getLogin())).isNotNull();
+        });
+        otherBus.poll();
+
+        assertThat(cache(otherCacheManager, UserRepository.USERS_BY_LOGIN_CACHE).get(user.getLogin())).isNull();
+        assertThat(cache(otherCacheManager, UserRepository.USERS_BY_EMAIL_CACHE).get(user.getEmail())).isNull();
+    }
+
+    @Test
+    void rolledBackEvictionIsNotBroadcast() {
+        cache(otherCacheManager, UserRepository.USERS_BY_LOGIN_CACHE).put("login", "value");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            cache(cacheManager, UserRepository.USERS_BY_LOGIN_CACHE).evict("login");
+            status.setRollbackOnly();
+        });
+        otherBus.poll();
+
+        assertThat(cache(otherCacheManager, UserRepository.USERS_BY_LOGIN_CACHE).get("login")).isNotNull();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from jhi_cache_invalidation", Long.class)).isZero();
+    }
+
+    @Test
+    void evictionsOfOtherNodeAreApplied() {
+        Cache cache = cache(cacheManager, UserRepository.USERS_BY_LOGIN_CACHE);
+        cache.put("evicted", "value");
+        cache.put("kept", "value");
+
+        cache(otherCacheManager, UserRepository.USERS_BY_LOGIN_CACHE).evict("evicted");
+        bus.poll();
+
+        assertThat(cache.get("evicted")).isNull();
+        assertThat(cache.get("kept")).isNotNull();
+    }
+
+    @Test
+    void clearOfOtherNodeIsApplied() {
+        Cache cache = cache(cacheManager, UserRepository.USERS_BY_LOGIN_CACHE);
+        cache.put("key", "value");
+
+        cache(otherCacheManager, UserRepository.USERS_BY_LOGIN_CACHE).clear();
+        bus.poll();
+
+        assertThat(cache.get("key")).isNull();
+    }
+
+    @Test
+    void invalidationsAreReceivedOnceAndNotByTheirOrigin() {
+        Cache otherCache = cache(otherCacheManager, UserRepository.USERS_BY_LOGIN_CACHE);
+        cache(cacheManager, UserRepository.USERS_BY_LOGIN_CACHE).evict("key");
+        otherBus.poll();
+
+        otherCache.put("key", "value");
+        otherBus.poll();
+        bus.poll();
+
+        assertThat(otherCache.get("key")).isNotNull();
+        assertThat(cache(cacheManager, UserRepository.USERS_BY_LOGIN_CACHE).get("key")).isNull();
+    }
+
+    @Test
+    void invalidationsSinceTheLastPollAreReceivedHoweverLate() {
+        // without a commit margin, the second poll reads the invalidation, dated before it, only from the date of the first
+        DatabaseCacheInvalidationBus lateBus = new DatabaseCacheInvalidationBus(
+            jdbcTemplate,
+            transactionManager,
+            Duration.ofHours(1),
+            Duration.ZERO
+        );
+        List<CacheInvalidation> received = new ArrayList<>();
+        lateBus.subscribe(received::add);
+        lateBus.poll();
+
+        cache(cacheManager, UserRepository.USERS_BY_LOGIN_CACHE).evict("key");
+        lateBus.poll();
+        lateBus.poll();
+
+        assertThat(received).containsExactly(CacheInvalidation.evict(UserRepository.USERS_BY_LOGIN_CACHE, "key"));
+    }
+
+    @Test
+    void writtenDateEvictsStatisticsOfOtherNode() {
+        MoodStatisticsCacheService otherService = otherNode.getBean(MoodStatisticsCacheService.class);
+        MoodStatisticsCacheService.Key key = new MoodStatisticsCacheService.Key("login", DATE.minusDays(7), DATE, DATE);
+        MoodStatisticsDTO cached = otherService.get(key, MoodStatisticsDTO::new);
+
+        moodStatisticsCacheService.evict(1L, "login", DATE);
+        otherBus.poll();
+
+        assertThat(otherService.get(key, MoodStatisticsDTO::new)).isNotSameAs(cached);
+        assertThat(otherEvents).containsExactly(new MoodStatisticsChangedEvent(1L, "login", DATE));
+    }
+
+    @Test
+    void expiredInvalidationsAreRemoved() {
+        cache(cacheManager, UserRepository.USERS_BY_LOGIN_CACHE).evict("key");
+        update("update jhi_cache_invalidation set created_date = TIMESTAMPADD(HOUR, -2, CURRENT_TIMESTAMP)");
+
+        bus.removeExpired();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from jhi_cache_invalidation", Long.class)).isZero();
+    }
+
+    // the connections do not auto-commit
+    private void update(String sql) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(sql));
+    }
+
+    private static Cache cache(CacheManager cacheManager, String cacheName) {
+        return Objects.requireNonNull(cacheManager.getCache(cacheName));
+    }
+}
@@ -0,0 +1,191 @@
+package com.mycompany.myapp.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.MoodEntry;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.domain.enumeration.MoodType;
+import com.mycompany.myapp.repository.MoodEntryRepository;
+import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.web.rest.UserResourceIT;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link InvalidatingRegionFactory}, broadcasting the writes to the Hibernate second-level cache.
+ * <p>
+ * The other node is a second {@link DatabaseCacheInvalidationBus} on the same database; both are polled by the tests.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "application.cache.invalidation.enabled=true",
+        "application.cache.invalidation.poll-interval=PT1H",
+    }
+)
+class InvalidatingRegionFactoryIT {
+
+    private static final String MOOD_ENTRY_REGION = MoodEntry.class.getName();
+
+    private static final String QUERY_RESULTS_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+
+    private static final String UPDATE_TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    private static final LocalDate DATE = LocalDate.of(2024, 7, 1);
+
+    @Autowired
+    private DatabaseCacheInvalidationBus bus;
+
+    @Autowired
+    private MoodEntryRepository moodEntryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private javax.cache.CacheManager jCacheCacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+
+    private MoodEntry moodEntry;
+
+    @BeforeEach
+    public void initTest() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            user = UserResourceIT.createEntity();
+            em.persist(user);
+            moodEntry = new MoodEntry().date(DATE).mood(MoodType.HAPPY).user(user);
+            em.persist(moodEntry);
+        });
+        entityManagerFactory.getCache().evictAll();
+        update("delete from jhi_cache_invalidation");
+    }
+
+    @AfterEach
+    public void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            moodEntryRepository.deleteById(moodEntry.getId());
+            userRepository.deleteById(user.getId());
+        });
+        update("delete from jhi_cache_invalidation");
+    }
+
+    @Test
+    void entityWriteIsBroadcastButNotItsLoad() {
+        assertThat(findMood()).isEqualTo(MoodType.HAPPY);
+        assertThat(entityManagerFactory.getCache().contains(MoodEntry.class, moodEntry.getId())).isTrue();
+        assertThat(published()).isEmpty();
+
+        transactionTemplate.executeWithoutResult(status ->
+            moodEntryRepository.findById(moodEntry.getId()).orElseThrow().mood(MoodType.SAD)
+        );
+
+        assertThat(published())
+            .contains(CacheInvalidation.evict(MOOD_ENTRY_REGION, moodEntry.getId()), CacheInvalidation.evict(UPDATE_TIMESTAMPS_REGION, "mood_entry"))
+            .doesNotContain(CacheInvalidation.clear(QUERY_RESULTS_REGION));
+    }
+
+    @Test
+    void entityWriteOfOtherNodeIsEvicted() {
+        assertThat(findMood()).isEqualTo(MoodType.HAPPY);
+        assertThat(entityManagerFactory.getCache().contains(MoodEntry.class, moodEntry.getId())).isTrue();
+        assertThat(jCacheCacheManager.getCache(QUERY_RESULTS_REGION).iterator().hasNext()).isTrue();
+
+        DatabaseCacheInvalidationBus otherBus = new DatabaseCacheInvalidationBus(
+            jdbcTemplate,
+            transactionManager,
+            Duration.ofHours(1),
+            Duration.ofSeconds(10)
+        );
+        otherBus.publish(
+            List.of(CacheInvalidation.evict(MOOD_ENTRY_REGION, moodEntry.getId()), CacheInvalidation.evict(UPDATE_TIMESTAMPS_REGION, "mood_entry"))
+        );
+        bus.poll();
+
+        assertThat(entityManagerFactory.getCache().contains(MoodEntry.class, moodEntry.getId())).isFalse();
+        assertThat(jCacheCacheManager.getCache(QUERY_RESULTS_REGION).iterator().hasNext()).isTrue();
+    }
+
+    @Test
+    void tableWriteOfOtherNodeStalesOnlyTheQueryResultsOnThatTable() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertThat(findMood()).isEqualTo(MoodType.HAPPY);
+        // the timestamps of the first check may be missing, which then counts as an update
+        findMood();
+        findMood();
+        statistics.clear();
+        assertThat(findMood()).isEqualTo(MoodType.HAPPY);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        DatabaseCacheInvalidationBus otherBus = new DatabaseCacheInvalidationBus(
+            jdbcTemplate,
+            transactionManager,
+            Duration.ofHours(1),
+            Duration.ofSeconds(10)
+        );
+        otherBus.publish(List.of(CacheInvalidation.evict(UPDATE_TIMESTAMPS_REGION, "jhi_user")));
+        bus.poll();
+        statistics.clear();
+
+        assertThat(findMood()).isEqualTo(MoodType.HAPPY);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        otherBus.publish(List.of(CacheInvalidation.evict(UPDATE_TIMESTAMPS_REGION, "mood_entry")));
+        bus.poll();
+        statistics.clear();
+
+        assertThat(findMood()).isEqualTo(MoodType.HAPPY);
+        assertThat(statistics.getQueryCacheHitCount()).isZero();
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(1);
+    }
+
+    private MoodType findMood() {
+        return transactionTemplate.execute(status -> moodEntryRepository.findByUserIdAndDate(user.getId(), DATE).orElseThrow().getMood());
+    }
+
+    private List<CacheInvalidation> published() {
+        return transactionTemplate.execute(status ->
+            jdbcTemplate.query("select cache_name, cache_key from jhi_cache_invalidation order by id", (rs, rowNum) ->
+                DatabaseCacheInvalidationBus.decode(rs.getString("cache_name"), rs.getString("cache_key"))
+            )
+        );
+    }
+
+    // the connections do not auto-commit
+    private void update(String sql) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(sql));
+    }
+}
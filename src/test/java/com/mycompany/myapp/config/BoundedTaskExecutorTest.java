@@ -0,0 +1,106 @@
+package com.mycompany.myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+/**
+ * Test class for the {@link BoundedTaskExecutor}, on platform threads so that it runs on Java 17.
+ */
+class BoundedTaskExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    private BoundedTaskExecutor executor;
+
+    @BeforeEach
+    void setup() {
+        executor = new BoundedTaskExecutor(new SimpleAsyncTaskExecutor("bounded-test-"), 2, 3);
+    }
+
+    @AfterEach
+    void cleanup() {
+        release.countDown();
+        executor.destroy();
+    }
+
+    @Test
+    void tasksBeyondTheLimitWaitWithoutBlockingTheCaller() throws Exception {
+        CountDownLatch done = new CountDownLatch(5);
+        for (int i = 0; i < 5; i++) {
+            // would block on the third task if the caller waited for a running one to end
+            executor.execute(() -> {
+                blocked();
+                done.countDown();
+            });
+        }
+
+        Thread.sleep(100);
+        assertThat(running.get()).isEqualTo(2);
+        release.countDown();
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isEqualTo(2);
+    }
+
+    @Test
+    void tasksBeyondTheQueueAreRejected() {
+        for (int i = 0; i < 5; i++) {
+            executor.execute(this::blocked);
+        }
+
+        assertThatThrownBy(() -> executor.execute(this::blocked)).isInstanceOf(TaskRejectedException.class);
+    }
+
+    @Test
+    void endedTasksMakeRoom() throws Exception {
+        CountDownLatch done = new CountDownLatch(5);
+        for (int i = 0; i < 5; i++) {
+            executor.execute(done::countDown);
+        }
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // the permits are released after the task, once its thread ends
+        CountDownLatch more = new CountDownLatch(5);
+        for (int i = 0; i < 5; i++) {
+            executeOnceAccepted(more::countDown);
+        }
+        assertThat(more.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private void executeOnceAccepted(Runnable task) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (true) {
+            try {
+                executor.execute(task);
+                return;
+            } catch (TaskRejectedException e) {
+                if (System.nanoTime() > deadline) {
+                    throw e;
+                }
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private void blocked() {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        running.decrementAndGet();
+    }
+}
@@ -0,0 +1,159 @@
+package com.mycompany.myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.MoodEntry;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.domain.enumeration.MoodType;
+import com.mycompany.myapp.repository.MoodEntryRepository;
+import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.web.rest.UserResourceIT;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the Hibernate second-level and query caches configured in {@link CacheConfiguration}.
+ * <p>
+ * The caches are disabled in the other tests, and each step commits so that the caches see the data.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+    }
+)
+class CacheConfigurationIT {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 5, 1);
+
+    @Autowired
+    private MoodEntryRepository moodEntryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    private User user;
+
+    private MoodEntry moodEntry;
+
+    @BeforeEach
+    public void initTest() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate.executeWithoutResult(status -> {
+            user = UserResourceIT.createEntity();
+            em.persist(user);
+            moodEntry = new MoodEntry().date(DATE).mood(MoodType.HAPPY).user(user);
+            em.persist(moodEntry);
+        });
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            moodEntryRepository.deleteById(moodEntry.getId());
+            userRepository.deleteById(user.getId());
+        });
+    }
+
+    @Test
+    void repeatedDateLookupIsServedFromCaches() {
+        assertThat(findMood()).isEqualTo(MoodType.HAPPY);
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(1);
+        assertThat(statistics.getQueryCachePutCount()).isEqualTo(1);
+
+        double queryHits = count("hibernate.cache.query.requests", "hit");
+        double entityHits = count("hibernate.second.level.cache.requests", "hit");
+        long prepared = statistics.getPrepareStatementCount();
+
+        assertThat(findMood()).isEqualTo(MoodType.HAPPY);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(prepared);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+        assertThat(count("hibernate.cache.query.requests", "hit")).isEqualTo(queryHits + 1);
+        assertThat(count("hibernate.second.level.cache.requests", "hit")).isGreaterThan(entityHits);
+    }
+
+    @Test
+    void moodUpdateInvalidatesCachedLookup() {
+        assertThat(findMood()).isEqualTo(MoodType.HAPPY);
+
+        transactionTemplate.executeWithoutResult(status -> em.find(MoodEntry.class, moodEntry.getId()).setMood(MoodType.SAD));
+
+        assertThat(findMood()).isEqualTo(MoodType.SAD);
+        assertThat(statistics.getQueryCacheHitCount()).isZero();
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    void upsertInvalidatesCachedLookup() {
+        assertThat(findMood()).isEqualTo(MoodType.HAPPY);
+
+        transactionTemplate.executeWithoutResult(status -> moodEntryRepository.upsert(user.getId(), DATE, MoodType.NEUTRAL));
+
+        assertThat(findMood()).isEqualTo(MoodType.NEUTRAL);
+        assertThat(statistics.getQueryCacheHitCount()).isZero();
+    }
+
+    @Test
+    void upsertEvictsOnlyItsEntry() {
+        MoodEntry otherMoodEntry = new MoodEntry().date(DATE.plusDays(1)).mood(MoodType.SAD).user(user);
+        transactionTemplate.executeWithoutResult(status -> em.persist(otherMoodEntry));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                em.find(MoodEntry.class, moodEntry.getId());
+                em.find(MoodEntry.class, otherMoodEntry.getId());
+            });
+            assertThat(entityManagerFactory.getCache().contains(MoodEntry.class, moodEntry.getId())).isTrue();
+            assertThat(entityManagerFactory.getCache().contains(MoodEntry.class, otherMoodEntry.getId())).isTrue();
+
+            transactionTemplate.executeWithoutResult(status -> moodEntryRepository.upsert(user.getId(), DATE, MoodType.NEUTRAL));
+
+            assertThat(entityManagerFactory.getCache().contains(MoodEntry.class, moodEntry.getId())).isFalse();
+            assertThat(entityManagerFactory.getCache().contains(MoodEntry.class, otherMoodEntry.getId())).isTrue();
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> moodEntryRepository.deleteById(otherMoodEntry.getId()));
+        }
+    }
+
+    private MoodType findMood() {
+        return transactionTemplate.execute(status -> moodEntryRepository.findByUserIdAndDate(user.getId(), DATE).orElseThrow().getMood());
+    }
+
+    private double count(String name, String result) {
+        return meterRegistry.get(name).tag("result", result).functionCounters().stream().mapToDouble(FunctionCounter::count).sum();
+    }
+}
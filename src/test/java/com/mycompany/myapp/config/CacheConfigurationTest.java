@@ -0,0 +1,169 @@
+package com.mycompany.myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import com.mycompany.myapp.security.CachingJwtDecoder;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.SizedResourcePool;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.impl.config.persistence.DefaultPersistenceConfiguration;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.util.unit.DataSize;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Unit tests for the cache tiers built by {@link CacheConfiguration}.
+ */
+class CacheConfigurationTest {
+
+    @TempDir
+    private Path diskPath;
+
+    private JHipsterProperties jHipsterProperties;
+
+    private ApplicationProperties applicationProperties;
+
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setup() {
+        jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getCache().getEhcache().setMaxEntries(100);
+        jHipsterProperties.getCache().getEhcache().setTimeToLiveSeconds(3600);
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getCache().setDiskPath(diskPath.toString());
+
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        cacheManager = provider.getCacheManager(
+            URI.create("urn:cache-configuration-test"),
+            new DefaultConfiguration(provider.getDefaultClassLoader(), new DefaultPersistenceConfiguration(diskPath.toFile()))
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void cacheWithoutRegionStaysOnHeapWithDefaults() {
+        CacheRuntimeConfiguration<Object, Object> configuration = createCache("plain");
+
+        ResourcePools resourcePools = configuration.getResourcePools();
+        assertThat(resourcePools.getResourceTypeSet()).containsExactly(ResourceType.Core.HEAP);
+        assertThat(resourcePools.getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(100L);
+        assertThat(resourcePools.getPoolForResource(ResourceType.Core.HEAP).getUnit()).isEqualTo(EntryUnit.ENTRIES);
+        assertThat(configuration.getExpiryPolicy().getExpiryForCreation(1, 1)).isEqualTo(Duration.ofHours(1));
+        assertThat(configuration.getExpiryPolicy().getExpiryForAccess(1, () -> 1)).isNull();
+    }
+
+    @Test
+    void regionIsTieredAndSizedInBytes() {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setHeapEntries(10L);
+        region.setOffHeapSize(DataSize.ofMegabytes(2));
+        region.setDiskSize(DataSize.ofMegabytes(4));
+        region.setTimeToLive(Duration.ofMinutes(10));
+        region.setTimeToIdle(Duration.ofMinutes(1));
+        applicationProperties.getCache().getRegions().put("tiered", region);
+
+        CacheRuntimeConfiguration<Object, Object> configuration = createCache("tiered");
+
+        ResourcePools resourcePools = configuration.getResourcePools();
+        assertThat(resourcePools.getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(10L);
+        SizedResourcePool offHeap = resourcePools.getPoolForResource(ResourceType.Core.OFFHEAP);
+        assertThat(offHeap.getUnit()).isEqualTo(MemoryUnit.B);
+        assertThat(offHeap.getSize()).isEqualTo(DataSize.ofMegabytes(2).toBytes());
+        SizedResourcePool disk = resourcePools.getPoolForResource(ResourceType.Core.DISK);
+        assertThat(disk.getSize()).isEqualTo(DataSize.ofMegabytes(4).toBytes());
+        assertThat(disk.isPersistent()).isFalse();
+        assertThat(configuration.getExpiryPolicy().getExpiryForCreation(1, 1)).isEqualTo(Duration.ofMinutes(10));
+        assertThat(configuration.getExpiryPolicy().getExpiryForAccess(1, () -> 1)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(configuration.getExpiryPolicy().getExpiryForUpdate(1, () -> 1, 2)).isEqualTo(Duration.ofMinutes(10));
+    }
+
+    @Test
+    void entriesEvictedFromHeapAreReadBackFromLowerTiers() {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setHeapEntries(10L);
+        region.setOffHeapSize(DataSize.ofMegabytes(1));
+        region.setDiskSize(DataSize.ofMegabytes(8));
+        applicationProperties.getCache().getRegions().put("overflow", region);
+        createCache("overflow");
+
+        Cache<Object, Object> cache = cacheManager.getCache("overflow");
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, "value-" + i);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(cache.get(i)).isEqualTo("value-" + i);
+        }
+    }
+
+    @Test
+    void eternalRegionNeverExpires() {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setEternal(true);
+        region.setTimeToLive(Duration.ofMinutes(10));
+        applicationProperties.getCache().getRegions().put("eternal", region);
+
+        CacheRuntimeConfiguration<Object, Object> configuration = createCache("eternal");
+
+        assertThat(configuration.getExpiryPolicy().getExpiryForCreation(1, 1)).isEqualTo(ExpiryPolicy.INFINITE);
+    }
+
+    @Test
+    void verifiedTokensExpireWithTheirToken() {
+        CacheRuntimeConfiguration<Object, Object> configuration = createCache(CachingJwtDecoder.VERIFIED_JWTS_CACHE);
+        ExpiryPolicy<? super Object, ? super Object> expiryPolicy = configuration.getExpiryPolicy();
+
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "HS512").expiresAt(Instant.now().plusSeconds(60)).build();
+        Jwt longLivedJwt = Jwt.withTokenValue("token").header("alg", "HS512").expiresAt(Instant.now().plus(Duration.ofDays(1))).build();
+        Jwt expiredJwt = Jwt.withTokenValue("token").header("alg", "HS512").expiresAt(Instant.now().minusSeconds(1)).build();
+
+        assertThat(expiryPolicy.getExpiryForCreation("key", jwt)).isBetween(Duration.ofSeconds(50), Duration.ofSeconds(60));
+        assertThat(expiryPolicy.getExpiryForCreation("key", longLivedJwt)).isEqualTo(Duration.ofHours(1));
+        assertThat(expiryPolicy.getExpiryForCreation("key", expiredJwt)).isZero();
+    }
+
+    @Test
+    void diskTierRequiresDiskPath() {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setDiskSize(DataSize.ofMegabytes(4));
+        applicationProperties.getCache().getRegions().put("disk", region);
+        applicationProperties.getCache().setDiskPath(null);
+
+        CacheConfiguration cacheConfiguration = new CacheConfiguration(jHipsterProperties, applicationProperties);
+
+        assertThatIllegalStateException().isThrownBy(() -> cacheConfiguration.jcacheConfiguration("disk")).withMessageContaining("disk-path");
+    }
+
+    @SuppressWarnings("unchecked")
+    private CacheRuntimeConfiguration<Object, Object> createCache(String cacheName) {
+        CacheConfiguration cacheConfiguration = new CacheConfiguration(jHipsterProperties, applicationProperties);
+        return (CacheRuntimeConfiguration<Object, Object>) cacheManager
+            .createCache(cacheName, cacheConfiguration.jcacheConfiguration(cacheName))
+            .getConfiguration(Eh107Configuration.class)
+            .unwrap(CacheRuntimeConfiguration.class);
+    }
+}
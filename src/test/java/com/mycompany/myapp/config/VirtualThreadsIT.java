@@ -0,0 +1,113 @@
+package com.mycompany.myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.mock.env.MockEnvironment;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Integration tests of {@code spring.threads.virtual.enabled}, run on Java 21 or later by the {@code java21} Maven profile.
+ * <p>
+ * The classes are built for Java 17, so {@code Thread.isVirtual()} is called reflectively.
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadsIT {
+
+    private MockEnvironment env;
+
+    @BeforeEach
+    void setup() {
+        env = new MockEnvironment();
+        env.setProperty("spring.threads.virtual.enabled", "true");
+    }
+
+    @Test
+    void requestsRunOnVirtualThreads() throws Exception {
+        UndertowServletWebServerFactory factory = new UndertowServletWebServerFactory(0);
+        new WebConfigurer(env, new JHipsterProperties()).customize(factory);
+        WebServer webServer = factory.getWebServer(servletContext ->
+            servletContext
+                .addServlet(
+                    "thread",
+                    new HttpServlet() {
+                        @Override
+                        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                            response.getWriter().print(isVirtual(Thread.currentThread()));
+                        }
+                    }
+                )
+                .addMapping("/thread")
+        );
+        webServer.start();
+        try {
+            HttpResponse<String> response = HttpClient.newHttpClient()
+                .send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + webServer.getPort() + "/thread")).build(),
+                    HttpResponse.BodyHandlers.ofString()
+                );
+
+            assertThat(response.body()).isEqualTo("true");
+        } finally {
+            webServer.stop();
+        }
+    }
+
+    @Test
+    void asyncTasksRunOnVirtualThreadsAtMostMaxSizeAtOnce() throws Exception {
+        TaskExecutionProperties taskExecutionProperties = new TaskExecutionProperties();
+        taskExecutionProperties.getPool().setMaxSize(2);
+        Executor executor = new AsyncConfiguration(taskExecutionProperties, env).getAsyncExecutor();
+        int tasks = 10;
+        CountDownLatch done = new CountDownLatch(tasks);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Queue<Boolean> virtual = new ConcurrentLinkedQueue<>();
+
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                virtual.add(isVirtual(Thread.currentThread()));
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(virtual).hasSize(tasks).containsOnly(true);
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+    }
+
+    private static boolean isVirtual(Thread thread) {
+        try {
+            return (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
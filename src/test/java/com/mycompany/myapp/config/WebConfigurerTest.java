@@ -46,6 +46,19 @@ class WebConfigurerTest {
         webConfigurer = new WebConfigurer(env, props);
     }
 
+    @Test
+    void shouldRunRequestsOnVirtualThreadsWhenEnabled() {
+        UndertowServletWebServerFactory container = new UndertowServletWebServerFactory();
+        webConfigurer.customize(container);
+        assertThat(container.getDeploymentInfoCustomizers()).isEmpty();
+
+        env.setProperty("spring.threads.virtual.enabled", "true");
+        container = new UndertowServletWebServerFactory();
+        webConfigurer.customize(container);
+        // Java 17 has no virtual threads, so the requests stay on the worker threads
+        assertThat(container.getDeploymentInfoCustomizers()).hasSize(Runtime.version().feature() >= 21 ? 1 : 0);
+    }
+
     @Test
     void shouldCustomizeServletContainer() {
         env.setActiveProfiles(JHipsterConstants.SPRING_PROFILE_PRODUCTION);
@@ -0,0 +1,73 @@
+package com.mycompany.myapp.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import org.assertj.core.data.Percentage;
+import org.junit.jupiter.api.Test;
+
+class CacheKeyHitsTest {
+
+    private static final String CACHE = "cache";
+
+    @Test
+    void topKeysAreMostHitFirst() {
+        CacheKeyHits keyHits = new CacheKeyHits(1, 10);
+        keyHits.record(CACHE, "once");
+        keyHits.record(CACHE, "twice");
+        keyHits.record(CACHE, "twice");
+        keyHits.record("other", "thrice");
+
+        assertThat(keyHits.top(CACHE, 1)).containsExactly(Map.entry("twice", 2L));
+        assertThat(keyHits.top(CACHE, 10)).containsExactly(Map.entry("twice", 2L), Map.entry("once", 1L));
+        assertThat(keyHits.top("unknown", 10)).isEmpty();
+    }
+
+    @Test
+    void fullTableHalvesCountsAndDropsKeysLeftWithoutHits() {
+        CacheKeyHits keyHits = new CacheKeyHits(1, 4);
+        for (int i = 0; i < 4; i++) {
+            for (int hit = 0; hit <= i; hit++) {
+                keyHits.record(CACHE, i);
+            }
+        }
+
+        keyHits.record(CACHE, "new");
+
+        assertThat(keyHits.top(CACHE, 1)).containsExactly(Map.entry(3, 2L));
+        assertThat(keyHits.top(CACHE, 10)).containsExactlyInAnyOrder(
+            Map.entry(3, 2L),
+            Map.entry(2, 1L),
+            Map.entry(1, 1L),
+            Map.entry("new", 1L)
+        );
+    }
+
+    @Test
+    void keysHitLongAgoFadeOut() {
+        CacheKeyHits keyHits = new CacheKeyHits(1, 2);
+        for (int hit = 0; hit < 8; hit++) {
+            keyHits.record(CACHE, "old");
+        }
+
+        // each new key halves the counts of the full table
+        for (int i = 0; i < 4; i++) {
+            keyHits.record(CACHE, "new" + i);
+            keyHits.record(CACHE, "new" + i);
+        }
+
+        assertThat(keyHits.top(CACHE, 10)).extracting(Map.Entry::getKey).doesNotContain("old");
+    }
+
+    @Test
+    void sampledHitsAreScaledBack() {
+        CacheKeyHits keyHits = new CacheKeyHits(8, 10);
+        for (int hit = 0; hit < 80_000; hit++) {
+            keyHits.record(CACHE, "key");
+        }
+
+        assertThat(keyHits.top(CACHE, 1))
+            .singleElement()
+            .satisfies(entry -> assertThat(entry.getValue()).isCloseTo(80_000L, Percentage.withPercentage(5)));
+    }
+}
@@ -0,0 +1,124 @@
+package com.mycompany.myapp.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.security.CachingJwtDecoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Objects;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Integration tests for {@link CacheStatisticsEndpoint} and the cache meters.
+ */
+@IntegrationTest
+class CacheStatisticsEndpointIT {
+
+    @Autowired
+    private CacheStatisticsEndpoint cacheStatisticsEndpoint;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheKeyHits cacheKeyHits;
+
+    private Cache cache;
+
+    @BeforeEach
+    public void initTest() {
+        cache = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE));
+        cache.clear();
+        cacheKeyHits.clear(UserRepository.USERS_BY_EMAIL_CACHE);
+    }
+
+    @Test
+    void statisticsCountHitsMissesAndPuts() {
+        CacheStatisticsEndpoint.CacheStatistics before = cacheStatisticsEndpoint.caches().get(UserRepository.USERS_BY_EMAIL_CACHE);
+        String key = UUID.randomUUID().toString();
+
+        assertThat(cache.get(key)).isNull();
+        cache.put(key, "value");
+        cache.get(key);
+        cache.get(key);
+
+        CacheStatisticsEndpoint.CacheStatistics after = cacheStatisticsEndpoint.caches().get(UserRepository.USERS_BY_EMAIL_CACHE);
+        assertThat(after.getHits()).isEqualTo(before.getHits() + 2);
+        assertThat(after.getMisses()).isEqualTo(before.getMisses() + 1);
+        assertThat(after.getPuts()).isEqualTo(before.getPuts() + 1);
+        assertThat(after.getHeapEntries()).isPositive();
+        assertThat(after.getOffHeapBytes()).isNull();
+        assertThat(after.getEntries()).isNull();
+    }
+
+    @Test
+    void cacheDetailsCountEntriesAndTopKeys() {
+        cache.put("often", "value");
+        cache.put("once", "value");
+        cache.put("never", "value");
+        for (int i = 0; i < 3; i++) {
+            cache.get("often");
+        }
+        cache.get("once");
+
+        CacheStatisticsEndpoint.CacheStatistics statistics = cacheStatisticsEndpoint.cache(UserRepository.USERS_BY_EMAIL_CACHE);
+
+        assertThat(statistics.getEntries()).isEqualTo(3);
+        assertThat(statistics.getEstimatedBytes()).isPositive();
+        assertThat(statistics.getTopKeys()).extracting(CacheStatisticsEndpoint.KeyHits::getKey).containsExactly("often", "once");
+        assertThat(statistics.getTopKeys()).extracting(CacheStatisticsEndpoint.KeyHits::getHits).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void readingCacheDetailsIsNotCountedAsKeyHits() {
+        cache.put("key", "value");
+        cacheStatisticsEndpoint.cache(UserRepository.USERS_BY_EMAIL_CACHE);
+
+        assertThat(cacheStatisticsEndpoint.cache(UserRepository.USERS_BY_EMAIL_CACHE).getTopKeys()).isEmpty();
+    }
+
+    @Test
+    void tokenCacheKeysAreNotCounted() {
+        Cache tokenCache = Objects.requireNonNull(cacheManager.getCache(CachingJwtDecoder.VERIFIED_JWTS_CACHE));
+        String key = UUID.randomUUID().toString();
+        tokenCache.put(key, "value");
+        tokenCache.get(key);
+
+        assertThat(cacheStatisticsEndpoint.caches().get(CachingJwtDecoder.VERIFIED_JWTS_CACHE).getTopKeys()).isEmpty();
+        tokenCache.evict(key);
+    }
+
+    @Test
+    void unknownCacheHasNoDetails() {
+        assertThat(cacheStatisticsEndpoint.cache("unknown")).isNull();
+    }
+
+    @Test
+    void cacheMetersAreBound() {
+        String key = UUID.randomUUID().toString();
+        cache.put(key, "value");
+        double hits = meterRegistry.get("cache.gets").tag("cache", UserRepository.USERS_BY_EMAIL_CACHE).tag("result", "hit").functionCounter().count();
+
+        cache.get(key);
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", UserRepository.USERS_BY_EMAIL_CACHE).tag("result", "hit").functionCounter().count())
+            .isEqualTo(hits + 1);
+        assertThat(
+            meterRegistry
+                .get(CacheMetersService.AVERAGE_LATENCY_METER_NAME)
+                .tag(CacheMetersService.AVERAGE_LATENCY_METER_CACHE_DIMENSION, UserRepository.USERS_BY_EMAIL_CACHE)
+                .tag(CacheMetersService.AVERAGE_LATENCY_METER_OPERATION_DIMENSION, "get")
+                .gauge()
+                .value()
+        ).isNotNaN();
+    }
+}
@@ -6,6 +6,7 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -13,6 +14,10 @@ class SecurityMetersServiceTests {
 
     private static final String INVALID_TOKENS_METER_EXPECTED_NAME = "security.authentication.invalid-tokens";
 
+    private static final String TOKEN_DECODE_METER_EXPECTED_NAME = "security.authentication.token-decode";
+
+    private static final String THROTTLED_LOGINS_METER_EXPECTED_NAME = "security.authentication.throttled-logins";
+
     private MeterRegistry meterRegistry;
 
     private SecurityMetersService securityMetersService;
@@ -67,4 +72,26 @@ class SecurityMetersServiceTests {
 
         assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count()).isEqualTo(1);
     }
+
+    @Test
+    void testTokenDecodeIsTimedByCacheResult() {
+        securityMetersService.trackTokenDecode(true, 1000);
+        securityMetersService.trackTokenDecode(false, 5000);
+        securityMetersService.trackTokenDecode(false, 7000);
+
+        assertThat(meterRegistry.get(TOKEN_DECODE_METER_EXPECTED_NAME).tag("cache", "hit").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(TOKEN_DECODE_METER_EXPECTED_NAME).tag("cache", "miss").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(TOKEN_DECODE_METER_EXPECTED_NAME).tag("cache", "miss").timer().totalTime(TimeUnit.NANOSECONDS))
+            .isEqualTo(12000);
+    }
+
+    @Test
+    void testThrottledLoginsAreCountedByKey() {
+        securityMetersService.trackLoginThrottledByLogin();
+        securityMetersService.trackLoginThrottledByIp();
+        securityMetersService.trackLoginThrottledByIp();
+
+        assertThat(meterRegistry.get(THROTTLED_LOGINS_METER_EXPECTED_NAME).tag("key", "login").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(THROTTLED_LOGINS_METER_EXPECTED_NAME).tag("key", "ip").counter().count()).isEqualTo(2);
+    }
 }
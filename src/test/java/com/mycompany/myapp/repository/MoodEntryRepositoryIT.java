@@ -0,0 +1,93 @@
+package com.mycompany.myapp.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.MoodEntry;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.domain.enumeration.MoodType;
+import com.mycompany.myapp.web.rest.UserResourceIT;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.Session;
+import org.hibernate.SessionEventListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link MoodEntryRepository}.
+ */
+@IntegrationTest
+@Transactional
+class MoodEntryRepositoryIT {
+
+    private static final int ENTRY_COUNT = 500;
+
+    // hibernate.jdbc.batch_size
+    private static final int BATCH_SIZE = 25;
+
+    // allocationSize of the id generator
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    @Autowired
+    private MoodEntryRepository moodEntryRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Test
+    void saveAllBatchesInserts() {
+        User user = UserResourceIT.createEntity();
+        em.persist(user);
+        em.flush();
+
+        List<MoodEntry> moodEntries = new ArrayList<>(ENTRY_COUNT);
+        LocalDate firstDate = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            moodEntries.add(new MoodEntry().date(firstDate.plusDays(i)).mood(MoodType.values()[i % MoodType.values().length]).user(user));
+        }
+
+        StatementCounter counter = new StatementCounter();
+        em.unwrap(Session.class).addEventListeners(counter);
+        moodEntryRepository.saveAll(moodEntries);
+        em.flush();
+
+        // One batch per 25 inserts, and a select and an update of the generator row per block of 50 ids,
+        // plus one block when the ids left from a previous test do not cover the last entries
+        assertThat(counter.batches).isEqualTo(ENTRY_COUNT / BATCH_SIZE);
+        assertThat(counter.statements).isBetween(2 * (ENTRY_COUNT / ID_ALLOCATION_SIZE), 2 * (ENTRY_COUNT / ID_ALLOCATION_SIZE + 1));
+        assertThat(moodEntries).extracting(MoodEntry::getId).doesNotContainNull().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void idsContinueAfterExistingIds() {
+        MoodEntry moodEntry = new MoodEntry().date(LocalDate.of(2020, 1, 1)).mood(MoodType.HAPPY).user(UserResourceIT.createEntity());
+        em.persist(moodEntry.getUser());
+        em.persist(moodEntry);
+
+        assertThat(moodEntry.getUser().getId()).isGreaterThanOrEqualTo(1050L);
+        assertThat(moodEntry.getId()).isGreaterThanOrEqualTo(1500L);
+    }
+
+    /**
+     * Counts the JDBC round trips of a session, a batch being a single round trip.
+     */
+    private static class StatementCounter implements SessionEventListener {
+
+        private int batches;
+        private int statements;
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            statements++;
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            batches++;
+        }
+    }
+}
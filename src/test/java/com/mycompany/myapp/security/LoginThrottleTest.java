@@ -0,0 +1,153 @@
+package com.mycompany.myapp.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.mycompany.myapp.management.SecurityMetersService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link LoginThrottle}.
+ */
+class LoginThrottleTest {
+
+    private MeterRegistry meterRegistry;
+
+    private SecurityMetersService metersService;
+
+    private LoginThrottle throttle;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        metersService = new SecurityMetersService(meterRegistry);
+        throttle = new LoginThrottle(3, Duration.ofMinutes(1), 10, Duration.ofMinutes(1), 1000, metersService);
+    }
+
+    @Test
+    void rejectsAttemptsBeyondTheBurstOfALogin() {
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("user", "10.0.0." + i);
+        }
+
+        assertThatThrownBy(() -> throttle.acquire("USER", "10.0.0.9"))
+            .isInstanceOf(LoginThrottledException.class)
+            .extracting(e -> ((LoginThrottledException) e).getRetryAfter())
+            .matches(retryAfter -> retryAfter.compareTo(Duration.ZERO) > 0 && retryAfter.compareTo(Duration.ofMinutes(1)) <= 0);
+        assertThatCode(() -> throttle.acquire("other", "10.0.0.9")).doesNotThrowAnyException();
+        assertThat(meterRegistry.get("security.authentication.throttled-logins").tag("key", "login").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsAttemptsBeyondTheBurstOfAnIp() {
+        for (int i = 0; i < 10; i++) {
+            throttle.acquire("user" + i, "10.0.0.1");
+        }
+
+        assertThatThrownBy(() -> throttle.acquire("another", "10.0.0.1")).isInstanceOf(LoginThrottledException.class);
+        assertThatCode(() -> throttle.acquire("another", "10.0.0.2")).doesNotThrowAnyException();
+        assertThat(meterRegistry.get("security.authentication.throttled-logins").tag("key", "ip").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void resetRefillsTheLogin() {
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("user", "10.0.0.1");
+        }
+
+        throttle.reset("User");
+
+        assertThatCode(() -> throttle.acquire("user", "10.0.0.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void refillsOneAttemptPerInterval() throws InterruptedException {
+        throttle = new LoginThrottle(1, Duration.ofMillis(50), 10, Duration.ofMillis(50), 1000, metersService);
+        throttle.acquire("user", "10.0.0.1");
+        assertThatThrownBy(() -> throttle.acquire("user", "10.0.0.1")).isInstanceOf(LoginThrottledException.class);
+
+        Thread.sleep(60);
+
+        assertThatCode(() -> throttle.acquire("user", "10.0.0.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void fullBucketsAreRemoved() throws InterruptedException {
+        throttle = new LoginThrottle(1, Duration.ofMillis(50), 10, Duration.ofMillis(50), 1000, metersService);
+        throttle.acquire("user", "10.0.0.1");
+
+        Thread.sleep(60);
+        throttle.removeFullBuckets();
+
+        assertThatCode(() -> throttle.acquire("user", "10.0.0.1")).doesNotThrowAnyException();
+        assertThatThrownBy(() -> throttle.acquire("user", "10.0.0.1")).isInstanceOf(LoginThrottledException.class);
+    }
+
+    @Test
+    void keysBeyondTheMaximumAreThrottled() {
+        // one key per stripe
+        throttle = new LoginThrottle(1, Duration.ofHours(1), 1000, Duration.ofHours(1), 16, metersService);
+        int throttled = 0;
+        for (int i = 0; i < 200; i++) {
+            throttle.acquire("user" + i, "10.0.0.1");
+            try {
+                throttle.acquire("user" + i, "10.0.0.1");
+            } catch (LoginThrottledException e) {
+                throttled++;
+            }
+        }
+
+        assertThat(throttled).isEqualTo(200);
+    }
+
+    @Test
+    void newKeysDoNotEvictTheMostThrottledKey() {
+        // eight keys per stripe
+        throttle = new LoginThrottle(3, Duration.ofHours(1), 100_000, Duration.ofHours(1), 128, metersService);
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("user", "10.0.0.1");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            throttle.acquire("other" + i, "10.0.0.1");
+        }
+
+        assertThatThrownBy(() -> throttle.acquire("user", "10.0.0.1")).isInstanceOf(LoginThrottledException.class);
+    }
+
+    @Test
+    void concurrentAttemptsTakeExactlyTheBurst() throws InterruptedException {
+        throttle = new LoginThrottle(100, Duration.ofHours(1), 1000, Duration.ofHours(1), 1000, metersService);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 400; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    throttle.acquire("user", "10.0.0.1");
+                    allowed.incrementAndGet();
+                } catch (LoginThrottledException e) {
+                    // expected beyond the burst
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(allowed.get()).isEqualTo(100);
+    }
+}
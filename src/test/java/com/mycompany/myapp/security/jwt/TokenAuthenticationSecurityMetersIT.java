@@ -20,6 +20,8 @@ class TokenAuthenticationSecurityMetersIT {
 
     private static final String INVALID_TOKENS_METER_EXPECTED_NAME = "security.authentication.invalid-tokens";
 
+    private static final String TOKEN_DECODE_METER_EXPECTED_NAME = "security.authentication.token-decode";
+
     @Autowired
     private MockMvc mvc;
 
@@ -78,6 +80,29 @@ class TokenAuthenticationSecurityMetersIT {
         assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count()).isEqualTo(count + 1);
     }
 
+    @Test
+    void testTokenUnsupportedCount() throws Exception {
+        var count = meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "unsupported").counter().count();
+
+        tryToAuthenticate(createUnsignedToken());
+
+        assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "unsupported").counter().count()).isEqualTo(count + 1);
+    }
+
+    @Test
+    void testRepeatedTokenIsDecodedFromCache() throws Exception {
+        // another user than the other tests, which may have cached the same token within the second
+        String token = createValidTokenForUser(jwtKey, "cached");
+        var hits = meterRegistry.get(TOKEN_DECODE_METER_EXPECTED_NAME).tag("cache", "hit").timer().count();
+        var misses = meterRegistry.get(TOKEN_DECODE_METER_EXPECTED_NAME).tag("cache", "miss").timer().count();
+
+        tryToAuthenticate(token);
+        tryToAuthenticate(token);
+
+        assertThat(meterRegistry.get(TOKEN_DECODE_METER_EXPECTED_NAME).tag("cache", "miss").timer().count()).isEqualTo(misses + 1);
+        assertThat(meterRegistry.get(TOKEN_DECODE_METER_EXPECTED_NAME).tag("cache", "hit").timer().count()).isEqualTo(hits + 1);
+    }
+
     private void tryToAuthenticate(String token) throws Exception {
         mvc.perform(MockMvcRequestBuilders.get("/api/authenticate").header(AUTHORIZATION, BEARER + token));
     }
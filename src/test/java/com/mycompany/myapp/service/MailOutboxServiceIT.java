@@ -0,0 +1,215 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.OutboxMail;
+import com.mycompany.myapp.repository.OutboxMailRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Integration tests for {@link MailOutboxService}, sending to a {@link LocalSmtpServer}.
+ */
+@IntegrationTest
+class MailOutboxServiceIT {
+
+    private static final Duration INITIAL_BACKOFF = Duration.ofMinutes(1);
+
+    private static final int UNLIMITED_RATE = 100_000_000;
+
+    private static LocalSmtpServer smtpServer;
+
+    @Autowired
+    private OutboxMailRepository outboxMailRepository;
+
+    @Autowired
+    private JHipsterProperties jHipsterProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void startSmtpServer() throws Exception {
+        smtpServer = new LocalSmtpServer();
+    }
+
+    @AfterAll
+    static void stopSmtpServer() throws Exception {
+        smtpServer.close();
+    }
+
+    @BeforeEach
+    void setup() {
+        outboxMailRepository.deleteAll();
+        smtpServer.reset();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void cleanup() {
+        outboxMailRepository.deleteAll();
+    }
+
+    @Test
+    void eachBatchIsSentOverOneConnection() {
+        MailOutboxService outbox = createService(3, UNLIMITED_RATE, 8);
+        for (int i = 0; i < 5; i++) {
+            outbox.enqueue("user" + i + "@example.com", "subject " + i, "content " + i, false, false);
+        }
+
+        outbox.deliver();
+
+        assertThat(smtpServer.getMessages()).hasSize(5);
+        assertThat(smtpServer.getMessages().get(0)).contains("Subject: subject 0", "To: user0@example.com", "content 0");
+        assertThat(smtpServer.getConnections()).isEqualTo(2);
+        assertThat(outboxMailRepository.count()).isZero();
+        assertThat(meterRegistry.get("mail.outbox.deliveries").tag("result", "sent").counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("mail.outbox.connections").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectedMailIsTriedAgainAfterBackoff() {
+        MailOutboxService outbox = createService(20, UNLIMITED_RATE, 8);
+        outbox.enqueue("rejected@example.com", "first", "content", false, true);
+        outbox.enqueue("accepted@example.com", "second", "content", false, true);
+        smtpServer.rejectNextRecipients(1);
+
+        Instant attempt = Instant.now();
+        outbox.deliver();
+
+        assertThat(smtpServer.getMessages()).singleElement().asString().contains("To: accepted@example.com");
+        OutboxMail rejected = outboxMailRepository.findAll().get(0);
+        assertThat(rejected.getRecipient()).isEqualTo("rejected@example.com");
+        assertThat(rejected.getAttempts()).isEqualTo(1);
+        assertThat(rejected.getLastError()).contains("451");
+        assertThat(rejected.getNextAttemptAt()).isCloseTo(attempt.plus(INITIAL_BACKOFF), within(5, ChronoUnit.SECONDS));
+
+        // not due yet
+        outbox.deliver();
+        assertThat(smtpServer.getMessages()).hasSize(1);
+
+        outboxMailRepository.save(rejected.nextAttemptAt(Instant.now()));
+        outbox.deliver();
+
+        assertThat(smtpServer.getMessages()).hasSize(2);
+        assertThat(outboxMailRepository.count()).isZero();
+        assertThat(meterRegistry.get("mail.outbox.deliveries").tag("result", "retried").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void mailIsDroppedAfterMaxAttempts() {
+        MailOutboxService outbox = createService(20, UNLIMITED_RATE, 2);
+        outbox.enqueue("rejected@example.com", "subject", "content", false, false);
+        smtpServer.rejectNextRecipients(2);
+
+        outbox.deliver();
+        outboxMailRepository.save(outboxMailRepository.findAll().get(0).nextAttemptAt(Instant.now()));
+        outbox.deliver();
+
+        assertThat(smtpServer.getMessages()).isEmpty();
+        assertThat(outboxMailRepository.count()).isZero();
+        assertThat(meterRegistry.get("mail.outbox.deliveries").tag("result", "dropped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void mailsAreSentAtTheRate() {
+        // a batch at once, then one a minute
+        MailOutboxService outbox = createService(2, 1, 8);
+        for (int i = 0; i < 3; i++) {
+            outbox.enqueue("user" + i + "@example.com", "subject", "content", false, false);
+        }
+
+        outbox.deliver();
+        outbox.deliver();
+
+        assertThat(smtpServer.getMessages()).hasSize(2);
+        assertThat(outboxMailRepository.findAll()).extracting(OutboxMail::getRecipient).containsExactly("user2@example.com");
+    }
+
+    @Test
+    void scheduledDeliverySendsOnItsOwnThread() throws Exception {
+        Queue<String> sendingThreads = new ConcurrentLinkedQueue<>();
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl() {
+            @Override
+            public void send(MimeMessage... mimeMessages) {
+                sendingThreads.add(Thread.currentThread().getName());
+                super.send(mimeMessages);
+            }
+        };
+        MailOutboxService outbox = createService(javaMailSender, 20, UNLIMITED_RATE, 8);
+        outbox.enqueue("user@example.com", "subject", "content", false, false);
+
+        try {
+            outbox.scheduleDelivery();
+            for (int i = 0; i < 100 && outboxMailRepository.count() > 0; i++) {
+                Thread.sleep(100);
+            }
+        } finally {
+            outbox.destroy();
+        }
+
+        assertThat(smtpServer.getMessages()).hasSize(1);
+        assertThat(outboxMailRepository.count()).isZero();
+        assertThat(sendingThreads).singleElement().asString().startsWith("mail-outbox-");
+    }
+
+    @Test
+    void backoffDoublesUpToTheMax() {
+        MailOutboxService outbox = createService(20, UNLIMITED_RATE, 8);
+
+        assertThat(List.of(outbox.backoff(1), outbox.backoff(2), outbox.backoff(3), outbox.backoff(7), outbox.backoff(40))).containsExactly(
+            INITIAL_BACKOFF,
+            INITIAL_BACKOFF.multipliedBy(2),
+            INITIAL_BACKOFF.multipliedBy(4),
+            Duration.ofHours(1),
+            Duration.ofHours(1)
+        );
+    }
+
+    private MailOutboxService createService(int batchSize, int ratePerMinute, int maxAttempts) {
+        return createService(new JavaMailSenderImpl(), batchSize, ratePerMinute, maxAttempts);
+    }
+
+    private MailOutboxService createService(JavaMailSenderImpl javaMailSender, int batchSize, int ratePerMinute, int maxAttempts) {
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(smtpServer.getPort());
+        Properties properties = new Properties();
+        properties.setProperty("mail.smtp.connectiontimeout", "5000");
+        properties.setProperty("mail.smtp.timeout", "5000");
+        javaMailSender.setJavaMailProperties(properties);
+        return new MailOutboxService(
+            outboxMailRepository,
+            javaMailSender,
+            jHipsterProperties,
+            transactionManager,
+            meterRegistry,
+            batchSize,
+            ratePerMinute,
+            maxAttempts,
+            INITIAL_BACKOFF,
+            Duration.ofHours(1),
+            Duration.ofMinutes(5)
+        );
+    }
+}
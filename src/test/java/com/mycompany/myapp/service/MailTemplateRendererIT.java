@@ -0,0 +1,118 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.User;
+import java.util.Locale;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSource;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Integration tests for {@link MailTemplateRenderer}, checking the prepared templates against Thymeleaf.
+ */
+@IntegrationTest
+class MailTemplateRendererIT {
+
+    @Autowired
+    private SpringTemplateEngine templateEngine;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    @Autowired
+    private JHipsterProperties jHipsterProperties;
+
+    private SpringTemplateEngine spiedTemplateEngine;
+
+    private MailTemplateRenderer renderer;
+
+    private MailTemplateRenderer thymeleafRenderer;
+
+    @BeforeEach
+    void setup() {
+        spiedTemplateEngine = spy(templateEngine);
+        renderer = new MailTemplateRenderer(spiedTemplateEngine, messageSource, jHipsterProperties, true);
+        thymeleafRenderer = new MailTemplateRenderer(templateEngine, messageSource, jHipsterProperties, false);
+    }
+
+    @Test
+    void templatesAreRenderedOncePerLocale() {
+        for (String template : new String[] { "mail/activationEmail", "mail/creationEmail", "mail/passwordResetEmail" }) {
+            for (int i = 0; i < 3; i++) {
+                User user = createUser("john" + i, "Jo<&\"'>" + i);
+                assertThat(renderer.render(user, template, "email.activation.title", Locale.ENGLISH)).isEqualTo(
+                    thymeleafRenderer.render(user, template, "email.activation.title", Locale.ENGLISH)
+                );
+            }
+            // once with the markers, twice to check them
+            verify(spiedTemplateEngine, times(3)).process(eq(template), any(IContext.class));
+        }
+    }
+
+    @Test
+    void escapedUserFieldsAreFilled() {
+        User user = createUser("o'brien", "key<&\">");
+
+        MailTemplateRenderer.RenderedMail mail = renderer.render(user, "mail/activationEmail", "email.activation.title", Locale.ENGLISH);
+
+        assertThat(mail.subject()).isEqualTo("dailyMoodTracker account activation is required");
+        assertThat(mail.content()).contains("Dear o&#39;brien", "key=key&lt;&amp;&quot;&gt;");
+    }
+
+    @Test
+    void mailForUserMissingAFieldIsRenderedByThymeleaf() {
+        User user = createUser("john", null);
+
+        assertThat(renderer.render(user, "mail/activationEmail", "email.activation.title", Locale.ENGLISH)).isEqualTo(
+            thymeleafRenderer.render(user, "mail/activationEmail", "email.activation.title", Locale.ENGLISH)
+        );
+        verify(spiedTemplateEngine, times(4)).process(eq("mail/activationEmail"), any(IContext.class));
+    }
+
+    @Test
+    void templateTransformingAFieldIsRenderedByThymeleaf() {
+        User user = createUser("john", "key");
+
+        assertThat(renderer.render(user, "mail/testUpperCaseEmail", "email.test.title", Locale.ENGLISH).content()).contains(
+            "test title, JOHN"
+        );
+        user.setLogin("jane");
+        assertThat(renderer.render(user, "mail/testUpperCaseEmail", "email.test.title", Locale.ENGLISH).content()).contains(
+            "test title, JANE"
+        );
+    }
+
+    @Test
+    void templateTestingAnotherPropertyIsRenderedByThymeleaf() {
+        User user = createUser("john", "key");
+
+        assertThat(renderer.render(user, "mail/testActivatedEmail", "email.test.title", Locale.ENGLISH).content()).contains(
+            "test title, john"
+        );
+        user.setActivated(true);
+        assertThat(renderer.render(user, "mail/testActivatedEmail", "email.test.title", Locale.ENGLISH).content()).contains(
+            "test title, john, activated"
+        );
+    }
+
+    private static User createUser(String login, String activationKey) {
+        User user = new User();
+        user.setLogin(login);
+        user.setEmail(login + "@example.com");
+        user.setActivationKey(activationKey);
+        user.setResetKey("reset" + login);
+        user.setLangKey("en");
+        return user;
+    }
+}
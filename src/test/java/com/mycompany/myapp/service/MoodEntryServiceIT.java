@@ -1,6 +1,7 @@
 package com.mycompany.myapp.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.Mockito.*;
 
 import com.mycompany.myapp.IntegrationTest;
@@ -11,6 +12,9 @@ import com.mycompany.myapp.repository.MoodEntryRepository;
 import com.mycompany.myapp.repository.UserRepository;
 import com.mycompany.myapp.security.SecurityUtils;
 import com.mycompany.myapp.service.dto.MoodEntryDTO;
+import com.mycompany.myapp.service.dto.MoodStatisticsDTO;
+import com.mycompany.myapp.service.dto.MoodStatisticsDeltaDTO;
+import com.mycompany.myapp.service.dto.MoodTrendDTO;
 import com.mycompany.myapp.service.dto.UserDTO;
 import com.mycompany.myapp.web.rest.TestUtil;
 import com.mycompany.myapp.web.rest.UserResourceIT;
@@ -49,6 +53,9 @@ class MoodEntryServiceIT {
     @Autowired
     private MoodEntryService moodEntryService;
 
+    @Autowired
+    private MoodStatisticsCacheService moodStatisticsCacheService;
+
     @Autowired
     private EntityManager em;
 
@@ -236,4 +243,72 @@ class MoodEntryServiceIT {
         List<MoodEntry> moodEntryList = moodEntryRepository.findAll();
         assertThat(moodEntryList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    @Transactional
+    @WithMockUser(username = "testuser")
+    void getMoodStatisticsAggregatesInDatabase() {
+        // Initialize the database: 3 happy days, then sad days with a gap two days ago
+        LocalDate today = LocalDate.now();
+        moodEntryRepository.saveAndFlush(new MoodEntry().date(today.minusDays(6)).mood(MoodType.HAPPY).user(user));
+        moodEntryRepository.saveAndFlush(new MoodEntry().date(today.minusDays(5)).mood(MoodType.HAPPY).user(user));
+        moodEntryRepository.saveAndFlush(new MoodEntry().date(today.minusDays(4)).mood(MoodType.HAPPY).user(user));
+        moodEntryRepository.saveAndFlush(new MoodEntry().date(today.minusDays(3)).mood(MoodType.SAD).user(user));
+        moodEntryRepository.saveAndFlush(new MoodEntry().date(today.minusDays(1)).mood(MoodType.SAD).user(user));
+        moodEntryRepository.saveAndFlush(new MoodEntry().date(today).mood(MoodType.SAD).user(user));
+
+        MoodStatisticsDTO statistics = moodEntryService.getMoodStatisticsForCurrentUser(today.minusDays(10), today);
+
+        assertThat(statistics.getTotalEntries()).isEqualTo(6L);
+        assertThat(statistics.getMoodDistribution()).containsEntry(MoodType.HAPPY, 3L).containsEntry(MoodType.SAD, 3L);
+        assertThat(statistics.getAverageMoodScore()).isEqualTo(3.0);
+        assertThat(statistics.getTrends()).extracting(MoodTrendDTO::getDate).isSorted().hasSize(6);
+        // Only today and yesterday are consecutive days
+        assertThat(statistics.getCurrentStreak()).isEqualTo(2L);
+        assertThat(statistics.getCurrentStreakMood()).isEqualTo(MoodType.SAD);
+        // Both runs have 3 entries, the earliest one wins
+        assertThat(statistics.getLongestStreak()).isEqualTo(3L);
+        assertThat(statistics.getLongestStreakMood()).isEqualTo(MoodType.HAPPY);
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(username = "testuser")
+    void getMoodStatisticsDeltaHoldsTheChangedDayAndTheRangesIncludingIt() {
+        LocalDate today = LocalDate.now();
+        moodEntryRepository.saveAndFlush(new MoodEntry().date(today.minusDays(1)).mood(MoodType.HAPPY).user(user));
+        moodEntryRepository.saveAndFlush(new MoodEntry().date(today).mood(MoodType.HAPPY).user(user));
+        moodStatisticsCacheService.evict(user.getId(), user.getLogin(), today);
+
+        MoodStatisticsDeltaDTO delta = moodEntryService.getMoodStatisticsDelta(
+            new MoodStatisticsChangedEvent(user.getId(), user.getLogin(), today)
+        );
+
+        assertThat(delta.getDate()).isEqualTo(today);
+        assertThat(delta.getMood()).isEqualTo(MoodType.HAPPY);
+        assertThat(delta.getMoodScore()).isEqualTo(5);
+        assertThat(delta.getWeek().getStartDate()).isEqualTo(today.minusDays(6));
+        assertThat(delta.getWeek().getTotalEntries()).isEqualTo(2L);
+        assertThat(delta.getWeek().getMoodDistribution()).containsExactly(entry(MoodType.HAPPY, 2L));
+        assertThat(delta.getWeek().getCurrentStreak()).isEqualTo(2L);
+        assertThat(delta.getWeek().getCurrentStreakMood()).isEqualTo(MoodType.HAPPY);
+        assertThat(delta.getMonth().getStartDate()).isEqualTo(today.withDayOfMonth(1));
+        // The statistics are cached for the next request of the user
+        assertThat(moodEntryService.getMoodStatisticsForLastWeek().getTotalEntries()).isEqualTo(2L);
+    }
+
+    @Test
+    @Transactional
+    void getMoodStatisticsDeltaOfAnOldDeletedDayHasNoRange() {
+        LocalDate date = LocalDate.now().minusMonths(2);
+
+        MoodStatisticsDeltaDTO delta = moodEntryService.getMoodStatisticsDelta(
+            new MoodStatisticsChangedEvent(user.getId(), user.getLogin(), date)
+        );
+
+        assertThat(delta.getDate()).isEqualTo(date);
+        assertThat(delta.getMood()).isNull();
+        assertThat(delta.getWeek()).isNull();
+        assertThat(delta.getMonth()).isNull();
+    }
 }
@@ -1,6 +1,7 @@
 package com.mycompany.myapp.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -9,23 +10,32 @@ import com.mycompany.myapp.domain.MoodEntry;
 import com.mycompany.myapp.domain.User;
 import com.mycompany.myapp.domain.enumeration.MoodType;
 import com.mycompany.myapp.repository.MoodEntryRepository;
+import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.security.SecurityUtils;
 import com.mycompany.myapp.service.dto.MoodEntryDTO;
 import com.mycompany.myapp.service.dto.MoodStatisticsDTO;
+import com.mycompany.myapp.service.dto.MoodTrendDTO;
 import com.mycompany.myapp.service.mapper.MoodEntryMapper;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 /**
  * Integration tests for {@link MoodEntryService}.
@@ -39,6 +49,15 @@ class MoodEntryServiceTest {
     @Mock
     private MoodEntryMapper moodEntryMapper;
 
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private MoodStatisticsCacheService moodStatisticsCacheService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private MoodEntryService moodEntryService;
 
@@ -79,6 +98,131 @@ class MoodEntryServiceTest {
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getMood()).isEqualTo(MoodType.HAPPY);
         verify(moodEntryRepository).save(any(MoodEntry.class));
+        verify(moodStatisticsCacheService).evict(1L, "testuser", testMoodEntry.getDate());
+    }
+
+    @Test
+    void shouldSaveMoodEntryOfTokenUserWithoutLoadingUser() {
+        // given
+        MoodEntry newMoodEntry = new MoodEntry().date(LocalDate.now()).mood(MoodType.HAPPY);
+        when(moodEntryMapper.toEntity(any(MoodEntryDTO.class))).thenReturn(newMoodEntry);
+        when(userRepository.getReferenceById(1L)).thenReturn(testUser);
+        when(moodEntryRepository.save(newMoodEntry)).thenReturn(newMoodEntry);
+        when(moodEntryMapper.toDtoWithoutUser(newMoodEntry)).thenReturn(testMoodEntryDTO);
+
+        try (MockedStatic<SecurityUtils> securityUtils = mockStatic(SecurityUtils.class)) {
+            securityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(Optional.of(1L));
+            securityUtils.when(SecurityUtils::getCurrentUserLogin).thenReturn(Optional.of("testuser"));
+
+            // when
+            MoodEntryDTO result = moodEntryService.save(testMoodEntryDTO);
+
+            // then
+            assertThat(newMoodEntry.getUser()).isSameAs(testUser);
+            assertThat(result.getUser().getId()).isEqualTo(1L);
+            assertThat(result.getUser().getLogin()).isEqualTo("testuser");
+            verify(userRepository, never()).findOneWithAuthoritiesByLogin(any());
+            verify(moodStatisticsCacheService).evict(1L, "testuser", newMoodEntry.getDate());
+        }
+    }
+
+    @Test
+    void shouldUpsertMoodEntryOfCurrentUser() {
+        // given
+        LocalDate today = LocalDate.now();
+        when(moodEntryRepository.upsert(1L, today, MoodType.HAPPY)).thenReturn(new Object[] { 1L, MoodType.HAPPY, 2L });
+        when(moodEntryMapper.toDtoWithoutUser(any(MoodEntry.class))).thenAnswer(invocation -> {
+            MoodEntry moodEntry = invocation.getArgument(0);
+            MoodEntryDTO dto = new MoodEntryDTO();
+            dto.setId(moodEntry.getId());
+            dto.setDate(moodEntry.getDate());
+            dto.setMood(moodEntry.getMood());
+            dto.setVersion(moodEntry.getVersion());
+            return dto;
+        });
+
+        try (MockedStatic<SecurityUtils> securityUtils = mockStatic(SecurityUtils.class)) {
+            securityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(Optional.of(1L));
+            securityUtils.when(SecurityUtils::getCurrentUserLogin).thenReturn(Optional.of("testuser"));
+
+            // when
+            Optional<MoodEntryDTO> result = moodEntryService.upsertForCurrentUser(today, MoodType.HAPPY);
+
+            // then
+            assertThat(result).isPresent();
+            assertThat(result.orElseThrow().getId()).isEqualTo(1L);
+            assertThat(result.orElseThrow().getDate()).isEqualTo(today);
+            assertThat(result.orElseThrow().getVersion()).isEqualTo(2L);
+            assertThat(result.orElseThrow().getUser().getLogin()).isEqualTo("testuser");
+            verify(moodStatisticsCacheService).evict(1L, "testuser", today);
+            verify(eventPublisher).publishEvent(new MoodStatisticsChangedEvent(1L, "testuser", today));
+        }
+    }
+
+    @Test
+    void shouldSetMoodOfCurrentUserAtVersion() {
+        // given
+        testMoodEntry.setVersion(0L);
+        when(moodEntryRepository.findById(1L)).thenReturn(Optional.of(testMoodEntry));
+        when(moodEntryRepository.saveAndFlush(testMoodEntry)).thenAnswer(invocation -> testMoodEntry.version(1L));
+        when(moodEntryMapper.toDtoWithoutUser(any(MoodEntry.class))).thenAnswer(invocation -> {
+            MoodEntry moodEntry = invocation.getArgument(0);
+            MoodEntryDTO dto = new MoodEntryDTO();
+            dto.setId(moodEntry.getId());
+            dto.setDate(moodEntry.getDate());
+            dto.setMood(moodEntry.getMood());
+            dto.setVersion(moodEntry.getVersion());
+            return dto;
+        });
+
+        try (MockedStatic<SecurityUtils> securityUtils = mockStatic(SecurityUtils.class)) {
+            securityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(Optional.of(1L));
+            securityUtils.when(SecurityUtils::getCurrentUserLogin).thenReturn(Optional.of("testuser"));
+
+            // when
+            Optional<MoodEntryDTO> result = moodEntryService.updateMoodForCurrentUser(1L, 0L, MoodType.SAD);
+
+            // then
+            assertThat(result).isPresent();
+            assertThat(result.orElseThrow().getMood()).isEqualTo(MoodType.SAD);
+            assertThat(result.orElseThrow().getVersion()).isEqualTo(1L);
+            assertThat(result.orElseThrow().getUser().getLogin()).isEqualTo("testuser");
+            verify(moodStatisticsCacheService).evict(1L, "testuser", testMoodEntry.getDate());
+        }
+    }
+
+    @Test
+    void shouldReportConflictWhenMoodEntryVersionChanged() {
+        // given
+        testMoodEntry.setVersion(1L);
+        when(moodEntryRepository.findById(1L)).thenReturn(Optional.of(testMoodEntry));
+
+        try (MockedStatic<SecurityUtils> securityUtils = mockStatic(SecurityUtils.class)) {
+            securityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(Optional.of(1L));
+
+            // when / then
+            assertThatThrownBy(() -> moodEntryService.updateMoodForCurrentUser(1L, 0L, MoodType.SAD)).isInstanceOf(
+                ObjectOptimisticLockingFailureException.class
+            );
+            verify(moodEntryRepository, never()).saveAndFlush(any());
+        }
+    }
+
+    @Test
+    void shouldNotSetMoodOfEntryOfAnotherUser() {
+        // given
+        when(moodEntryRepository.findById(1L)).thenReturn(Optional.of(testMoodEntry));
+
+        try (MockedStatic<SecurityUtils> securityUtils = mockStatic(SecurityUtils.class)) {
+            securityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(Optional.of(2L));
+
+            // when
+            Optional<MoodEntryDTO> result = moodEntryService.updateMoodForCurrentUser(1L, 0L, MoodType.SAD);
+
+            // then
+            assertThat(result).isEmpty();
+            verify(moodEntryRepository, never()).saveAndFlush(any());
+        }
     }
 
     @Test
@@ -157,6 +301,24 @@ class MoodEntryServiceTest {
         verify(moodEntryRepository).findByUserIsCurrentUserOrderByDateDesc(pageable);
     }
 
+    @Test
+    void shouldFindSliceForCurrentUserBeforeDate() {
+        // given
+        LocalDate beforeDate = LocalDate.of(2024, 3, 1);
+        Pageable pageable = PageRequest.of(0, 10);
+        Slice<MoodEntry> moodEntrySlice = new SliceImpl<>(Arrays.asList(testMoodEntry), pageable, true);
+        when(moodEntryRepository.findSliceByUserIsCurrentUserAndDateBeforeOrderByDateDesc(beforeDate, pageable)).thenReturn(moodEntrySlice);
+        when(moodEntryMapper.toDto(any(MoodEntry.class))).thenReturn(testMoodEntryDTO);
+
+        // when
+        Slice<MoodEntryDTO> result = moodEntryService.findSliceForCurrentUser(beforeDate, 10);
+
+        // then
+        assertThat(result.getContent()).containsExactly(testMoodEntryDTO);
+        assertThat(result.hasNext()).isTrue();
+        verify(moodEntryRepository, never()).findSliceByUserIsCurrentUserOrderByDateDesc(any());
+    }
+
     @Test
     void shouldFindByCurrentUserAndDate() {
         // given
@@ -173,6 +335,25 @@ class MoodEntryServiceTest {
         verify(moodEntryRepository).findByUserIsCurrentUserAndDate(testDate);
     }
 
+    @Test
+    void shouldFindByCurrentUserIdAndDate() {
+        // given
+        LocalDate testDate = LocalDate.now();
+        when(moodEntryRepository.findByUserIdAndDate(1L, testDate)).thenReturn(Optional.of(testMoodEntry));
+        when(moodEntryMapper.toDto(any(MoodEntry.class))).thenReturn(testMoodEntryDTO);
+
+        try (MockedStatic<SecurityUtils> securityUtils = mockStatic(SecurityUtils.class)) {
+            securityUtils.when(SecurityUtils::getCurrentUserId).thenReturn(Optional.of(1L));
+
+            // when
+            Optional<MoodEntryDTO> result = moodEntryService.findByCurrentUserAndDate(testDate);
+
+            // then
+            assertThat(result).isPresent();
+            verify(moodEntryRepository, never()).findByUserIsCurrentUserAndDate(any());
+        }
+    }
+
     @Test
     void shouldFindByCurrentUserAndDateBetween() {
         // given
@@ -197,18 +378,9 @@ class MoodEntryServiceTest {
         LocalDate startDate = LocalDate.now().minusDays(7);
         LocalDate endDate = LocalDate.now();
 
-        MoodEntry happyEntry = new MoodEntry();
-        happyEntry.setMood(MoodType.HAPPY);
-        happyEntry.setDate(LocalDate.now().minusDays(1));
-        happyEntry.setUser(testUser);
-
-        MoodEntry sadEntry = new MoodEntry();
-        sadEntry.setMood(MoodType.SAD);
-        sadEntry.setDate(LocalDate.now());
-        sadEntry.setUser(testUser);
-
-        List<MoodEntry> moodEntries = Arrays.asList(happyEntry, sadEntry);
-        when(moodEntryRepository.findByUserIsCurrentUserAndDateBetween(startDate, endDate)).thenReturn(moodEntries);
+        when(moodEntryRepository.findDateAndMoodByUserIsCurrentUserAndDateBetween(startDate, endDate)).thenReturn(
+            List.of(new Object[] { LocalDate.now().minusDays(1), MoodType.HAPPY }, new Object[] { LocalDate.now(), MoodType.SAD })
+        );
 
         // when
         MoodStatisticsDTO result = moodEntryService.getMoodStatisticsForCurrentUser(startDate, endDate);
@@ -222,6 +394,9 @@ class MoodEntryServiceTest {
         assertThat(result.getMoodDistribution().get(MoodType.HAPPY)).isEqualTo(1L);
         assertThat(result.getMoodDistribution().get(MoodType.SAD)).isEqualTo(1L);
         assertThat(result.getAverageMoodScore()).isEqualTo(3.0); // (5 + 1) / 2
+        assertThat(result.getTrends()).extracting(MoodTrendDTO::getMood).containsExactly(MoodType.HAPPY, MoodType.SAD);
+        assertThat(result.getTrends()).extracting(MoodTrendDTO::getMoodScore).containsExactly(5, 1);
+        verify(moodEntryRepository, never()).findByUserIsCurrentUserAndDateBetween(any(), any());
     }
 
     @Test
@@ -231,8 +406,6 @@ class MoodEntryServiceTest {
         LocalDate startOfMonth = now.withDayOfMonth(1);
         LocalDate endOfMonth = now.withDayOfMonth(now.lengthOfMonth());
 
-        when(moodEntryRepository.findByUserIsCurrentUserAndDateBetween(startOfMonth, endOfMonth)).thenReturn(Arrays.asList(testMoodEntry));
-
         // when
         MoodStatisticsDTO result = moodEntryService.getMoodStatisticsForCurrentMonth();
 
@@ -240,7 +413,7 @@ class MoodEntryServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getStartDate()).isEqualTo(startOfMonth);
         assertThat(result.getEndDate()).isEqualTo(endOfMonth);
-        verify(moodEntryRepository).findByUserIsCurrentUserAndDateBetween(startOfMonth, endOfMonth);
+        verify(moodEntryRepository).findDateAndMoodByUserIsCurrentUserAndDateBetween(startOfMonth, endOfMonth);
     }
 
     @Test
@@ -249,8 +422,6 @@ class MoodEntryServiceTest {
         LocalDate now = LocalDate.now();
         LocalDate startOfWeek = now.minusDays(6);
 
-        when(moodEntryRepository.findByUserIsCurrentUserAndDateBetween(startOfWeek, now)).thenReturn(Arrays.asList(testMoodEntry));
-
         // when
         MoodStatisticsDTO result = moodEntryService.getMoodStatisticsForLastWeek();
 
@@ -258,36 +429,24 @@ class MoodEntryServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getStartDate()).isEqualTo(startOfWeek);
         assertThat(result.getEndDate()).isEqualTo(now);
-        verify(moodEntryRepository).findByUserIsCurrentUserAndDateBetween(startOfWeek, now);
+        verify(moodEntryRepository).findDateAndMoodByUserIsCurrentUserAndDateBetween(startOfWeek, now);
     }
 
     @Test
     void shouldCalculateStreaksCorrectly() {
         // given
         LocalDate today = LocalDate.now();
-        LocalDate yesterday = today.minusDays(1);
-        LocalDate twoDaysAgo = today.minusDays(2);
-
-        MoodEntry entry1 = new MoodEntry();
-        entry1.setMood(MoodType.HAPPY);
-        entry1.setDate(twoDaysAgo);
-        entry1.setUser(testUser);
-
-        MoodEntry entry2 = new MoodEntry();
-        entry2.setMood(MoodType.HAPPY);
-        entry2.setDate(yesterday);
-        entry2.setUser(testUser);
-
-        MoodEntry entry3 = new MoodEntry();
-        entry3.setMood(MoodType.HAPPY);
-        entry3.setDate(today);
-        entry3.setUser(testUser);
-
-        List<MoodEntry> moodEntries = Arrays.asList(entry1, entry2, entry3);
         LocalDate startDate = today.minusDays(7);
         LocalDate endDate = today;
 
-        when(moodEntryRepository.findByUserIsCurrentUserAndDateBetween(startDate, endDate)).thenReturn(moodEntries);
+        when(moodEntryRepository.findDateAndMoodByUserIsCurrentUserAndDateBetween(startDate, endDate)).thenReturn(
+            List.of(
+                new Object[] { today.minusDays(6), MoodType.SAD },
+                new Object[] { today.minusDays(2), MoodType.HAPPY },
+                new Object[] { today.minusDays(1), MoodType.HAPPY },
+                new Object[] { today, MoodType.HAPPY }
+            )
+        );
 
         // when
         MoodStatisticsDTO result = moodEntryService.getMoodStatisticsForCurrentUser(startDate, endDate);
@@ -300,12 +459,75 @@ class MoodEntryServiceTest {
         assertThat(result.getLongestStreakMood()).isEqualTo(MoodType.HAPPY);
     }
 
+    @Test
+    void shouldIgnoreCurrentStreakEndingBeforeYesterday() {
+        // given
+        LocalDate today = LocalDate.now();
+        LocalDate startDate = today.minusDays(7);
+        LocalDate endDate = today;
+
+        when(moodEntryRepository.findDateAndMoodByUserIsCurrentUserAndDateBetween(startDate, endDate)).thenReturn(
+            List.of(new Object[] { today.minusDays(3), MoodType.SAD }, new Object[] { today.minusDays(2), MoodType.SAD })
+        );
+
+        // when
+        MoodStatisticsDTO result = moodEntryService.getMoodStatisticsForCurrentUser(startDate, endDate);
+
+        // then
+        assertThat(result.getCurrentStreak()).isNull();
+        assertThat(result.getCurrentStreakMood()).isNull();
+        assertThat(result.getLongestStreak()).isEqualTo(2L);
+        assertThat(result.getLongestStreakMood()).isEqualTo(MoodType.SAD);
+    }
+
+    @Test
+    void shouldReturnCachedMoodStatistics() {
+        // given
+        LocalDate startDate = LocalDate.now().minusDays(7);
+        LocalDate endDate = LocalDate.now();
+        MoodStatisticsCacheService.Key key = new MoodStatisticsCacheService.Key("testuser", startDate, endDate, LocalDate.now());
+        MoodStatisticsDTO cached = new MoodStatisticsDTO();
+        when(moodStatisticsCacheService.get(eq(key), any())).thenReturn(cached);
+
+        try (MockedStatic<SecurityUtils> securityUtils = mockStatic(SecurityUtils.class)) {
+            securityUtils.when(SecurityUtils::getCurrentUserLogin).thenReturn(Optional.of("testuser"));
+
+            // when
+            MoodStatisticsDTO result = moodEntryService.getMoodStatisticsForCurrentUser(startDate, endDate);
+
+            // then
+            assertThat(result).isSameAs(cached);
+            verify(moodEntryRepository, never()).findDateAndMoodByUserIsCurrentUserAndDateBetween(any(), any());
+        }
+    }
+
+    @Test
+    void shouldCacheComputedMoodStatistics() {
+        // given
+        LocalDate startDate = LocalDate.now().minusDays(7);
+        LocalDate endDate = LocalDate.now();
+        MoodStatisticsCacheService.Key key = new MoodStatisticsCacheService.Key("testuser", startDate, endDate, LocalDate.now());
+        when(moodStatisticsCacheService.get(eq(key), any())).thenAnswer(invocation ->
+            invocation.<Supplier<MoodStatisticsDTO>>getArgument(1).get()
+        );
+
+        try (MockedStatic<SecurityUtils> securityUtils = mockStatic(SecurityUtils.class)) {
+            securityUtils.when(SecurityUtils::getCurrentUserLogin).thenReturn(Optional.of("testuser"));
+
+            // when
+            MoodStatisticsDTO result = moodEntryService.getMoodStatisticsForCurrentUser(startDate, endDate);
+
+            // then
+            assertThat(result.getTotalEntries()).isZero();
+            verify(moodEntryRepository).findDateAndMoodByUserIsCurrentUserAndDateBetween(startDate, endDate);
+        }
+    }
+
     @Test
     void shouldHandleEmptyMoodEntries() {
         // given
         LocalDate startDate = LocalDate.now().minusDays(7);
         LocalDate endDate = LocalDate.now();
-        when(moodEntryRepository.findByUserIsCurrentUserAndDateBetween(startDate, endDate)).thenReturn(Arrays.asList());
 
         // when
         MoodStatisticsDTO result = moodEntryService.getMoodStatisticsForCurrentUser(startDate, endDate);
@@ -316,5 +538,6 @@ class MoodEntryServiceTest {
         assertThat(result.getMoodDistribution()).isEmpty();
         assertThat(result.getAverageMoodScore()).isEqualTo(0.0);
         assertThat(result.getTrends()).isEmpty();
+        assertThat(result.getLongestStreak()).isNull();
     }
 }
@@ -0,0 +1,155 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.domain.enumeration.MoodType;
+import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.service.dto.MoodEntryDTO;
+import com.mycompany.myapp.service.dto.MoodStatisticsDTO;
+import com.mycompany.myapp.web.rest.UserResourceIT;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.Objects;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link MoodStatisticsCacheService}.
+ */
+@IntegrationTest
+@Transactional
+class MoodStatisticsCacheServiceIT {
+
+    private static final LocalDate START_DATE = LocalDate.of(2024, 3, 1);
+    private static final LocalDate END_DATE = LocalDate.of(2024, 3, 31);
+
+    @Autowired
+    private MoodEntryService moodEntryService;
+
+    @Autowired
+    private MoodStatisticsCacheService moodStatisticsCacheService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManager em;
+
+    @BeforeEach
+    public void initTest() {
+        // The user is created in each rolled back transaction, do not resolve it from a previous test
+        Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).clear();
+        Objects.requireNonNull(cacheManager.getCache(MoodStatisticsCacheService.MOOD_STATISTICS_CACHE)).clear();
+        if (em.createQuery("SELECT u FROM User u WHERE u.login = :login", User.class).setParameter("login", "cacheuser").getResultList().isEmpty()) {
+            User user = UserResourceIT.createEntity();
+            user.setLogin("cacheuser");
+            em.persist(user);
+            em.flush();
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "cacheuser")
+    void repeatedStatisticsAreServedFromCache() {
+        moodEntryService.save(createDTO(START_DATE.plusDays(1), MoodType.HAPPY));
+
+        double hits = count("hit");
+        double misses = count("miss");
+        MoodStatisticsDTO first = moodEntryService.getMoodStatisticsForCurrentUser(START_DATE, END_DATE);
+        MoodStatisticsDTO second = moodEntryService.getMoodStatisticsForCurrentUser(START_DATE, END_DATE);
+
+        assertThat(second).isSameAs(first);
+        assertThat(count("miss")).isEqualTo(misses + 1);
+        assertThat(count("hit")).isEqualTo(hits + 1);
+    }
+
+    @Test
+    @WithMockUser(username = "cacheuser")
+    void writeInsideRangeEvictsStatistics() {
+        moodEntryService.save(createDTO(START_DATE.plusDays(1), MoodType.HAPPY));
+        assertThat(moodEntryService.getMoodStatisticsForCurrentUser(START_DATE, END_DATE).getTotalEntries()).isEqualTo(1L);
+
+        MoodEntryDTO saved = moodEntryService.save(createDTO(START_DATE.plusDays(2), MoodType.SAD));
+        assertThat(moodEntryService.getMoodStatisticsForCurrentUser(START_DATE, END_DATE).getTotalEntries()).isEqualTo(2L);
+
+        moodEntryService.delete(saved.getId());
+        assertThat(moodEntryService.getMoodStatisticsForCurrentUser(START_DATE, END_DATE).getTotalEntries()).isEqualTo(1L);
+    }
+
+    @Test
+    @WithMockUser(username = "cacheuser")
+    void writeOutsideRangeKeepsStatistics() {
+        moodEntryService.save(createDTO(START_DATE.plusDays(1), MoodType.HAPPY));
+        MoodStatisticsDTO cached = moodEntryService.getMoodStatisticsForCurrentUser(START_DATE, END_DATE);
+
+        moodEntryService.save(createDTO(END_DATE.plusDays(1), MoodType.SAD));
+
+        double hits = count("hit");
+        assertThat(moodEntryService.getMoodStatisticsForCurrentUser(START_DATE, END_DATE)).isSameAs(cached);
+        assertThat(count("hit")).isEqualTo(hits + 1);
+    }
+
+    @Test
+    @WithMockUser(username = "cacheuser")
+    void updateMovingEntryOutOfRangeEvictsStatistics() {
+        MoodEntryDTO saved = moodEntryService.save(createDTO(START_DATE.plusDays(1), MoodType.HAPPY));
+        assertThat(moodEntryService.getMoodStatisticsForCurrentUser(START_DATE, END_DATE).getTotalEntries()).isEqualTo(1L);
+        LocalDate laterStart = END_DATE.plusDays(1);
+        assertThat(moodEntryService.getMoodStatisticsForCurrentUser(laterStart, laterStart.plusDays(6)).getTotalEntries()).isZero();
+
+        saved.setDate(laterStart.plusDays(2));
+        moodEntryService.update(saved);
+
+        assertThat(moodEntryService.getMoodStatisticsForCurrentUser(START_DATE, END_DATE).getTotalEntries()).isZero();
+        assertThat(moodEntryService.getMoodStatisticsForCurrentUser(laterStart, laterStart.plusDays(6)).getTotalEntries()).isEqualTo(1L);
+    }
+
+    @Test
+    void statisticsComputedDuringAWriteAreNotServed() {
+        MoodStatisticsCacheService.Key key = new MoodStatisticsCacheService.Key("cacheuser", START_DATE, END_DATE, END_DATE);
+        MoodStatisticsDTO stale = moodStatisticsCacheService.get(key, () -> {
+            // a write of the range commits while the statistics are computed
+            moodStatisticsCacheService.evict(1L, "cacheuser", START_DATE.plusDays(3));
+            return new MoodStatisticsDTO();
+        });
+
+        MoodStatisticsDTO fresh = new MoodStatisticsDTO();
+        assertThat(moodStatisticsCacheService.get(key, () -> fresh)).isSameAs(fresh);
+        assertThat(moodStatisticsCacheService.get(key, MoodStatisticsDTO::new)).isSameAs(fresh).isNotSameAs(stale);
+    }
+
+    @Test
+    void writeOfAnotherUserKeepsStatistics() {
+        MoodStatisticsCacheService.Key key = new MoodStatisticsCacheService.Key("cacheuser", START_DATE, END_DATE, END_DATE);
+        MoodStatisticsDTO cached = moodStatisticsCacheService.get(key, MoodStatisticsDTO::new);
+
+        moodStatisticsCacheService.evict(2L, "otheruser", START_DATE.plusDays(3));
+
+        assertThat(moodStatisticsCacheService.get(key, MoodStatisticsDTO::new)).isSameAs(cached);
+    }
+
+    private double count(String result) {
+        return meterRegistry
+            .get(MoodStatisticsCacheService.CACHE_REQUESTS_METER_NAME)
+            .tag(MoodStatisticsCacheService.CACHE_REQUESTS_METER_RESULT_DIMENSION, result)
+            .counter()
+            .count();
+    }
+
+    private static MoodEntryDTO createDTO(LocalDate date, MoodType mood) {
+        MoodEntryDTO moodEntryDTO = new MoodEntryDTO();
+        moodEntryDTO.setDate(date);
+        moodEntryDTO.setMood(mood);
+        return moodEntryDTO;
+    }
+}
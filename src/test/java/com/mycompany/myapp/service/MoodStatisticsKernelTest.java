@@ -0,0 +1,93 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.domain.enumeration.MoodType;
+import org.junit.jupiter.api.Test;
+
+class MoodStatisticsKernelTest {
+
+    private static final int TODAY = 20000;
+
+    @Test
+    void emptyInput() {
+        MoodStatisticsKernel.Result result = MoodStatisticsKernel.compute(new int[0], new byte[0], 0, TODAY);
+
+        assertThat(result.getTotal()).isZero();
+        assertThat(result.getAverageScore()).isZero();
+        assertThat(result.getMostFrequentMood()).isEqualTo(-1);
+        assertThat(result.getCurrentStreakMood()).isEqualTo(-1);
+        assertThat(result.getLongestStreakMood()).isEqualTo(-1);
+    }
+
+    @Test
+    void computesDistributionScoresAndStreaks() {
+        int[] days = { TODAY - 9, TODAY - 8, TODAY - 7, TODAY - 5, TODAY - 3, TODAY - 1, TODAY };
+        byte[] moods = moods(
+            MoodType.HAPPY,
+            MoodType.HAPPY,
+            MoodType.HAPPY,
+            MoodType.ANGRY,
+            MoodType.SAD,
+            MoodType.SAD,
+            MoodType.SAD
+        );
+
+        MoodStatisticsKernel.Result result = MoodStatisticsKernel.compute(days, moods, days.length, TODAY);
+
+        assertThat(result.getTotal()).isEqualTo(7);
+        assertThat(result.getCount(MoodType.HAPPY.ordinal())).isEqualTo(3L);
+        assertThat(result.getCount(MoodType.SAD.ordinal())).isEqualTo(3L);
+        assertThat(result.getCount(MoodType.ANGRY.ordinal())).isEqualTo(1L);
+        assertThat(result.getScoreSum()).isEqualTo(18L);
+        assertThat(result.getAverageScore()).isEqualTo(18.0 / 7);
+        assertThat(result.getTrendScore(0)).isEqualTo(5);
+        assertThat(result.getTrendScore(3)).isZero();
+        // ties go to the lowest ordinal and to the earliest run
+        assertThat(result.getMostFrequentMood()).isEqualTo(Math.min(MoodType.HAPPY.ordinal(), MoodType.SAD.ordinal()));
+        assertThat(result.getLongestStreak()).isEqualTo(3);
+        assertThat(result.getLongestStreakMood()).isEqualTo(MoodType.HAPPY.ordinal());
+        // the SAD run skips a day, only the last two days are consecutive
+        assertThat(result.getCurrentStreak()).isEqualTo(2);
+        assertThat(result.getCurrentStreakMood()).isEqualTo(MoodType.SAD.ordinal());
+    }
+
+    @Test
+    void currentStreakMustEndTodayOrYesterday() {
+        int[] days = { TODAY - 3, TODAY - 2 };
+        byte[] moods = moods(MoodType.NEUTRAL, MoodType.NEUTRAL);
+
+        assertThat(MoodStatisticsKernel.compute(days, moods, 2, TODAY).getCurrentStreakMood()).isEqualTo(-1);
+        assertThat(MoodStatisticsKernel.compute(days, moods, 2, TODAY - 1).getCurrentStreak()).isEqualTo(2);
+    }
+
+    @Test
+    void readsOnlyTheGivenLength() {
+        int[] days = { TODAY - 1, TODAY, 0 };
+        byte[] moods = moods(MoodType.ANXIOUS, MoodType.ANXIOUS, MoodType.HAPPY);
+
+        MoodStatisticsKernel.Result result = MoodStatisticsKernel.compute(days, moods, 2, TODAY);
+
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getCount(MoodType.HAPPY.ordinal())).isZero();
+        assertThat(result.getCurrentStreak()).isEqualTo(2);
+    }
+
+    @Test
+    void scoresMoods() {
+        assertThat(MoodStatisticsKernel.score(MoodType.HAPPY)).isEqualTo(5);
+        assertThat(MoodStatisticsKernel.score(MoodType.NEUTRAL)).isEqualTo(3);
+        assertThat(MoodStatisticsKernel.score(MoodType.ANXIOUS)).isEqualTo(2);
+        assertThat(MoodStatisticsKernel.score(MoodType.SAD)).isEqualTo(1);
+        assertThat(MoodStatisticsKernel.score(MoodType.ANGRY)).isZero();
+        assertThat(MoodStatisticsKernel.score(null)).isZero();
+    }
+
+    private static byte[] moods(MoodType... values) {
+        byte[] moods = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            moods[i] = (byte) values[i].ordinal();
+        }
+        return moods;
+    }
+}
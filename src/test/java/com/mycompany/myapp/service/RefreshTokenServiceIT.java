@@ -0,0 +1,131 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.RefreshToken;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.repository.RefreshTokenRepository;
+import com.mycompany.myapp.repository.UserRepository;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link RefreshTokenService}.
+ */
+@IntegrationTest
+@Transactional
+class RefreshTokenServiceIT {
+
+    private static final String DEFAULT_LOGIN = "johndoe_refresh";
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    private User user;
+
+    @BeforeEach
+    void init() {
+        user = new User();
+        user.setLogin(DEFAULT_LOGIN);
+        user.setPassword(RandomStringUtils.insecure().nextAlphanumeric(60));
+        user.setActivated(true);
+        user.setEmail(DEFAULT_LOGIN + "@localhost");
+        user.setLangKey("en");
+        userRepository.saveAndFlush(user);
+    }
+
+    @Test
+    void assertThatOnlyTheKeyedHashIsStored() {
+        String token = refreshTokenService.createToken(user.getId());
+
+        assertThat(token).hasSize(43);
+        assertThat(refreshTokenRepository.findAll())
+            .extracting(RefreshToken::getTokenHash)
+            .containsExactly(refreshTokenService.hash(token))
+            .doesNotContain(token);
+    }
+
+    @Test
+    void assertThatRotatedTokenIsReplaced() {
+        String token = refreshTokenService.createToken(user.getId());
+
+        RefreshTokenService.RotatedToken rotated = refreshTokenService.rotateToken(token).orElseThrow();
+
+        assertThat(rotated.user().getLogin()).isEqualTo(DEFAULT_LOGIN);
+        assertThat(rotated.refreshToken()).isNotEqualTo(token);
+        assertThat(refreshTokenService.rotateToken(token)).isEmpty();
+        assertThat(refreshTokenService.rotateToken(rotated.refreshToken())).isPresent();
+    }
+
+    @Test
+    void assertThatExpiredTokenIsRefused() {
+        String token = refreshTokenService.createToken(user.getId());
+        expireTokens();
+
+        assertThat(refreshTokenService.rotateToken(token)).isEmpty();
+    }
+
+    @Test
+    void assertThatTokenOfDeactivatedUserIsRefused() {
+        String token = refreshTokenService.createToken(user.getId());
+        user.setActivated(false);
+        userRepository.saveAndFlush(user);
+
+        assertThat(refreshTokenService.rotateToken(token)).isEmpty();
+    }
+
+    @Test
+    void assertThatPasswordResetRevokesTokens() {
+        String token = refreshTokenService.createToken(user.getId());
+        user.setResetKey("refresh-reset-key");
+        user.setResetDate(Instant.now());
+        userRepository.saveAndFlush(user);
+
+        assertThat(userService.completePasswordReset("new-password", "refresh-reset-key")).isPresent();
+
+        assertThat(refreshTokenService.rotateToken(token)).isEmpty();
+    }
+
+    @Test
+    void assertThatUserCanBeDeletedWithTokens() {
+        refreshTokenService.createToken(user.getId());
+
+        userService.deleteUser(DEFAULT_LOGIN);
+        userRepository.flush();
+
+        assertThat(refreshTokenRepository.count()).isZero();
+    }
+
+    @Test
+    void assertThatExpiredTokensAreRemoved() {
+        refreshTokenService.createToken(user.getId());
+        expireTokens();
+        refreshTokenService.createToken(user.getId());
+
+        refreshTokenService.removeExpiredTokens();
+
+        assertThat(refreshTokenRepository.count()).isEqualTo(1);
+    }
+
+    private void expireTokens() {
+        refreshTokenRepository
+            .findAll()
+            .forEach(refreshToken -> refreshToken.setExpiresAt(Instant.now().minus(1, ChronoUnit.MINUTES)));
+        refreshTokenRepository.flush();
+    }
+}
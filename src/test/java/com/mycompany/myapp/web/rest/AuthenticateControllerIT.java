@@ -9,17 +9,22 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mycompany.myapp.IntegrationTest;
 import com.mycompany.myapp.domain.User;
 import com.mycompany.myapp.repository.UserRepository;
 import com.mycompany.myapp.web.rest.vm.LoginVM;
+import com.mycompany.myapp.web.rest.vm.RefreshTokenVM;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -27,6 +32,7 @@ import org.springframework.transaction.annotation.Transactional;
  */
 @AutoConfigureMockMvc
 @IntegrationTest
+@TestPropertySource(properties = "application.login-throttle.trusted-proxies=1")
 class AuthenticateControllerIT {
 
     @Autowired
@@ -60,6 +66,8 @@ class AuthenticateControllerIT {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.id_token").isString())
             .andExpect(jsonPath("$.id_token").isNotEmpty())
+            .andExpect(jsonPath("$.refresh_token").isString())
+            .andExpect(jsonPath("$.refresh_token").isNotEmpty())
             .andExpect(header().string("Authorization", not(nullValue())))
             .andExpect(header().string("Authorization", not(is(emptyString()))));
     }
@@ -99,4 +107,149 @@ class AuthenticateControllerIT {
             .andExpect(jsonPath("$.id_token").doesNotExist())
             .andExpect(header().doesNotExist("Authorization"));
     }
+
+    @Test
+    void testAuthorizeIsThrottledByLogin() throws Exception {
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-throttled");
+        login.setPassword("wrong password");
+        // from addresses of their own, leaving the bucket of the other tests' address alone
+        for (int i = 0; i < 5; i++) {
+            String remoteAddr = "10.0.0." + i;
+            mockMvc
+                .perform(
+                    post("/api/authenticate")
+                        .with(request -> {
+                            request.setRemoteAddr(remoteAddr);
+                            return request;
+                        })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsBytes(login))
+                )
+                .andExpect(status().isUnauthorized());
+        }
+
+        mockMvc
+            .perform(
+                post("/api/authenticate")
+                    .with(request -> {
+                        request.setRemoteAddr("10.0.0.5");
+                        return request;
+                    })
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(login))
+            )
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+            .andExpect(jsonPath("$.message").value("error.http.429"))
+            .andExpect(jsonPath("$.id_token").doesNotExist());
+    }
+
+    @Test
+    void testAuthorizeIsThrottledByForwardedIp() throws Exception {
+        LoginVM login = new LoginVM();
+        login.setPassword("wrong password");
+        // through the same proxy, the logins of their own leaving the login buckets alone
+        for (int i = 0; i < 20; i++) {
+            login.setUsername("user-jwt-controller-forwarded-" + i);
+            authorizeFrom("203.0.113.1", login).andExpect(status().isUnauthorized());
+        }
+
+        login.setUsername("user-jwt-controller-forwarded");
+        authorizeFrom("203.0.113.1", login).andExpect(status().isTooManyRequests());
+        authorizeFrom("203.0.113.2", login).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testAuthorizeIsThrottledByIpAppendedByProxy() throws Exception {
+        LoginVM login = new LoginVM();
+        login.setPassword("wrong password");
+        for (int i = 0; i < 20; i++) {
+            login.setUsername("user-jwt-controller-spoofed-" + i);
+            authorizeFrom("198.51.100.1, 203.0.113.3", login).andExpect(status().isUnauthorized());
+        }
+
+        // the addresses sent by the client before the one appended by the proxy change nothing
+        login.setUsername("user-jwt-controller-spoofed");
+        authorizeFrom("198.51.100.2, 203.0.113.3", login).andExpect(status().isTooManyRequests());
+        authorizeFrom("203.0.113.3", login).andExpect(status().isTooManyRequests());
+        authorizeFrom("203.0.113.3, 203.0.113.4", login).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @Transactional
+    void testRefresh() throws Exception {
+        String refreshToken = authorize("user-jwt-controller-refresh");
+
+        String newRefreshToken = refresh(refreshToken)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id_token").isNotEmpty())
+            .andExpect(jsonPath("$.refresh_token").isNotEmpty())
+            .andExpect(jsonPath("$.refresh_token").value(not(refreshToken)))
+            .andExpect(header().string("Authorization", not(nullValue())))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        refresh(om.readTree(newRefreshToken).get("refresh_token").asText()).andExpect(status().isOk());
+    }
+
+    @Test
+    @Transactional
+    void testRefreshTokenIsUsedOnce() throws Exception {
+        String refreshToken = authorize("user-jwt-controller-refresh-once");
+        refresh(refreshToken).andExpect(status().isOk());
+
+        refresh(refreshToken)
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.id_token").doesNotExist())
+            .andExpect(header().doesNotExist("Authorization"));
+    }
+
+    @Test
+    void testRefreshFailsWithUnknownToken() throws Exception {
+        refresh("unknown-refresh-token").andExpect(status().isUnauthorized()).andExpect(header().doesNotExist("Authorization"));
+    }
+
+    private String authorize(String login) throws Exception {
+        User user = new User();
+        user.setLogin(login);
+        user.setEmail(login + "@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+        userRepository.saveAndFlush(user);
+
+        LoginVM loginVM = new LoginVM();
+        loginVM.setUsername(login);
+        loginVM.setPassword("test");
+        String body = mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(loginVM)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        JsonNode tokens = om.readTree(body);
+        return tokens.get("refresh_token").asText();
+    }
+
+    private ResultActions authorizeFrom(String forwardedFor, LoginVM login) throws Exception {
+        return mockMvc.perform(
+            post("/api/authenticate")
+                .with(request -> {
+                    request.setRemoteAddr("10.0.1.1");
+                    return request;
+                })
+                .header("X-Forwarded-For", forwardedFor)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(om.writeValueAsBytes(login))
+        );
+    }
+
+    private ResultActions refresh(String refreshToken) throws Exception {
+        RefreshTokenVM refreshTokenVM = new RefreshTokenVM();
+        refreshTokenVM.setRefreshToken(refreshToken);
+        return mockMvc.perform(
+            post("/api/authenticate/refresh").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(refreshTokenVM))
+        );
+    }
 }
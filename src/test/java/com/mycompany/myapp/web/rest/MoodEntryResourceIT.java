@@ -3,18 +3,24 @@ package com.mycompany.myapp.web.rest;
 import static com.mycompany.myapp.domain.MoodEntryAsserts.*;
 import static com.mycompany.myapp.web.rest.TestUtil.createUpdateProxyForBean;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.config.StatementRecorder;
 import com.mycompany.myapp.domain.MoodEntry;
 import com.mycompany.myapp.domain.User;
 import com.mycompany.myapp.domain.enumeration.MoodType;
 import com.mycompany.myapp.repository.MoodEntryRepository;
 import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.security.SecurityUtils;
 import com.mycompany.myapp.service.MoodEntryService;
 import com.mycompany.myapp.service.dto.MoodEntryDTO;
 import com.mycompany.myapp.service.mapper.MoodEntryMapper;
@@ -22,8 +28,13 @@ import jakarta.persistence.EntityManager;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import org.hibernate.Session;
+import org.hibernate.SessionEventListener;
+import org.hibernate.engine.spi.EntityKey;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -34,9 +45,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -128,7 +141,8 @@ class MoodEntryResourceIT {
     @AfterEach
     void cleanup() {
         if (insertedMoodEntry != null) {
-            moodEntryRepository.delete(insertedMoodEntry);
+            // By id, as the version of the inserted entry may be stale after an update
+            moodEntryRepository.deleteById(insertedMoodEntry.getId());
             insertedMoodEntry = null;
         }
     }
@@ -157,6 +171,36 @@ class MoodEntryResourceIT {
         insertedMoodEntry = returnedMoodEntry;
     }
 
+    @Test
+    @Transactional
+    void createMoodEntryOfTokenUserIsASingleInsert() throws Exception {
+        // Only the id of the user is sent, as the home page does
+        User user = moodEntry.getUser();
+        MoodEntryDTO moodEntryDTO = moodEntryMapper.toDto(moodEntry);
+        moodEntryDTO.getUser().setLogin(null);
+        em.flush();
+        em.clear();
+
+        StatementRecorder.start();
+        restMoodEntryMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .with(jwt().jwt(token -> token.subject(user.getLogin()).claim(SecurityUtils.USER_ID_CLAIM, user.getId())))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(moodEntryDTO))
+            )
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.user.id").value(user.getId().intValue()))
+            .andExpect(jsonPath("$.user.login").value(user.getLogin()));
+        em.flush();
+        List<String> statements = StatementRecorder.stop();
+
+        // The user is attached by reference, so the insert is the only statement; the ids are allocated by blocks, outside it
+        assertThat(statements).singleElement().satisfies(sql -> assertThat(sql).startsWith("insert into mood_entry"));
+        insertedMoodEntry = moodEntryRepository.findAll().stream().filter(entry -> entry.getDate().equals(DEFAULT_DATE)).findFirst().orElseThrow();
+        assertThat(insertedMoodEntry.getUser().getId()).isEqualTo(user.getId());
+    }
+
     @Test
     @Transactional
     void createMoodEntryWithExistingId() throws Exception {
@@ -386,6 +430,96 @@ class MoodEntryResourceIT {
         );
     }
 
+    @Test
+    @Transactional
+    void partialUpdateMyMoodEntryAtVersion() throws Exception {
+        // Initialize the database
+        insertedMoodEntry = moodEntryRepository.saveAndFlush(moodEntry);
+        User user = moodEntry.getUser();
+        long version = moodEntry.getVersion();
+        // As in a request of its own, the entry is not in the persistence context yet
+        em.clear();
+        MoodEntryDTO partialUpdatedMoodEntryDTO = new MoodEntryDTO();
+        partialUpdatedMoodEntryDTO.setId(moodEntry.getId());
+        partialUpdatedMoodEntryDTO.setVersion(version);
+        partialUpdatedMoodEntryDTO.setMood(UPDATED_MOOD);
+
+        StatementRecorder.start();
+        restMoodEntryMockMvc
+            .perform(
+                patch(ENTITY_API_URL + "/my/{id}", moodEntry.getId())
+                    .with(jwt().jwt(token -> token.subject(user.getLogin()).claim(SecurityUtils.USER_ID_CLAIM, user.getId())))
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedMoodEntryDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.date").value(DEFAULT_DATE.toString()))
+            .andExpect(jsonPath("$.mood").value(UPDATED_MOOD.toString()))
+            .andExpect(jsonPath("$.version").value(version + 1))
+            .andExpect(jsonPath("$.user.login").value(user.getLogin()));
+        List<String> statements = StatementRecorder.stop();
+
+        // The entry is read, then updated at its version, without being read back
+        assertThat(statements).satisfiesExactly(
+            sql -> assertThat(sql).startsWith("select").contains("from mood_entry"),
+            sql -> assertThat(sql).startsWith("update mood_entry").contains("version")
+        );
+        assertThat(getPersistedMoodEntry(moodEntry).getMood()).isEqualTo(UPDATED_MOOD);
+
+        // The version the client read is now stale
+        partialUpdatedMoodEntryDTO.setMood(DEFAULT_MOOD);
+        restMoodEntryMockMvc
+            .perform(
+                patch(ENTITY_API_URL + "/my/{id}", moodEntry.getId())
+                    .with(jwt().jwt(token -> token.subject(user.getLogin()).claim(SecurityUtils.USER_ID_CLAIM, user.getId())))
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedMoodEntryDTO))
+            )
+            .andExpect(status().isConflict());
+        assertThat(getPersistedMoodEntry(moodEntry).getMood()).isEqualTo(UPDATED_MOOD);
+    }
+
+    @Test
+    @Transactional
+    void partialUpdateMoodEntryAtStaleVersion() throws Exception {
+        // Initialize the database
+        insertedMoodEntry = moodEntryRepository.saveAndFlush(moodEntry);
+        MoodEntryDTO partialUpdatedMoodEntryDTO = new MoodEntryDTO();
+        partialUpdatedMoodEntryDTO.setId(moodEntry.getId());
+        partialUpdatedMoodEntryDTO.setVersion(moodEntry.getVersion() + 1);
+        partialUpdatedMoodEntryDTO.setMood(UPDATED_MOOD);
+
+        restMoodEntryMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, moodEntry.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedMoodEntryDTO))
+            )
+            .andExpect(status().isConflict());
+        assertThat(getPersistedMoodEntry(moodEntry).getMood()).isEqualTo(DEFAULT_MOOD);
+    }
+
+    @Test
+    @Transactional
+    void partialUpdateMoodEntryOfAnotherUser() throws Exception {
+        // Initialize the database
+        insertedMoodEntry = moodEntryRepository.saveAndFlush(moodEntry);
+        MoodEntryDTO partialUpdatedMoodEntryDTO = new MoodEntryDTO();
+        partialUpdatedMoodEntryDTO.setId(moodEntry.getId());
+        partialUpdatedMoodEntryDTO.setVersion(moodEntry.getVersion());
+        partialUpdatedMoodEntryDTO.setMood(UPDATED_MOOD);
+
+        restMoodEntryMockMvc
+            .perform(
+                patch(ENTITY_API_URL + "/my/{id}", moodEntry.getId())
+                    .with(jwt().jwt(token -> token.subject("anotheruser").claim(SecurityUtils.USER_ID_CLAIM, Long.MAX_VALUE)))
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedMoodEntryDTO))
+            )
+            .andExpect(status().isNotFound());
+        assertThat(getPersistedMoodEntry(moodEntry).getMood()).isEqualTo(DEFAULT_MOOD);
+    }
+
     @Test
     @Transactional
     void fullUpdateMoodEntryWithPatch() throws Exception {
@@ -493,6 +627,197 @@ class MoodEntryResourceIT {
         assertDecrementedRepositoryCount(databaseSizeBeforeDelete);
     }
 
+    @Test
+    @Transactional
+    void getMyMoodEntryByDateUsesUserIdClaim() throws Exception {
+        // Initialize the database
+        insertedMoodEntry = moodEntryRepository.saveAndFlush(moodEntry);
+
+        // The user id claim of the token is used rather than its subject
+        restMoodEntryMockMvc
+            .perform(
+                get(ENTITY_API_URL + "/my/date/{date}", DEFAULT_DATE.toString()).with(
+                    jwt().jwt(token -> token.subject("anotheruser").claim(SecurityUtils.USER_ID_CLAIM, moodEntry.getUser().getId()))
+                )
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(moodEntry.getId().intValue()));
+        restMoodEntryMockMvc
+            .perform(
+                get(ENTITY_API_URL + "/my/date/{date}", DEFAULT_DATE.toString()).with(
+                    jwt().jwt(token -> token.subject(moodEntry.getUser().getLogin()).claim(SecurityUtils.USER_ID_CLAIM, Long.MAX_VALUE))
+                )
+            )
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void putMyMoodEntryByDateCreatesThenUpdates() throws Exception {
+        User user = moodEntry.getUser();
+        em.flush();
+        long databaseSizeBeforeCreate = getRepositoryCount();
+        MoodEntryDTO moodEntryDTO = new MoodEntryDTO();
+        moodEntryDTO.setMood(DEFAULT_MOOD);
+
+        // Create the entry of the date
+        StatementRecorder.start();
+        restMoodEntryMockMvc
+            .perform(
+                put(ENTITY_API_URL + "/my/date/{date}", DEFAULT_DATE.toString())
+                    .with(jwt().jwt(token -> token.subject(user.getLogin()).claim(SecurityUtils.USER_ID_CLAIM, user.getId())))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(moodEntryDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.date").value(DEFAULT_DATE.toString()))
+            .andExpect(jsonPath("$.mood").value(DEFAULT_MOOD.toString()))
+            .andExpect(jsonPath("$.user.login").value(user.getLogin()));
+        List<String> statements = StatementRecorder.stop();
+        // The upsert (a merge on H2), then the read of the id and version of the entry alone, without its user
+        assertThat(statements).satisfiesExactly(
+            sql -> assertThat(sql).startsWith("merge into mood_entry"),
+            sql -> assertThat(sql).startsWith("select").contains("from mood_entry").doesNotContain("jhi_user")
+        );
+        assertIncrementedRepositoryCount(databaseSizeBeforeCreate);
+        MoodEntry created = moodEntryRepository.findByUserIdAndDate(user.getId(), DEFAULT_DATE).orElseThrow();
+
+        // Put again on the same date
+        moodEntryDTO.setMood(UPDATED_MOOD);
+        restMoodEntryMockMvc
+            .perform(
+                put(ENTITY_API_URL + "/my/date/{date}", DEFAULT_DATE.toString())
+                    .with(jwt().jwt(token -> token.subject(user.getLogin()).claim(SecurityUtils.USER_ID_CLAIM, user.getId())))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(moodEntryDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(created.getId().intValue()))
+            .andExpect(jsonPath("$.mood").value(UPDATED_MOOD.toString()));
+        assertIncrementedRepositoryCount(databaseSizeBeforeCreate);
+        insertedMoodEntry = moodEntryRepository.findById(created.getId()).orElseThrow();
+        assertThat(insertedMoodEntry.getMood()).isEqualTo(UPDATED_MOOD);
+    }
+
+    @Test
+    @Transactional
+    void putMyMoodEntryByDateWithoutMood() throws Exception {
+        restMoodEntryMockMvc
+            .perform(
+                put(ENTITY_API_URL + "/my/date/{date}", DEFAULT_DATE.toString())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(new MoodEntryDTO()))
+            )
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void scrollMyMoodEntries() throws Exception {
+        // Initialize the database
+        insertedMoodEntry = moodEntryRepository.saveAndFlush(moodEntry);
+        for (int i = 1; i <= 2; i++) {
+            moodEntryRepository.saveAndFlush(new MoodEntry().date(DEFAULT_DATE.plusDays(i)).mood(UPDATED_MOOD).user(moodEntry.getUser()));
+        }
+        AtomicInteger statements = new AtomicInteger();
+        em
+            .unwrap(Session.class)
+            .addEventListeners(
+                new SessionEventListener() {
+                    @Override
+                    public void jdbcExecuteStatementStart() {
+                        statements.incrementAndGet();
+                    }
+                }
+            );
+
+        // Get the first page of the moodEntries of their user
+        MvcResult firstPage = restMoodEntryMockMvc
+            .perform(get(ENTITY_API_URL + "/my/scroll?size=2").with(user(moodEntry.getUser().getLogin())))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].date").value(contains(DEFAULT_DATE.plusDays(2).toString(), DEFAULT_DATE.plusDays(1).toString())))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andReturn();
+        // A single query, without any count
+        assertThat(statements.get()).isEqualTo(1);
+
+        // Follow the next link
+        String link = firstPage.getResponse().getHeader(HttpHeaders.LINK);
+        String next = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+        restMoodEntryMockMvc
+            .perform(get(next).with(user(moodEntry.getUser().getLogin())))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].date").value(contains(DEFAULT_DATE.toString())))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    @Transactional
+    void scrollMyMoodEntriesWithInvalidCursor() throws Exception {
+        restMoodEntryMockMvc.perform(get(ENTITY_API_URL + "/my/scroll?cursor=not-a-cursor")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void exportMyMoodEntriesAsNdjson() throws Exception {
+        // Initialize the database
+        insertedMoodEntry = moodEntryRepository.saveAndFlush(moodEntry);
+        MoodEntry laterMoodEntry = moodEntryRepository.saveAndFlush(
+            new MoodEntry().date(DEFAULT_DATE.plusDays(1)).mood(UPDATED_MOOD).user(moodEntry.getUser())
+        );
+        em.clear();
+
+        // Export the moodEntries of their user
+        restMoodEntryMockMvc
+            .perform(get(ENTITY_API_URL + "/my/export").with(user(moodEntry.getUser().getLogin())))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"mood-entries.ndjson\""))
+            .andExpect(
+                content()
+                    .string(
+                        "{\"id\":" +
+                        moodEntry.getId() +
+                        ",\"date\":\"" +
+                        DEFAULT_DATE +
+                        "\",\"mood\":\"" +
+                        DEFAULT_MOOD +
+                        "\"}\n" +
+                        "{\"id\":" +
+                        laterMoodEntry.getId() +
+                        ",\"date\":\"" +
+                        DEFAULT_DATE.plusDays(1) +
+                        "\",\"mood\":\"" +
+                        UPDATED_MOOD +
+                        "\"}\n"
+                    )
+            );
+
+        // The exported entries are not kept in the persistence context
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityKeys())
+            .noneMatch(key -> ((EntityKey) key).getEntityName().equals(MoodEntry.class.getName()));
+    }
+
+    @Test
+    @Transactional
+    void exportMyMoodEntriesAsCsv() throws Exception {
+        // Initialize the database
+        insertedMoodEntry = moodEntryRepository.saveAndFlush(moodEntry);
+
+        // Export the moodEntries of their user
+        restMoodEntryMockMvc
+            .perform(get(ENTITY_API_URL + "/my/export?format=csv").with(user(moodEntry.getUser().getLogin())))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("text/csv;charset=UTF-8"))
+            .andExpect(content().string("id,date,mood\n" + moodEntry.getId() + "," + DEFAULT_DATE + "," + DEFAULT_MOOD + "\n"));
+    }
+
+    @Test
+    @Transactional
+    void exportMyMoodEntriesWithUnsupportedFormat() throws Exception {
+        restMoodEntryMockMvc.perform(get(ENTITY_API_URL + "/my/export?format=xml")).andExpect(status().isBadRequest());
+    }
+
     protected long getRepositoryCount() {
         return moodEntryRepository.count();
     }
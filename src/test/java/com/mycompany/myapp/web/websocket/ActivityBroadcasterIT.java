@@ -0,0 +1,25 @@
+package com.mycompany.myapp.web.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for the {@link ActivityBroadcaster} meters.
+ */
+@IntegrationTest
+class ActivityBroadcasterIT {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void trackerAndBrokerOutboundMetersAreExposed() {
+        assertThat(meterRegistry.find("tracker.messages").counter()).isNotNull();
+        assertThat(meterRegistry.find("tracker.activities.pending").gauge()).isNotNull();
+        assertThat(meterRegistry.find("executor.queued").tag("name", "clientOutboundChannel").gauge()).isNotNull();
+    }
+}
@@ -0,0 +1,90 @@
+package com.mycompany.myapp.web.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.mycompany.myapp.web.websocket.dto.ActivityDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+/**
+ * Test class for the {@link ActivityBroadcaster}.
+ */
+class ActivityBroadcasterTest {
+
+    private static final Instant TIME = Instant.parse("2024-06-15T10:00:00Z");
+
+    private SimpMessageSendingOperations messagingTemplate;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        messagingTemplate = mock(SimpMessageSendingOperations.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void immediateModeSendsEachActivity() {
+        ActivityBroadcaster broadcaster = new ActivityBroadcaster(messagingTemplate, meterRegistry, ActivityBroadcaster.Mode.IMMEDIATE);
+        ActivityDTO first = activity("session-1", "/home", 0);
+        ActivityDTO second = activity("session-1", "/mood-entry", 1);
+
+        broadcaster.broadcast(first);
+        broadcaster.broadcast(second);
+        broadcaster.flush();
+
+        verify(messagingTemplate).convertAndSend(ActivityBroadcaster.TRACKER_DESTINATION, first);
+        verify(messagingTemplate).convertAndSend(ActivityBroadcaster.TRACKER_DESTINATION, second);
+        assertThat(meterRegistry.get("tracker.messages").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("tracker.activities").tag("result", "sent").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void coalescedModeSendsTheLastActivityOfEachSessionOncePerWindow() {
+        ActivityBroadcaster broadcaster = new ActivityBroadcaster(messagingTemplate, meterRegistry, ActivityBroadcaster.Mode.COALESCED);
+        ActivityDTO superseded = activity("session-1", "/home", 0);
+        ActivityDTO other = activity("session-2", "/account", 1);
+        ActivityDTO last = activity("session-1", "/mood-entry", 2);
+        ActivityDTO logout = activity("session-3", "logout", -1);
+
+        broadcaster.broadcast(superseded);
+        broadcaster.broadcast(other);
+        broadcaster.broadcast(last);
+        broadcaster.broadcast(logout);
+        verify(messagingTemplate, never()).convertAndSend(eq(ActivityBroadcaster.TRACKER_DESTINATION), any(Object.class));
+        assertThat(meterRegistry.get("tracker.activities.pending").gauge().value()).isEqualTo(3);
+
+        broadcaster.flush();
+        broadcaster.flush();
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq(ActivityBroadcaster.TRACKER_DESTINATION), payload.capture());
+        assertThat((List<ActivityDTO>) payload.getValue()).containsExactly(other, last, logout);
+        assertThat(meterRegistry.get("tracker.messages").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("tracker.activities").tag("result", "sent").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("tracker.activities").tag("result", "superseded").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("tracker.activities.pending").gauge().value()).isZero();
+    }
+
+    private static ActivityDTO activity(String sessionId, String page, int seconds) {
+        ActivityDTO activity = new ActivityDTO();
+        activity.setSessionId(sessionId);
+        activity.setPage(page);
+        // the logouts have no time
+        activity.setTime(seconds < 0 ? null : TIME.plusSeconds(seconds));
+        return activity;
+    }
+}
@@ -0,0 +1,60 @@
+package com.mycompany.myapp.web.websocket;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mycompany.myapp.service.MoodEntryService;
+import com.mycompany.myapp.service.MoodStatisticsChangedEvent;
+import com.mycompany.myapp.service.dto.MoodStatisticsDeltaDTO;
+import java.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+
+/**
+ * Test class for the {@link MoodStatisticsPublisher}.
+ */
+class MoodStatisticsPublisherTest {
+
+    private static final MoodStatisticsChangedEvent EVENT = new MoodStatisticsChangedEvent(1L, "user", LocalDate.of(2024, 6, 15));
+
+    private SimpMessageSendingOperations messagingTemplate;
+
+    private SimpUserRegistry userRegistry;
+
+    private MoodEntryService moodEntryService;
+
+    private MoodStatisticsPublisher publisher;
+
+    @BeforeEach
+    void setup() {
+        messagingTemplate = mock(SimpMessageSendingOperations.class);
+        userRegistry = mock(SimpUserRegistry.class);
+        moodEntryService = mock(MoodEntryService.class);
+        publisher = new MoodStatisticsPublisher(messagingTemplate, userRegistry, moodEntryService);
+    }
+
+    @Test
+    void deltaIsSentToTheConnectedUser() {
+        MoodStatisticsDeltaDTO delta = new MoodStatisticsDeltaDTO();
+        when(userRegistry.getUser("user")).thenReturn(mock(SimpUser.class));
+        when(moodEntryService.getMoodStatisticsDelta(EVENT)).thenReturn(delta);
+
+        publisher.onMoodStatisticsChanged(EVENT);
+
+        verify(messagingTemplate).convertAndSendToUser("user", MoodStatisticsPublisher.MOOD_STATISTICS_DESTINATION, delta);
+    }
+
+    @Test
+    void deltaIsNotComputedForADisconnectedUser() {
+        publisher.onMoodStatisticsChanged(EVENT);
+
+        verify(moodEntryService, never()).getMoodStatisticsDelta(any());
+        verify(messagingTemplate, never()).convertAndSendToUser(any(), any(), any());
+    }
+}
@@ -0,0 +1,100 @@
+package gatling.simulations;
+
+import static io.gatling.javaapi.core.CoreDsl.StringBody;
+import static io.gatling.javaapi.core.CoreDsl.exec;
+import static io.gatling.javaapi.core.CoreDsl.group;
+import static io.gatling.javaapi.core.CoreDsl.jsonPath;
+import static io.gatling.javaapi.core.CoreDsl.rampUsers;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.header;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Performance test comparing the ways of logging the mood of a day: looking the entry up then creating or updating it,
+ * against a single {@code PUT /api/mood-entries/my/date/{date}}.
+ * <p>
+ * Each request group reports the latency of one complete log.
+ */
+public class MoodEntryLogTodayGatlingTest extends Simulation {
+
+    String baseURL = Optional.ofNullable(System.getProperty("baseURL")).orElse("http://localhost:8080");
+
+    HttpProtocolBuilder httpConf = http.baseUrl(baseURL).acceptHeader("application/json").contentTypeHeader("application/json");
+
+    Map<String, String> headersHttpAuthenticated = Map.of("Authorization", "${access_token}");
+
+    ChainBuilder authenticate = exec(
+        http("Authentication")
+            .post("/api/authenticate")
+            .body(StringBody("{\"username\":\"admin\", \"password\":\"admin\"}"))
+            .check(header("Authorization").saveAs("access_token"))
+    )
+        .exitHereIfFailed()
+        .exec(http("Get account").get("/api/account").headers(headersHttpAuthenticated).check(jsonPath("$.id").saveAs("user_id")))
+        .exec(session -> session.set("date", LocalDate.of(2000, 1, 1).plusDays(ThreadLocalRandom.current().nextInt(3650)).toString()));
+
+    ChainBuilder lookupThenWrite = group("Log mood with lookup").on(
+        exec(
+            http("Get moodEntry of the date")
+                .get("/api/mood-entries/my/date/${date}")
+                .headers(headersHttpAuthenticated)
+                .check(status().in(200, 404).saveAs("lookup_status"))
+                .check(jsonPath("$.id").optional().saveAs("mood_entry_id"))
+        ).doIfEqualsOrElse("${lookup_status}", 200)
+            .then(
+                exec(
+                    http("Update moodEntry")
+                        .put("/api/mood-entries/${mood_entry_id}")
+                        .headers(headersHttpAuthenticated)
+                        .body(
+                            StringBody(
+                                "{\"id\": ${mood_entry_id}, \"date\": \"${date}\", \"mood\": \"SAD\", \"user\": {\"id\": ${user_id}}}"
+                            )
+                        )
+                        .check(status().is(200))
+                )
+            )
+            .orElse(
+                exec(
+                    http("Create moodEntry")
+                        .post("/api/mood-entries")
+                        .headers(headersHttpAuthenticated)
+                        .body(StringBody("{\"date\": \"${date}\", \"mood\": \"HAPPY\", \"user\": {\"id\": ${user_id}}}"))
+                        .check(status().is(201))
+                )
+            )
+    );
+
+    ChainBuilder upsert = group("Log mood with upsert").on(
+        exec(
+            http("Put moodEntry of the date")
+                .put("/api/mood-entries/my/date/${date}")
+                .headers(headersHttpAuthenticated)
+                .body(StringBody("{\"mood\": \"HAPPY\"}"))
+                .check(status().is(200))
+        )
+    );
+
+    ScenarioBuilder lookupUsers = scenario("Log mood with lookup").exec(authenticate).repeat(2).on(exec(lookupThenWrite).pause(1));
+
+    ScenarioBuilder upsertUsers = scenario("Log mood with upsert").exec(authenticate).repeat(2).on(exec(upsert).pause(1));
+
+    {
+        int users = Integer.getInteger("users", 100);
+        Duration ramp = Duration.ofMinutes(Integer.getInteger("ramp", 1));
+        setUp(lookupUsers.injectOpen(rampUsers(users).during(ramp)), upsertUsers.injectOpen(rampUsers(users).during(ramp))).protocols(
+            httpConf
+        );
+    }
+}
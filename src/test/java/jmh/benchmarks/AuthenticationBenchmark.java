@@ -0,0 +1,107 @@
+package jmh.benchmarks;
+
+import com.mycompany.myapp.domain.RefreshToken;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.repository.RefreshTokenRepository;
+import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.service.RefreshTokenService;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Micro benchmark of the authentication work done for one user active all day, once per expiry of the access token.
+ * <p>
+ * Without refresh tokens the client posts the password again, checked with bcrypt each time. With refresh tokens it logs in
+ * once, then exchanges its refresh token through {@link RefreshTokenService#rotateToken(String)}. The repositories are
+ * stubs, so only the CPU work is measured; each operation is one day.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthenticationBenchmark {
+
+    private static final String PASSWORD = "benchmark-password";
+
+    private static final String JWT_SECRET =
+        "OGIwNzk1MTRjODYwZmJiOGU1ZGVjMGE1NDBhZmU0MDllZmEwNTc5OWVkZGU3NjZmZWM2OTE2MTAyMTBiNmU3NjExNjEwYWJkMDgxZDA2MWUxNmZjZjk3MWM0ZWU2ZGU0ZGM1YTIwMzJhNDQxMWI3YTFkMDQxOGVmNTI0MjQxNTY=";
+
+    @Param({ "15", "60" })
+    private int accessTokenMinutes;
+
+    private int tokensPerDay;
+
+    private BCryptPasswordEncoder passwordEncoder;
+
+    private String encodedPassword;
+
+    private RefreshTokenService refreshTokenService;
+
+    private String refreshToken;
+
+    @Setup
+    public void setup() {
+        tokensPerDay = (int) (Duration.ofDays(1).toMinutes() / accessTokenMinutes);
+        passwordEncoder = new BCryptPasswordEncoder();
+        encodedPassword = passwordEncoder.encode(PASSWORD);
+
+        User user = new User();
+        user.setId(1L);
+        user.setLogin("benchmark");
+        user.setActivated(true);
+        RefreshToken stored = new RefreshToken().userId(1L).expiresAt(Instant.now().plus(Duration.ofDays(30)));
+        stored.setId(1L);
+        RefreshTokenRepository refreshTokenRepository = stub(RefreshTokenRepository.class, (name, args) ->
+            switch (name) {
+                case "findOneByTokenHash" -> Optional.of(stored);
+                case "deleteOneById" -> 1;
+                case "save" -> args[0];
+                default -> throw new UnsupportedOperationException(name);
+            }
+        );
+        UserRepository userRepository = stub(UserRepository.class, (name, args) -> {
+            if ("findOneWithAuthoritiesById".equals(name)) {
+                return Optional.of(user);
+            }
+            throw new UnsupportedOperationException(name);
+        });
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, userRepository, JWT_SECRET, Duration.ofDays(30));
+        refreshToken = refreshTokenService.createToken(1L);
+    }
+
+    @Benchmark
+    public void passwordLogins(Blackhole blackhole) {
+        for (int i = 0; i < tokensPerDay; i++) {
+            blackhole.consume(passwordEncoder.matches(PASSWORD, encodedPassword));
+        }
+    }
+
+    @Benchmark
+    public void refreshTokenRotations(Blackhole blackhole) {
+        blackhole.consume(passwordEncoder.matches(PASSWORD, encodedPassword));
+        String token = refreshToken;
+        for (int i = 1; i < tokensPerDay; i++) {
+            token = refreshTokenService.rotateToken(token).orElseThrow().refreshToken();
+        }
+        blackhole.consume(token);
+    }
+
+    private interface Answer {
+        Object answer(String methodName, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Answer answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) ->
+            answer.answer(method.getName(), args)
+        );
+    }
+}
@@ -0,0 +1,103 @@
+package jmh.benchmarks;
+
+import com.mycompany.myapp.config.BoundedTaskExecutor;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import tech.jhipster.async.ExceptionHandlingAsyncTaskExecutor;
+
+/**
+ * Micro benchmark of the request and task execution modes selected by {@code spring.threads.virtual.enabled}.
+ * <p>
+ * Each operation is a burst of {@link #REQUESTS} requests, each holding one of {@link #CONNECTIONS} connections while its
+ * queries run, then blocked on other I/O for {@code otherIoMillis}. The platform mode runs them on {@link #WORKERS} threads,
+ * as the Undertow workers of an 8 core host; the virtual mode starts a virtual thread each, as the requests do. The bounded
+ * mode is the {@code @Async} executor of {@code AsyncConfiguration}, at most {@link #WORKERS} of them running at once on
+ * virtual threads, or on a platform thread each before Java 21. The score is the burst time, its p0.99 is the tail
+ * latency. The virtual mode needs Java 21: {@code ./mvnw -Pdev,jmh,java21 test -Djava21.home=...}.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutionModeBenchmark {
+
+    private static final int REQUESTS = 500;
+
+    // the default maximum-pool-size of Hikari
+    private static final int CONNECTIONS = 10;
+
+    private static final int WORKERS = 64;
+
+    private static final long QUERIES_MILLIS = 2;
+
+    @Param({ "platform", "bounded", "virtual" })
+    private String mode;
+
+    @Param({ "0", "20" })
+    private long otherIoMillis;
+
+    private AsyncTaskExecutor executor;
+
+    private Semaphore connectionPool;
+
+    @Setup
+    public void setup() throws Exception {
+        boolean virtualThreads = JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE);
+        if ("virtual".equals(mode)) {
+            if (!virtualThreads) {
+                throw new IllegalStateException("Virtual threads need Java 21 or later");
+            }
+            SimpleAsyncTaskExecutor virtualExecutor = new SimpleAsyncTaskExecutor("benchmark-");
+            virtualExecutor.setVirtualThreads(true);
+            executor = new ExceptionHandlingAsyncTaskExecutor(virtualExecutor);
+        } else if ("bounded".equals(mode)) {
+            SimpleAsyncTaskExecutor threads = new SimpleAsyncTaskExecutor("benchmark-");
+            threads.setVirtualThreads(virtualThreads);
+            executor = new ExceptionHandlingAsyncTaskExecutor(new BoundedTaskExecutor(threads, WORKERS, REQUESTS));
+        } else {
+            ThreadPoolTaskExecutor platformExecutor = new ThreadPoolTaskExecutor();
+            platformExecutor.setCorePoolSize(WORKERS);
+            platformExecutor.setMaxPoolSize(WORKERS);
+            platformExecutor.setQueueCapacity(REQUESTS);
+            platformExecutor.setThreadNamePrefix("benchmark-");
+            platformExecutor.initialize();
+            executor = new ExceptionHandlingAsyncTaskExecutor(platformExecutor);
+        }
+        connectionPool = new Semaphore(CONNECTIONS, true);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        ((ExceptionHandlingAsyncTaskExecutor) executor).destroy();
+    }
+
+    @Benchmark
+    public void requests() {
+        CompletableFuture<?>[] requests = new CompletableFuture<?>[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            requests[i] = executor.submitCompletable(this::request);
+        }
+        CompletableFuture.allOf(requests).join();
+    }
+
+    private Void request() throws InterruptedException {
+        connectionPool.acquire();
+        try {
+            Thread.sleep(QUERIES_MILLIS);
+        } finally {
+            connectionPool.release();
+        }
+        if (otherIoMillis > 0) {
+            Thread.sleep(otherIoMillis);
+        }
+        return null;
+    }
+}
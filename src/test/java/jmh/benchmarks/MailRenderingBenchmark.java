@@ -0,0 +1,84 @@
+package jmh.benchmarks;
+
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.service.MailTemplateRenderer;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Micro benchmark of the rendering of the mail templates, as a batch of reminders to many users.
+ * <p>
+ * The {@code thymeleaf} mode processes the template and resolves the subject for each mail, as when
+ * {@code spring.thymeleaf.cache} is off; the {@code prepared} mode fills the user fields in the template split once
+ * per locale. Both use the cached parsed templates of Thymeleaf. The benchmark runs on one thread, so the score is in
+ * mails rendered per second per core.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class MailRenderingBenchmark {
+
+    private static final int USERS = 1024;
+
+    @Param({ "thymeleaf", "prepared" })
+    private String mode;
+
+    @Param({ "mail/activationEmail", "mail/passwordResetEmail" })
+    private String template;
+
+    // the subject of the template, as sent by MailService
+    private String titleKey;
+
+    private MailTemplateRenderer renderer;
+
+    private User[] users;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        titleKey = "mail/passwordResetEmail".equals(template) ? "email.reset.title" : "email.activation.title";
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding("UTF-8");
+        templateResolver.setCacheable(true);
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("i18n/messages");
+        messageSource.setDefaultEncoding("UTF-8");
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setBaseUrl("https://moods.example.com");
+        renderer = new MailTemplateRenderer(templateEngine, messageSource, jHipsterProperties, "prepared".equals(mode));
+
+        users = new User[USERS];
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setLogin("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setActivationKey("activation" + i);
+            user.setResetKey("reset" + i);
+            user.setLangKey("en");
+            users[i] = user;
+        }
+    }
+
+    @Benchmark
+    public MailTemplateRenderer.RenderedMail render() {
+        User user = users[next++ & (USERS - 1)];
+        return renderer.render(user, template, titleKey, Locale.ENGLISH);
+    }
+}
@@ -0,0 +1,42 @@
+package jmh.benchmarks;
+
+import com.mycompany.myapp.domain.MoodEntry;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.domain.enumeration.MoodType;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reproducible mood entries shared by the benchmarks.
+ */
+final class MoodEntryBenchmarkData {
+
+    private MoodEntryBenchmarkData() {}
+
+    /**
+     * Create one entry per day for one user, ending today, in date order.
+     * <p>
+     * Moods come in runs of a few days so that streaks are realistic.
+     *
+     * @param size the number of entries.
+     * @return the entries.
+     */
+    static List<MoodEntry> moodEntries(int size) {
+        Random random = new Random(42);
+        MoodType[] moods = MoodType.values();
+        User user = new User();
+        user.setId(1L);
+        user.setLogin("user");
+        LocalDate start = LocalDate.now().minusDays(size - 1L);
+        List<MoodEntry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            MoodType mood = i > 0 && random.nextInt(4) > 0 ? entries.get(i - 1).getMood() : moods[random.nextInt(moods.length)];
+            MoodEntry entry = new MoodEntry().date(start.plusDays(i)).mood(mood).user(user);
+            entry.setId((long) i + 1);
+            entries.add(entry);
+        }
+        return entries;
+    }
+}
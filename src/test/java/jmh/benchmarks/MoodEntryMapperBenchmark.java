@@ -0,0 +1,39 @@
+package jmh.benchmarks;
+
+import com.mycompany.myapp.domain.MoodEntry;
+import com.mycompany.myapp.service.dto.MoodEntryDTO;
+import com.mycompany.myapp.service.mapper.MoodEntryMapper;
+import com.mycompany.myapp.service.mapper.MoodEntryMapperImpl;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Micro benchmark of {@link MoodEntryMapper#toDto(MoodEntry)} over a page of entries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoodEntryMapperBenchmark {
+
+    @Param({ "30", "365", "3650" })
+    private int size;
+
+    private MoodEntryMapper moodEntryMapper;
+
+    private List<MoodEntry> entries;
+
+    @Setup
+    public void setup() {
+        moodEntryMapper = new MoodEntryMapperImpl();
+        entries = MoodEntryBenchmarkData.moodEntries(size);
+    }
+
+    @Benchmark
+    public List<MoodEntryDTO> toDto() {
+        return moodEntryMapper.toDto(entries);
+    }
+}
@@ -0,0 +1,60 @@
+package jmh.benchmarks;
+
+import com.mycompany.myapp.domain.MoodEntry;
+import com.mycompany.myapp.repository.MoodEntryRepository;
+import com.mycompany.myapp.service.MoodEntryService;
+import com.mycompany.myapp.service.dto.MoodStatisticsDTO;
+import com.mycompany.myapp.service.mapper.MoodEntryMapperImpl;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Micro benchmark of {@link MoodEntryService#getMoodStatisticsForCurrentUser(LocalDate, LocalDate)}.
+ * <p>
+ * The repository is a stub returning the rows of the date range query, so only the work done by the service is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoodEntryServiceBenchmark {
+
+    @Param({ "30", "365", "3650" })
+    private int size;
+
+    private MoodEntryService moodEntryService;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    @Setup
+    public void setup() {
+        List<MoodEntry> entries = MoodEntryBenchmarkData.moodEntries(size);
+        List<Object[]> dateAndMoodRows = entries.stream().map(entry -> new Object[] { entry.getDate(), entry.getMood() }).toList();
+        MoodEntryRepository moodEntryRepository = (MoodEntryRepository) Proxy.newProxyInstance(
+            MoodEntryRepository.class.getClassLoader(),
+            new Class<?>[] { MoodEntryRepository.class },
+            (proxy, method, args) -> {
+                if ("findDateAndMoodByUserIsCurrentUserAndDateBetween".equals(method.getName())) {
+                    return dateAndMoodRows;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        );
+        // without an authenticated user the statistics cache is bypassed, so every call computes the statistics
+        moodEntryService = new MoodEntryService(moodEntryRepository, new MoodEntryMapperImpl(), null, null, null);
+        startDate = entries.get(0).getDate();
+        endDate = entries.get(size - 1).getDate();
+    }
+
+    @Benchmark
+    public MoodStatisticsDTO statistics() {
+        return moodEntryService.getMoodStatisticsForCurrentUser(startDate, endDate);
+    }
+}
@@ -0,0 +1,132 @@
+package jmh.benchmarks;
+
+import com.mycompany.myapp.domain.MoodEntry;
+import com.mycompany.myapp.domain.enumeration.MoodType;
+import com.mycompany.myapp.service.MoodStatisticsKernel;
+import com.mycompany.myapp.service.dto.MoodStatisticsDTO;
+import com.mycompany.myapp.service.dto.MoodTrendDTO;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Micro benchmark of the mood statistics computation, comparing the stream based computation over entities
+ * with {@link MoodStatisticsKernel} over primitive arrays.
+ * <p>
+ * Run with the {@code -prof gc} profiler to compare allocations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoodStatisticsKernelBenchmark {
+
+    @Param({ "30", "365", "3650" })
+    private int size;
+
+    private List<MoodEntry> entries;
+
+    private int[] epochDays;
+
+    private byte[] moods;
+
+    private int today;
+
+    @Setup
+    public void setup() {
+        List<MoodEntry> ascending = MoodEntryBenchmarkData.moodEntries(size);
+        epochDays = new int[size];
+        moods = new byte[size];
+        for (int i = 0; i < size; i++) {
+            epochDays[i] = (int) ascending.get(i).getDate().toEpochDay();
+            moods[i] = (byte) ascending.get(i).getMood().ordinal();
+        }
+        // the range query returns the newest entries first
+        entries = new ArrayList<>(ascending);
+        Collections.reverse(entries);
+        today = (int) LocalDate.now().toEpochDay();
+    }
+
+    @Benchmark
+    public MoodStatisticsDTO streams() {
+        MoodStatisticsDTO statistics = new MoodStatisticsDTO();
+        Map<MoodType, Long> moodDistribution = entries.stream().collect(Collectors.groupingBy(MoodEntry::getMood, Collectors.counting()));
+        statistics.setMoodDistribution(moodDistribution);
+        statistics.setTotalEntries((long) entries.size());
+        moodDistribution
+            .entrySet()
+            .stream()
+            .max(Map.Entry.comparingByValue())
+            .ifPresent(mostFrequent -> {
+                statistics.setMostFrequentMood(mostFrequent.getKey());
+                statistics.setMostFrequentMoodCount(mostFrequent.getValue());
+            });
+        statistics.setAverageMoodScore(entries.stream().mapToInt(entry -> MoodStatisticsKernel.score(entry.getMood())).average().orElse(0.0));
+        statistics.setTrends(
+            entries
+                .stream()
+                .sorted(Comparator.comparing(MoodEntry::getDate))
+                .map(entry -> new MoodTrendDTO(entry.getDate(), entry.getMood()))
+                .collect(Collectors.toList())
+        );
+
+        List<MoodEntry> descending = entries.stream().sorted(Comparator.comparing(MoodEntry::getDate).reversed()).collect(Collectors.toList());
+        LocalDate latestEntryDate = descending.get(0).getDate();
+        LocalDate currentDate = LocalDate.ofEpochDay(today);
+        if (latestEntryDate.equals(currentDate) || latestEntryDate.equals(currentDate.minusDays(1))) {
+            MoodType currentMood = descending.get(0).getMood();
+            long currentStreak = 1;
+            for (int i = 1; i < descending.size(); i++) {
+                MoodEntry entry = descending.get(i);
+                if (entry.getMood() != currentMood || !entry.getDate().equals(latestEntryDate.minusDays(currentStreak))) {
+                    break;
+                }
+                currentStreak++;
+            }
+            statistics.setCurrentStreak(currentStreak);
+            statistics.setCurrentStreakMood(currentMood);
+        }
+
+        List<MoodEntry> ascending = entries.stream().sorted(Comparator.comparing(MoodEntry::getDate)).collect(Collectors.toList());
+        long longestStreak = 1;
+        MoodType longestStreakMood = ascending.get(0).getMood();
+        long tempStreak = 1;
+        MoodType tempMood = ascending.get(0).getMood();
+        for (int i = 1; i < ascending.size(); i++) {
+            if (ascending.get(i).getMood() == tempMood) {
+                tempStreak++;
+            } else {
+                if (tempStreak > longestStreak) {
+                    longestStreak = tempStreak;
+                    longestStreakMood = tempMood;
+                }
+                tempStreak = 1;
+                tempMood = ascending.get(i).getMood();
+            }
+        }
+        if (tempStreak > longestStreak) {
+            longestStreak = tempStreak;
+            longestStreakMood = tempMood;
+        }
+        statistics.setLongestStreak(longestStreak);
+        statistics.setLongestStreakMood(longestStreakMood);
+        return statistics;
+    }
+
+    @Benchmark
+    public void kernel(Blackhole blackhole) {
+        MoodStatisticsKernel.Result result = MoodStatisticsKernel.compute(epochDays, moods, size, today);
+        // the trends are materialized as in the service, to compare the same output
+        List<MoodTrendDTO> trends = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            trends.add(new MoodTrendDTO(LocalDate.ofEpochDay(epochDays[i]), MoodStatisticsKernel.mood(moods[i]), result.getTrendScore(i)));
+        }
+        blackhole.consume(result);
+        blackhole.consume(trends);
+    }
+}
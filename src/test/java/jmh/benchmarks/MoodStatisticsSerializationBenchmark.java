@@ -0,0 +1,65 @@
+package jmh.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.myapp.config.JacksonConfiguration;
+import com.mycompany.myapp.domain.MoodEntry;
+import com.mycompany.myapp.domain.enumeration.MoodType;
+import com.mycompany.myapp.service.dto.MoodStatisticsDTO;
+import com.mycompany.myapp.service.dto.MoodTrendDTO;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Micro benchmark of the JSON serialization of {@link MoodStatisticsDTO}, with the modules and defaults of the application.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoodStatisticsSerializationBenchmark {
+
+    @Param({ "30", "365", "3650" })
+    private int size;
+
+    private ObjectMapper objectMapper;
+
+    private MoodStatisticsDTO statistics;
+
+    @Setup
+    public void setup() {
+        JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modules(jacksonConfiguration.javaTimeModule(), jacksonConfiguration.jdk8TimeModule(), jacksonConfiguration.hibernate6Module())
+            .build();
+
+        List<MoodEntry> entries = MoodEntryBenchmarkData.moodEntries(size);
+        Map<MoodType, Long> moodDistribution = new EnumMap<>(MoodType.class);
+        entries.forEach(entry -> moodDistribution.merge(entry.getMood(), 1L, Long::sum));
+        statistics = new MoodStatisticsDTO();
+        statistics.setStartDate(entries.get(0).getDate());
+        statistics.setEndDate(entries.get(size - 1).getDate());
+        statistics.setTotalEntries((long) size);
+        statistics.setMoodDistribution(moodDistribution);
+        statistics.setMostFrequentMood(MoodType.HAPPY);
+        statistics.setMostFrequentMoodCount(moodDistribution.getOrDefault(MoodType.HAPPY, 0L));
+        statistics.setAverageMoodScore(3.0);
+        statistics.setTrends(entries.stream().map(entry -> new MoodTrendDTO(entry.getDate(), entry.getMood())).toList());
+        statistics.setCurrentStreak(1L);
+        statistics.setCurrentStreakMood(entries.get(size - 1).getMood());
+        statistics.setLongestStreak(1L);
+        statistics.setLongestStreakMood(entries.get(0).getMood());
+        statistics.setTrackingCompletionRate(100.0);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(statistics);
+    }
+}